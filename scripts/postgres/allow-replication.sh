@@ -0,0 +1,5 @@
+#!/bin/bash
+# Runs once when the primary's data directory is created: lets the replica
+# container stream the WAL with the application's credentials.
+set -e
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
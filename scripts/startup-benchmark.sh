@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+#
+# Time from JVM launch to the first successful GET /api/products/{id}.
+#
+# usage: scripts/startup-benchmark.sh [jar|faststart] [runs]
+#
+#   jar        target/productmng-tool-*.jar as built by `mvn package`
+#   faststart  target/faststart as built by `mvn -Pfaststart package` (AOT + AppCDS)
+#
+# Needs the database of the normal run (POSTGRES_DB, POSTGRES_USER, POSTGRES_PASSWORD)
+# holding product PRODUCT_ID (default 1). Nothing else may listen on PORT (default 8080).
+
+set -euo pipefail
+
+MODE=${1:-jar}
+RUNS=${2:-5}
+PRODUCT_ID=${PRODUCT_ID:-1}
+PORT=${PORT:-8080}
+CREDENTIALS=${CREDENTIALS:-user:password}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+cd "$(dirname "$0")/.."
+JAR_NAME=$(cd target && ls productmng-tool-*.jar | grep -v original | head -1)
+
+case "$MODE" in
+  jar)
+    WORKDIR=target
+    COMMAND=(java -jar "$JAR_NAME")
+    ;;
+  faststart)
+    # The archive only matches the class path it was recorded with, relative to target/faststart.
+    WORKDIR=target/faststart
+    COMMAND=(java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+             -jar "$JAR_NAME" --spring.profiles.active=faststart)
+    ;;
+  *)
+    echo "unknown mode: $MODE (jar|faststart)" >&2
+    exit 2
+    ;;
+esac
+
+URL="http://localhost:$PORT/api/products/$PRODUCT_ID"
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  (cd "$WORKDIR" && exec "${COMMAND[@]}" --server.port="$PORT") > "$LOG" 2>&1 &
+  pid=$!
+
+  status=000
+  deadline=$((start + TIMEOUT_SECONDS * 1000000000))
+  while [ "$status" != 200 ] && [ "$(date +%s%N)" -lt "$deadline" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "run $run: application exited, log follows" >&2
+      cat "$LOG" >&2
+      exit 1
+    fi
+    status=$(curl -s -o /dev/null -w '%{http_code}' -u "$CREDENTIALS" --max-time 5 "$URL" || true)
+    [ "$status" = 200 ] || sleep 0.02
+  done
+  end=$(date +%s%N)
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  if [ "$status" != 200 ]; then
+    echo "run $run: no successful response within ${TIMEOUT_SECONDS}s (last status $status)" >&2
+    exit 1
+  fi
+
+  millis=$(((end - start) / 1000000))
+  started=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]* seconds' || echo '?')
+  echo "run $run: first successful GET after ${millis} ms (context started in $started)"
+  results+=("$millis")
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "$MODE: runs=$RUNS min=${sorted[0]}ms median=${sorted[$((RUNS / 2))]}ms max=${sorted[$((RUNS - 1))]}ms"
@@ -0,0 +1,39 @@
+package com.ing.productmng_tool.cache;
+
+import com.ing.productmng_tool.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Creates the in-process read caches used by the service layer.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public NegativeCache negativeCache(CacheProperties properties, MeterRegistry meterRegistry) {
+        return new NegativeCache(
+                properties.negative().capacity(),
+                properties.negative().ttl(),
+                meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
+    public ProductNameIndex productNameIndex(ProductRepository repository,
+                                             PlatformTransactionManager transactionManager,
+                                             CacheProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new ProductNameIndex(
+                repository,
+                transactionManager,
+                properties.names().expectedInsertions(),
+                properties.names().falsePositiveProbability(),
+                meterRegistry);
+    }
+}
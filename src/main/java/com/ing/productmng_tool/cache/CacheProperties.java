@@ -0,0 +1,39 @@
+package com.ing.productmng_tool.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-process read caches.
+ *
+ * <p>Bound from the {@code product.cache} prefix.</p>
+ *
+ * @param negative settings of the cache of missing product ids
+ * @param names    settings of the product name membership index
+ */
+@ConfigurationProperties(prefix = "product.cache")
+public record CacheProperties(
+        @DefaultValue Negative negative,
+        @DefaultValue Names names
+) {
+
+    /**
+     * @param capacity maximum number of remembered ids
+     * @param ttl      how long an id is remembered as missing
+     */
+    public record Negative(
+            @DefaultValue("8192") int capacity,
+            @DefaultValue("5s") Duration ttl
+    ) {}
+
+    /**
+     * @param expectedInsertions       expected number of product names
+     * @param falsePositiveProbability target false positive rate of the filter
+     */
+    public record Names(
+            @DefaultValue("1000000") long expectedInsertions,
+            @DefaultValue("0.01") double falsePositiveProbability
+    ) {}
+}
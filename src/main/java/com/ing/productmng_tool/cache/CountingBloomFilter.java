@@ -0,0 +1,135 @@
+package com.ing.productmng_tool.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter over strings.
+ *
+ * <p>Each position holds a 4-bit counter, sixteen to a {@code long}, updated with
+ * compare-and-set. Counters let elements be removed again; a counter that reaches
+ * its maximum sticks there, trading a permanent false positive for never producing
+ * a false negative.</p>
+ *
+ * <p>{@link #mightContain(String)} returning {@code false} means the element was
+ * definitely never added (or was removed); {@code true} means it possibly was.</p>
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MAX = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+
+    /**
+     * Creates a filter sized for the expected number of elements.
+     *
+     * @param expectedInsertions      expected number of elements
+     * @param falsePositiveProbability target false positive rate, e.g. {@code 0.01}
+     */
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        long wordCount = Math.max(1, (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+
+        this.words = new AtomicLongArray(Math.toIntExact(wordCount));
+        this.counters = wordCount * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) m / n * ln2));
+    }
+
+    /**
+     * @param value element to add
+     */
+    public void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            update(position(h1, h2, i), 1);
+        }
+    }
+
+    /**
+     * Removes an element that was previously added.
+     *
+     * <p>Removing an element that was never added can create false negatives.</p>
+     *
+     * @param value element to remove
+     */
+    public void remove(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            update(position(h1, h2, i), -1);
+        }
+    }
+
+    /**
+     * @param value element to test
+     * @return {@code false} if the element is definitely absent
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long position = position(h1, h2, i);
+            if (counter(words.get(word(position)), position) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void update(long position, int delta) {
+        int index = word(position);
+        int shift = shift(position);
+        while (true) {
+            long current = words.get(index);
+            long counter = (current >>> shift) & COUNTER_MAX;
+            if (counter == COUNTER_MAX || (delta < 0 && counter == 0)) {
+                return;
+            }
+            long next = current + ((long) delta << shift);
+            if (words.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private long position(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private static int word(long position) {
+        return (int) (position / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long position) {
+        return (int) (position % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    private static long counter(long word, long position) {
+        return (word >>> shift(position)) & COUNTER_MAX;
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the UTF-16 chars, finalized with a 64-bit mix.
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
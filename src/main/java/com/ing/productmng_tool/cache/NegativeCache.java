@@ -0,0 +1,122 @@
+package com.ing.productmng_tool.cache;
+
+import com.ing.productmng_tool.jfr.ProductCacheEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, short-lived cache of product identifiers known not to exist.
+ *
+ * <p>Entries live in a fixed, direct-mapped slot array: a colliding id simply
+ * replaces the previous entry, so memory is bounded without any eviction
+ * bookkeeping and lookups allocate nothing.</p>
+ *
+ * <p>To avoid caching an id that is created while its lookup is in flight, callers
+ * read {@link #generation()} before querying the database and pass it to
+ * {@link #markMissing(long, long)}. Every {@link #invalidate(long)} advances the
+ * generation, so a lookup that raced with a create never leaves a stale entry.</p>
+ */
+public class NegativeCache {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final long ttlNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Creates a new negative cache.
+     *
+     * @param capacity maximum number of entries, rounded up to a power of two
+     * @param ttl      time an id is remembered as missing
+     * @param registry registry receiving the hit counter
+     */
+    public NegativeCache(int capacity, Duration ttl, MeterRegistry registry) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.ttlNanos = ttl.toNanos();
+
+        FunctionCounter.builder("product.cache.hits", hits, LongAdder::sum)
+                .description("Requests answered from an in-process cache")
+                .tag("cache", "negative")
+                .register(registry);
+    }
+
+    /**
+     * @return current invalidation generation, to be passed to {@link #markMissing}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param id product identifier
+     * @return {@code true} if the id was recently confirmed missing
+     */
+    public boolean isMissing(long id) {
+        Entry entry = slots.get(index(id));
+        if (entry != null && entry.id == id && entry.expiresAt - System.nanoTime() > 0) {
+            hits.increment();
+            ProductCacheEvent.record("negative", true);
+            return true;
+        }
+        ProductCacheEvent.record("negative", false);
+        return false;
+    }
+
+    /**
+     * Remembers that an id does not exist.
+     *
+     * @param id                 product identifier
+     * @param observedGeneration generation read before the database lookup
+     */
+    public void markMissing(long id, long observedGeneration) {
+        int index = index(id);
+        Entry entry = new Entry(id, System.nanoTime() + ttlNanos);
+        slots.set(index, entry);
+
+        // An id created since the lookup started must not stay cached.
+        if (generation.get() != observedGeneration) {
+            slots.compareAndSet(index, entry, null);
+        }
+    }
+
+    /**
+     * Forgets an id, typically after a product with that id was created.
+     *
+     * @param id product identifier
+     */
+    public void invalidate(long id) {
+        generation.incrementAndGet();
+
+        int index = index(id);
+        Entry entry = slots.get(index);
+        if (entry != null && entry.id == id) {
+            slots.compareAndSet(index, entry, null);
+        }
+    }
+
+    /**
+     * Forgets every id.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private int index(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private record Entry(long id, long expiresAt) {}
+}
@@ -0,0 +1,153 @@
+package com.ing.productmng_tool.cache;
+
+import com.ing.productmng_tool.jfr.ProductCacheEvent;
+import com.ing.productmng_tool.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership index of existing product names.
+ *
+ * <p>Backed by a {@link CountingBloomFilter} that is rebuilt from the database in
+ * the background once the application is ready, and kept up to date on create and
+ * delete. A name reported as definitely absent needs no existence query before it
+ * is inserted; a possibly present name is confirmed with
+ * {@link ProductRepository#existsByName(String)}.</p>
+ *
+ * <p>Until the first rebuild completes every name is treated as possibly present.
+ * Removals seen during a rebuild are ignored, which can only leave harmless false
+ * positives behind.</p>
+ */
+public class ProductNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private final ProductRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+
+    private final Counter definitelyNew;
+    private final Counter possiblyPresent;
+
+    private volatile CountingBloomFilter filter;
+    private volatile CountingBloomFilter building;
+
+    /**
+     * Creates a new index; it reports every name as possibly present until rebuilt.
+     *
+     * @param repository               product repository used for rebuilds
+     * @param transactionManager       transaction manager for the streaming rebuild
+     * @param expectedInsertions       expected number of product names
+     * @param falsePositiveProbability target false positive rate
+     * @param registry                 registry receiving the check counters
+     */
+    public ProductNameIndex(ProductRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            long expectedInsertions,
+                            double falsePositiveProbability,
+                            MeterRegistry registry) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+
+        this.definitelyNew = Counter.builder("product.names.checks")
+                .description("Product name uniqueness pre-checks")
+                .tag("result", "definitely-new")
+                .register(registry);
+        this.possiblyPresent = Counter.builder("product.names.checks")
+                .description("Product name uniqueness pre-checks")
+                .tag("result", "possibly-present")
+                .register(registry);
+    }
+
+    /**
+     * @param name product name
+     * @return {@code false} if no product with this name exists
+     */
+    public boolean mightContain(String name) {
+        CountingBloomFilter current = filter;
+        if (current != null && !current.mightContain(name)) {
+            definitelyNew.increment();
+            ProductCacheEvent.record("names", true);
+            return false;
+        }
+        possiblyPresent.increment();
+        ProductCacheEvent.record("names", false);
+        return true;
+    }
+
+    /**
+     * Records a created product name.
+     *
+     * @param name product name
+     */
+    public void add(String name) {
+        CountingBloomFilter current = filter;
+        CountingBloomFilter next = building;
+        if (current != null) {
+            current.add(name);
+        }
+        if (next != null && next != current) {
+            next.add(name);
+        }
+    }
+
+    /**
+     * Records a deleted product name.
+     *
+     * @param name product name
+     */
+    public void remove(String name) {
+        CountingBloomFilter current = filter;
+        if (current != null && building == null) {
+            current.remove(name);
+        }
+    }
+
+    /**
+     * Starts a background rebuild once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        Thread thread = new Thread(this::rebuild, "product-name-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuilds the filter from the names currently stored in the database.
+     */
+    public void rebuild() {
+        CountingBloomFilter next = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+        building = next;
+        long started = System.nanoTime();
+        try {
+            Long count = readOnlyTransaction.execute(status -> {
+                try (Stream<String> names = repository.streamAllNames()) {
+                    return names.mapToLong(name -> {
+                        next.add(name);
+                        return 1L;
+                    }).sum();
+                }
+            });
+            filter = next;
+            log.info("Product name index rebuilt names={} tookMs={}",
+                    count, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.warn("Product name index rebuild failed - names are confirmed against the database", ex);
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ing.productmng_tool.cache;
+
+import com.ing.productmng_tool.deadline.Deadline;
+import com.ing.productmng_tool.exception.DeadlineExceededException;
+import com.ing.productmng_tool.jfr.ProductCacheEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into a single execution.
+ *
+ * <p>The first caller for a key becomes the leader and runs the loader; callers
+ * arriving while the load is in flight wait for and share its result (or its
+ * exception). Nothing is cached once the load completes.</p>
+ *
+ * <p>The fast path for a follower is a single lock-free {@link ConcurrentHashMap#get}.
+ * Followers stop waiting when their request {@link Deadline} passes. The loader runs
+ * under the leader's deadline; if that runs out, followers with time left do not
+ * inherit the leader's timeout but load again themselves.</p>
+ *
+ * <p>Publishes the {@code product.loads} counter tagged with the load name and
+ * {@code result=executed|shared}; the shared count is the number of loads saved.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Counter executed;
+    private final Counter shared;
+
+    /**
+     * Creates a new single-flight group.
+     *
+     * @param name     name of the coalesced load, used as the {@code load} tag
+     * @param registry registry receiving the load counters
+     */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.name = name;
+        this.executed = Counter.builder("product.loads")
+                .description("Loads executed or shared with a concurrent caller")
+                .tag("load", name)
+                .tag("result", "executed")
+                .register(registry);
+        this.shared = Counter.builder("product.loads")
+                .description("Loads executed or shared with a concurrent caller")
+                .tag("load", name)
+                .tag("result", "shared")
+                .register(registry);
+    }
+
+    /**
+     * Returns the value for the key, joining an in-flight load if one exists.
+     *
+     * @param key    key to load
+     * @param loader loader executed only by the leading caller
+     * @return the loaded value
+     */
+    public V load(K key, Supplier<V> loader) {
+        while (true) {
+            CompletableFuture<V> existing = inFlight.get(key);
+            if (existing == null) {
+                CompletableFuture<V> own = new CompletableFuture<>();
+                existing = inFlight.putIfAbsent(key, own);
+                if (existing == null) {
+                    return lead(key, own, loader);
+                }
+            }
+
+            shared.increment();
+            ProductCacheEvent.record(name, true);
+            try {
+                return await(existing);
+            } catch (RuntimeException ex) {
+                if (!isDeadlineExceeded(ex) || Deadline.remainingNanos(Long.MAX_VALUE) <= 0) {
+                    throw ex;
+                }
+                // The leader ran out of its own budget, not ours: load again.
+            }
+        }
+    }
+
+    /**
+     * @return number of loads currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> own, Supplier<V> loader) {
+        executed.increment();
+        ProductCacheEvent.record(name, false);
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            long remaining = Deadline.remainingNanos(Long.MAX_VALUE);
+            return remaining == Long.MAX_VALUE ? future.get() : future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // The leader keeps loading for the other callers.
+            throw new DeadlineExceededException();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private static boolean isDeadlineExceeded(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof TransactionTimedOutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ing.productmng_tool.catalog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the snapshot-backed product catalog.
+ *
+ * <p>Active only with {@code product.catalog.enabled=true}. The catalog loads while
+ * the context refreshes, so it is warm before the first request.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.catalog", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(CatalogProperties.class)
+public class CatalogConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProductCatalog productCatalog(DataSource dataSource,
+                                         PlatformTransactionManager transactionManager,
+                                         CatalogProperties properties) {
+        return new ProductCatalog(dataSource, transactionManager, properties);
+    }
+}
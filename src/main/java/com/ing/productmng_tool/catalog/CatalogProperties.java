@@ -0,0 +1,51 @@
+package com.ing.productmng_tool.catalog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the snapshot-backed product catalog.
+ *
+ * <p>Bound from the {@code product.catalog} prefix.</p>
+ *
+ * @param enabled               whether point and list reads are served from the catalog
+ * @param store                 where cached products live between snapshots
+ * @param offHeapSlabSize       allocation unit of the off-heap store
+ * @param file                  local snapshot file, one per instance
+ * @param snapshotInterval      how often the snapshot file is rewritten
+ * @param reconcileInterval     how often rows changed in the database are pulled in
+ * @param reconcileOverlap      how far before the watermark each reconciliation reads
+ * @param deletionSweepInterval how often products deleted by other instances are detected
+ */
+@ConfigurationProperties(prefix = "product.catalog")
+public record CatalogProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("mapped") Store store,
+        @DefaultValue("64MB") DataSize offHeapSlabSize,
+        @DefaultValue("data/catalog.snapshot") Path file,
+        @DefaultValue("10m") Duration snapshotInterval,
+        @DefaultValue("2s") Duration reconcileInterval,
+        @DefaultValue("5s") Duration reconcileOverlap,
+        @DefaultValue("5m") Duration deletionSweepInterval
+) {
+
+    /**
+     * Storage of the cached products.
+     */
+    public enum Store {
+
+        /**
+         * The mapped snapshot file, plus changes since it on the heap.
+         */
+        MAPPED,
+
+        /**
+         * Everything in direct memory; the snapshot file is only read at startup.
+         */
+        OFF_HEAP
+    }
+}
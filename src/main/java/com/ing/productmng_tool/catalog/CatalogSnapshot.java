@@ -0,0 +1,390 @@
+package com.ing.productmng_tool.catalog;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped snapshot of the product catalog.
+ *
+ * <p>File layout (big endian):</p>
+ * <pre>
+ * header(64):  magic(4) format(4) count(4) padding(4) watermarkMicros(8)
+ *              recordsOffset(8) stringsOffset(8) stringsLength(8) crc32(8) reserved(8)
+ * records:     count x 48 bytes, sorted by id
+ *              id(8) version(8) unscaledPrice(8) createdAtMicros(8) updatedAtMicros(8)
+ *              stringOffset(4) nameLength(2) descriptionLength(2, -1 for null)
+ * strings:     UTF-8 name followed by description, per record
+ * </pre>
+ *
+ * <p>Timestamps are the stored {@code LocalDateTime} values in microseconds,
+ * encoded as if they were UTC so no zone conversion is involved. Prices use
+ * {@link #PRICE_SCALE}. The checksum covers records and strings and is verified
+ * when the file is opened.</p>
+ *
+ * <p>Lookups binary-search the mapped id column and decode fields straight from
+ * the mapping; nothing is copied onto the heap when the file is opened.</p>
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Scale used to store prices as unscaled longs; matches the {@code products.price} column.
+     */
+    public static final int PRICE_SCALE = 4;
+
+    static final int RECORD_SIZE = 48;
+
+    private static final int MAGIC = 0x50434154; // "PCAT"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private final ByteBuffer records;
+    private final ByteBuffer strings;
+    private final int count;
+    private final long watermarkMicros;
+
+    private CatalogSnapshot(ByteBuffer records, ByteBuffer strings, int count, long watermarkMicros) {
+        this.records = records;
+        this.strings = strings;
+        this.count = count;
+        this.watermarkMicros = watermarkMicros;
+    }
+
+    /**
+     * Maps and verifies a snapshot file.
+     *
+     * @param file snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Catalog snapshot truncated: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+                throw new IOException("Not a catalog snapshot of format " + FORMAT + ": " + file);
+            }
+
+            int count = header.getInt(8);
+            long watermark = header.getLong(16);
+            long recordsOffset = header.getLong(24);
+            long stringsOffset = header.getLong(32);
+            long stringsLength = header.getLong(40);
+            long crc = header.getLong(48);
+            if (stringsOffset + stringsLength != channel.size()
+                    || recordsOffset + (long) count * RECORD_SIZE != stringsOffset) {
+                throw new IOException("Catalog snapshot truncated: " + file);
+            }
+
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, recordsOffset, (long) count * RECORD_SIZE);
+            MappedByteBuffer strings = channel.map(FileChannel.MapMode.READ_ONLY, stringsOffset, stringsLength);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(records.duplicate());
+            checksum.update(strings.duplicate());
+            if (checksum.getValue() != crc) {
+                throw new IOException("Catalog snapshot checksum mismatch: " + file);
+            }
+            return new CatalogSnapshot(records, strings, count, watermark);
+        }
+    }
+
+    /**
+     * Writes a snapshot atomically: into a temporary file that replaces {@code file}
+     * once complete and forced to disk.
+     *
+     * @param file            target file
+     * @param products        products in ascending id order
+     * @param watermarkMicros highest {@code updatedAt} reflected in the snapshot
+     * @return number of products written
+     * @throws IOException if writing fails
+     */
+    public static int write(Path file, Iterator<CatalogProduct> products, long watermarkMicros) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path recordsFile = Files.createTempFile(directory, "catalog-", ".tmp");
+        Path stringsFile = Files.createTempFile(directory, "catalog-strings-", ".tmp");
+
+        try {
+            int count = 0;
+            CRC32 recordsCrc = new CRC32();
+            long stringsLength = 0;
+            try (FileChannel out = FileChannel.open(recordsFile, StandardOpenOption.WRITE);
+                 FileChannel stringsOut = FileChannel.open(stringsFile, StandardOpenOption.WRITE)) {
+
+                out.position(HEADER_SIZE);
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE * 1024);
+                ByteBuffer text = ByteBuffer.allocate(64 * 1024);
+                long previousId = Long.MIN_VALUE;
+
+                while (products.hasNext()) {
+                    CatalogProduct product = products.next();
+                    if (product.id() <= previousId) {
+                        throw new IllegalArgumentException("Products must be in ascending id order: " + product.id());
+                    }
+                    previousId = product.id();
+
+                    byte[] name = product.name().getBytes(StandardCharsets.UTF_8);
+                    byte[] description = product.description() != null
+                            ? product.description().getBytes(StandardCharsets.UTF_8)
+                            : null;
+                    int textLength = name.length + (description != null ? description.length : 0);
+                    if (stringsLength + textLength > Integer.MAX_VALUE) {
+                        throw new IOException("Catalog too large for snapshot format " + FORMAT);
+                    }
+
+                    if (record.remaining() < RECORD_SIZE) {
+                        flush(record, out, recordsCrc);
+                    }
+                    record.putLong(product.id())
+                            .putLong(product.version())
+                            .putLong(product.unscaledPrice())
+                            .putLong(product.createdAtMicros())
+                            .putLong(product.updatedAtMicros())
+                            .putInt((int) stringsLength)
+                            .putShort((short) name.length)
+                            .putShort((short) (description != null ? description.length : -1));
+
+                    if (text.remaining() < textLength) {
+                        flush(text, stringsOut, null);
+                        if (text.capacity() < textLength) {
+                            text = ByteBuffer.allocate(textLength);
+                        }
+                    }
+                    text.put(name);
+                    if (description != null) {
+                        text.put(description);
+                    }
+                    stringsLength += textLength;
+                    count++;
+                }
+                flush(record, out, recordsCrc);
+                flush(text, stringsOut, null);
+            }
+
+            // The checksum continues over the strings, read back once.
+            long stringsOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+            try (FileChannel out = FileChannel.open(recordsFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                 FileChannel stringsIn = FileChannel.open(stringsFile, StandardOpenOption.READ)) {
+
+                if (stringsLength > 0) {
+                    recordsCrc.update(stringsIn.map(FileChannel.MapMode.READ_ONLY, 0, stringsLength));
+                }
+                long transferred = 0;
+                while (transferred < stringsLength) {
+                    transferred += stringsIn.transferTo(transferred, stringsLength - transferred, out.position(stringsOffset + transferred));
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(FORMAT)
+                        .putInt(count)
+                        .putInt(0)
+                        .putLong(watermarkMicros)
+                        .putLong(HEADER_SIZE)
+                        .putLong(stringsOffset)
+                        .putLong(stringsLength)
+                        .putLong(recordsCrc.getValue())
+                        .putLong(0L)
+                        .flip();
+                out.write(header, 0);
+                out.force(true);
+            }
+
+            Files.move(recordsFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(recordsFile);
+            Files.deleteIfExists(stringsFile);
+        }
+    }
+
+    /**
+     * @return number of products in the snapshot
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return highest {@code updatedAt} reflected in the snapshot, in microseconds
+     */
+    public long watermarkMicros() {
+        return watermarkMicros;
+    }
+
+    /**
+     * @return mapped bytes of records and strings
+     */
+    public long sizeBytes() {
+        return (long) records.capacity() + strings.capacity();
+    }
+
+    /**
+     * @param id product identifier
+     * @return record index, or a negative value if the id is not in the snapshot
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @param index record index
+     * @return product id
+     */
+    public long idAt(int index) {
+        return records.getLong(index * RECORD_SIZE);
+    }
+
+    /**
+     * @param index record index
+     * @return optimistic locking version
+     */
+    public long versionAt(int index) {
+        return records.getLong(index * RECORD_SIZE + 8);
+    }
+
+    /**
+     * Decodes a record.
+     *
+     * @param index record index
+     * @return the product
+     */
+    public CatalogProduct productAt(int index) {
+        int base = index * RECORD_SIZE;
+        int stringOffset = records.getInt(base + 40);
+        int nameLength = records.getShort(base + 44);
+        int descriptionLength = records.getShort(base + 46);
+
+        return new CatalogProduct(
+                records.getLong(base),
+                records.getLong(base + 8),
+                decode(stringOffset, nameLength),
+                descriptionLength >= 0 ? decode(stringOffset + nameLength, descriptionLength) : null,
+                records.getLong(base + 16),
+                records.getLong(base + 24),
+                records.getLong(base + 32));
+    }
+
+    /**
+     * @return products in ascending id order
+     */
+    public Iterator<CatalogProduct> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public CatalogProduct next() {
+                return productAt(next++);
+            }
+        };
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        strings.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel, CRC32 crc) throws IOException {
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Product as stored in the catalog: primitive price and timestamps plus the version
+     * used to reconcile with the database.
+     *
+     * @param id              product identifier
+     * @param version         optimistic locking version
+     * @param name            product name
+     * @param description     product description, may be {@code null}
+     * @param unscaledPrice   price in units of 10^-{@value #PRICE_SCALE}
+     * @param createdAtMicros creation time
+     * @param updatedAtMicros last update time
+     */
+    public record CatalogProduct(long id, long version, String name, String description,
+                                 long unscaledPrice, long createdAtMicros, long updatedAtMicros) {
+
+        /**
+         * @return price with scale {@value #PRICE_SCALE}
+         */
+        public BigDecimal price() {
+            return BigDecimal.valueOf(unscaledPrice, PRICE_SCALE);
+        }
+
+        /**
+         * @return creation time
+         */
+        public LocalDateTime createdAt() {
+            return fromMicros(createdAtMicros);
+        }
+
+        /**
+         * @return last update time
+         */
+        public LocalDateTime updatedAt() {
+            return fromMicros(updatedAtMicros);
+        }
+
+        /**
+         * @param price price with at most {@value #PRICE_SCALE} decimals
+         * @return the unscaled price
+         * @throws ArithmeticException if the price does not fit into a long
+         */
+        public static long unscaled(BigDecimal price) {
+            return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+
+        /**
+         * @param time stored timestamp
+         * @return the timestamp in microseconds
+         */
+        public static long toMicros(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+        }
+
+        static LocalDateTime fromMicros(long micros) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        }
+    }
+}
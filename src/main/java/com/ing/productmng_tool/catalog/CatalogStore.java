@@ -0,0 +1,75 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Storage behind the {@link ProductCatalog}, selected with {@code product.catalog.store}.
+ *
+ * <p>Implementations are safe for concurrent readers and writers. A product is
+ * replaced only by a higher version; a deleted product blocks every later version
+ * until the next snapshot is written, so a stale read cannot bring it back.</p>
+ */
+public interface CatalogStore extends AutoCloseable {
+
+    /**
+     * @param id product identifier
+     * @return the product, or {@code null} if unknown or deleted
+     */
+    CatalogProduct get(long id);
+
+    /**
+     * Stores a product unless the same or a newer version is known.
+     *
+     * @param product product to store
+     * @return whether the product was stored
+     */
+    boolean apply(CatalogProduct product);
+
+    /**
+     * Marks a product as deleted, whatever its version.
+     *
+     * @param id product identifier
+     */
+    void remove(long id);
+
+    /**
+     * Marks a product as deleted if it still has the given version.
+     *
+     * @param id      product identifier
+     * @param version version the caller found to be gone from the database
+     * @return whether the product was marked
+     */
+    boolean removeIfVersion(long id, long version);
+
+    /**
+     * @return number of products, approximate while writes are in progress
+     */
+    int size();
+
+    /**
+     * @return products in ascending id order, excluding deleted ones
+     */
+    Iterator<CatalogProduct> iterator();
+
+    /**
+     * Writes the stored products to a snapshot file and forgets deletions it reflects.
+     *
+     * @param file            snapshot file
+     * @param watermarkMicros highest {@code updatedAt} reflected in the store
+     * @return number of products written
+     * @throws IOException if the file cannot be written
+     */
+    int writeSnapshot(Path file, long watermarkMicros) throws IOException;
+
+    /**
+     * @return bytes held outside the Java heap, mapped or allocated
+     */
+    long offHeapBytes();
+
+    @Override
+    void close();
+}
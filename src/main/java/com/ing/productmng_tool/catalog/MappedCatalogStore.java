@@ -0,0 +1,171 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalog store reading a memory-mapped {@link CatalogSnapshot}, with changes since
+ * the snapshot kept in an on-heap overlay until the next snapshot is written.
+ *
+ * <p>The mapping lives in the page cache and costs no heap; the overlay grows
+ * with the write rate times {@code product.catalog.snapshot-interval}.</p>
+ */
+public class MappedCatalogStore implements CatalogStore {
+
+    /**
+     * Overlay marker of a product deleted since the snapshot.
+     */
+    private static final CatalogProduct DELETED = new CatalogProduct(0L, Long.MAX_VALUE, "", null, 0L, 0L, 0L);
+
+    private final Map<Long, CatalogProduct> overlay = new ConcurrentHashMap<>();
+
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * @param snapshot mapped snapshot serving every product not changed since
+     */
+    public MappedCatalogStore(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public CatalogProduct get(long id) {
+        CatalogProduct product = overlay.get(id);
+        if (product == null) {
+            CatalogSnapshot current = snapshot;
+            int index = current.indexOf(id);
+            product = index >= 0 ? current.productAt(index) : null;
+        }
+        return product != DELETED ? product : null;
+    }
+
+    @Override
+    public boolean apply(CatalogProduct product) {
+        boolean[] applied = {false};
+        overlay.compute(product.id(), (id, existing) -> {
+            if (product.version() > knownVersion(id, existing)) {
+                applied[0] = true;
+                return product;
+            }
+            return existing;
+        });
+        return applied[0];
+    }
+
+    @Override
+    public void remove(long id) {
+        overlay.put(id, DELETED);
+    }
+
+    @Override
+    public boolean removeIfVersion(long id, long version) {
+        boolean[] removed = {false};
+        overlay.compute(id, (key, existing) -> {
+            if (existing != DELETED && knownVersion(key, existing) == version) {
+                removed[0] = true;
+                return DELETED;
+            }
+            return existing;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public int size() {
+        return snapshot.count() + overlay.size();
+    }
+
+    @Override
+    public Iterator<CatalogProduct> iterator() {
+        return merged(snapshot, overlay);
+    }
+
+    @Override
+    public int writeSnapshot(Path file, long watermarkMicros) throws IOException {
+        Map<Long, CatalogProduct> captured = Map.copyOf(overlay);
+        int count = CatalogSnapshot.write(file, merged(snapshot, captured), watermarkMicros);
+        snapshot = CatalogSnapshot.open(file);
+        // Entries replaced since the capture stay in the overlay.
+        captured.forEach(overlay::remove);
+        return count;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return snapshot.sizeBytes();
+    }
+
+    @Override
+    public void close() {
+        // The mapping is released with the buffer.
+    }
+
+    private long knownVersion(long id, CatalogProduct existing) {
+        if (existing != null) {
+            return existing.version();
+        }
+        CatalogSnapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index >= 0 ? current.versionAt(index) : Long.MIN_VALUE;
+    }
+
+    /**
+     * Merges the snapshot with overlay entries in id order, skipping deleted products.
+     */
+    private static Iterator<CatalogProduct> merged(CatalogSnapshot base, Map<Long, CatalogProduct> changes) {
+        Iterator<CatalogProduct> snapshotProducts = base.iterator();
+        Iterator<Map.Entry<Long, CatalogProduct>> changed = new TreeMap<>(changes).entrySet().iterator();
+
+        return new Iterator<>() {
+            private CatalogProduct fromSnapshot = advance(snapshotProducts);
+            private Map.Entry<Long, CatalogProduct> fromOverlay = changed.hasNext() ? changed.next() : null;
+            private CatalogProduct next = compute();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CatalogProduct next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                CatalogProduct result = next;
+                next = compute();
+                return result;
+            }
+
+            private CatalogProduct compute() {
+                while (fromSnapshot != null || fromOverlay != null) {
+                    CatalogProduct candidate;
+                    if (fromOverlay == null || (fromSnapshot != null && fromSnapshot.id() < fromOverlay.getKey())) {
+                        candidate = fromSnapshot;
+                        fromSnapshot = advance(snapshotProducts);
+                    } else {
+                        if (fromSnapshot != null && fromSnapshot.id() == fromOverlay.getKey()) {
+                            fromSnapshot = advance(snapshotProducts);
+                        }
+                        candidate = fromOverlay.getValue();
+                        fromOverlay = changed.hasNext() ? changed.next() : null;
+                    }
+                    if (candidate != DELETED) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private static CatalogProduct advance(Iterator<CatalogProduct> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -0,0 +1,518 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Catalog store keeping every product in direct memory, so millions of cached
+ * products add no objects to the heap; only the products being served are decoded.
+ *
+ * <p>Records are appended to fixed-size direct slabs and never span two of them:</p>
+ * <pre>
+ * id, version, unscaled price, createdAt, updatedAt   5 x 8 bytes (microseconds)
+ * name length, description length                      2 x 2 bytes
+ * name and description                                 UTF-8
+ * </pre>
+ * <p>A description length of -1 stands for {@code null}, a name length of -1 for a
+ * deleted product. Ids map to record addresses through an open-addressing index with
+ * linear probing: 16-byte slots (id, address + 1) in one direct buffer, doubled at
+ * 60% load.</p>
+ *
+ * <p>An update of the same encoded length, the usual price change, is written in
+ * place. Otherwise the record is appended and the old one becomes garbage, copied
+ * away by compaction once it outweighs the live data. Writers are serialized by a
+ * {@link StampedLock}; readers decode under an optimistic stamp and only take the
+ * read lock when a write overlapped them.</p>
+ */
+public class OffHeapProductStore implements CatalogStore {
+
+    static final int RECORD_HEADER = 44;
+    static final int MIN_SLAB_SIZE = 128 * 1024;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int MAX_SLOTS = 1 << 26;
+    private static final double MAX_LOAD = 0.6;
+    private static final short DELETED = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final int slabSize;
+
+    private Arena arena;
+    private ByteBuffer index;
+    private int indexMask;
+    private int usedSlots;
+    private long garbageBytes;
+    private volatile int live;
+
+    /**
+     * @param expectedProducts products the index is sized for before its first resize
+     * @param slabSize         bytes per direct slab, at least {@value #MIN_SLAB_SIZE}
+     */
+    public OffHeapProductStore(int expectedProducts, int slabSize) {
+        if (slabSize < MIN_SLAB_SIZE) {
+            throw new IllegalArgumentException("Slab size must be at least " + MIN_SLAB_SIZE + " bytes: " + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.arena = new Arena(slabSize);
+        this.index = allocateIndex(slotsFor(expectedProducts));
+        this.indexMask = index.capacity() / SLOT_SIZE - 1;
+    }
+
+    /**
+     * Copies a snapshot into a new store.
+     *
+     * @param snapshot snapshot to copy
+     * @param slabSize bytes per direct slab
+     * @return the populated store
+     */
+    public static OffHeapProductStore copyOf(CatalogSnapshot snapshot, int slabSize) {
+        OffHeapProductStore store = new OffHeapProductStore(snapshot.count(), slabSize);
+        snapshot.iterator().forEachRemaining(store::apply);
+        return store;
+    }
+
+    @Override
+    public CatalogProduct get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                CatalogProduct product = read(id);
+                if (lock.validate(stamp)) {
+                    return product;
+                }
+            } catch (RuntimeException ex) {
+                // A concurrent write can make an optimistic read fail; retried under the lock.
+                if (lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean apply(CatalogProduct product) {
+        byte[] name = product.name().getBytes(StandardCharsets.UTF_8);
+        byte[] description = product.description() != null
+                ? product.description().getBytes(StandardCharsets.UTF_8)
+                : null;
+        if (name.length > Short.MAX_VALUE || (description != null && description.length > Short.MAX_VALUE)) {
+            throw new IllegalArgumentException("Product text too long for the off-heap layout: " + product.id());
+        }
+        int length = RECORD_HEADER + name.length + (description != null ? description.length : 0);
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(product.id());
+            if (slot >= 0) {
+                long address = addressAt(slot);
+                if (product.version() <= versionAt(address)) {
+                    return false;
+                }
+                int previousLength = lengthAt(address);
+                boolean wasLive = !isDeleted(address);
+                if (previousLength != length) {
+                    garbageBytes += previousLength;
+                    address = arena.allocate(length);
+                    setAddress(slot, address);
+                }
+                encode(address, product, name, description);
+                if (!wasLive) {
+                    live++;
+                }
+            } else {
+                long address = arena.allocate(length);
+                encode(address, product, name, description);
+                insert(product.id(), address);
+                live++;
+            }
+            compactIfWasteful();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(id);
+            if (slot >= 0) {
+                markDeleted(addressAt(slot));
+            } else {
+                long address = arena.allocate(RECORD_HEADER);
+                ByteBuffer slab = arena.slab(address);
+                int offset = arena.offset(address);
+                slab.putLong(offset, id)
+                        .putLong(offset + 8, Long.MAX_VALUE)
+                        .putShort(offset + 40, DELETED)
+                        .putShort(offset + 42, DELETED);
+                insert(id, address);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean removeIfVersion(long id, long version) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return false;
+            }
+            long address = addressAt(slot);
+            if (isDeleted(address) || versionAt(address) != version) {
+                return false;
+            }
+            markDeleted(address);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        return live;
+    }
+
+    @Override
+    public Iterator<CatalogProduct> iterator() {
+        long[] ids;
+        long stamp = lock.readLock();
+        try {
+            ids = new long[live];
+            int count = 0;
+            for (int slot = 0; slot <= indexMask; slot++) {
+                long address = addressAt(slot);
+                if (address >= 0 && !isDeleted(address)) {
+                    ids[count++] = index.getLong(slot * SLOT_SIZE);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        Arrays.sort(ids);
+
+        return new Iterator<>() {
+            private int position;
+            private CatalogProduct next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CatalogProduct next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                CatalogProduct result = next;
+                next = advance();
+                return result;
+            }
+
+            // Products deleted since the ids were collected are skipped.
+            private CatalogProduct advance() {
+                while (position < ids.length) {
+                    CatalogProduct product = get(ids[position++]);
+                    if (product != null) {
+                        return product;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public int writeSnapshot(Path file, long watermarkMicros) throws IOException {
+        int count = CatalogSnapshot.write(file, iterator(), watermarkMicros);
+        long stamp = lock.writeLock();
+        try {
+            rehash(indexMask + 1, false);
+            compactIfWasteful();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return count;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return arena.capacity() + index.capacity();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Drops the references to the direct buffers; the memory is returned when
+     * they are collected.
+     */
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            arena = new Arena(MIN_SLAB_SIZE);
+            index = allocateIndex(16);
+            indexMask = 15;
+            usedSlots = 0;
+            garbageBytes = 0;
+            live = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private CatalogProduct read(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return null;
+        }
+        long address = addressAt(slot);
+        ByteBuffer slab = arena.slab(address);
+        int offset = arena.offset(address);
+
+        short nameLength = slab.getShort(offset + 40);
+        if (nameLength == DELETED) {
+            return null;
+        }
+        short descriptionLength = slab.getShort(offset + 42);
+        byte[] name = new byte[nameLength];
+        slab.get(offset + RECORD_HEADER, name);
+        String description = null;
+        if (descriptionLength != DELETED) {
+            byte[] bytes = new byte[descriptionLength];
+            slab.get(offset + RECORD_HEADER + nameLength, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new CatalogProduct(
+                slab.getLong(offset),
+                slab.getLong(offset + 8),
+                new String(name, StandardCharsets.UTF_8),
+                description,
+                slab.getLong(offset + 16),
+                slab.getLong(offset + 24),
+                slab.getLong(offset + 32));
+    }
+
+    private void encode(long address, CatalogProduct product, byte[] name, byte[] description) {
+        ByteBuffer slab = arena.slab(address);
+        int offset = arena.offset(address);
+        slab.putLong(offset, product.id())
+                .putLong(offset + 8, product.version())
+                .putLong(offset + 16, product.unscaledPrice())
+                .putLong(offset + 24, product.createdAtMicros())
+                .putLong(offset + 32, product.updatedAtMicros())
+                .putShort(offset + 40, (short) name.length)
+                .putShort(offset + 42, description != null ? (short) description.length : DELETED)
+                .put(offset + RECORD_HEADER, name);
+        if (description != null) {
+            slab.put(offset + RECORD_HEADER + name.length, description);
+        }
+    }
+
+    /**
+     * Keeps the version so later stale copies stay rejected; the text becomes garbage.
+     */
+    private void markDeleted(long address) {
+        if (isDeleted(address)) {
+            return;
+        }
+        garbageBytes += lengthAt(address) - RECORD_HEADER;
+        ByteBuffer slab = arena.slab(address);
+        int offset = arena.offset(address);
+        slab.putLong(offset + 8, Long.MAX_VALUE)
+                .putShort(offset + 40, DELETED)
+                .putShort(offset + 42, DELETED);
+        live--;
+    }
+
+    private long versionAt(long address) {
+        return arena.slab(address).getLong(arena.offset(address) + 8);
+    }
+
+    private boolean isDeleted(long address) {
+        return arena.slab(address).getShort(arena.offset(address) + 40) == DELETED;
+    }
+
+    private int lengthAt(long address) {
+        ByteBuffer slab = arena.slab(address);
+        int offset = arena.offset(address);
+        return RECORD_HEADER + Math.max(0, slab.getShort(offset + 40)) + Math.max(0, slab.getShort(offset + 42));
+    }
+
+    /**
+     * @return the slot holding {@code id}, or {@code -(free slot) - 1}
+     */
+    private int find(long id) {
+        ByteBuffer slots = index;
+        int mask = indexMask;
+        int slot = hash(id) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            int position = slot * SLOT_SIZE;
+            if (slots.getLong(position + 8) == 0L) {
+                return -slot - 1;
+            }
+            if (slots.getLong(position) == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Off-heap index has no free slot");
+    }
+
+    private void insert(long id, long address) {
+        if (usedSlots + 1 > (indexMask + 1) * MAX_LOAD) {
+            rehash((indexMask + 1) * 2, true);
+        }
+        int slot = -find(id) - 1;
+        index.putLong(slot * SLOT_SIZE, id).putLong(slot * SLOT_SIZE + 8, address + 1);
+        usedSlots++;
+    }
+
+    private long addressAt(int slot) {
+        return index.getLong(slot * SLOT_SIZE + 8) - 1;
+    }
+
+    private void setAddress(int slot, long address) {
+        index.putLong(slot * SLOT_SIZE + 8, address + 1);
+    }
+
+    /**
+     * Rebuilds the index with the given number of slots, optionally dropping deleted products.
+     */
+    private void rehash(int slots, boolean keepDeleted) {
+        if (slots > MAX_SLOTS) {
+            throw new IllegalStateException("Too many products for the off-heap index: " + usedSlots);
+        }
+        ByteBuffer previous = index;
+        int previousSlots = indexMask + 1;
+        index = allocateIndex(slots);
+        indexMask = slots - 1;
+        usedSlots = 0;
+
+        for (int slot = 0; slot < previousSlots; slot++) {
+            long stored = previous.getLong(slot * SLOT_SIZE + 8);
+            if (stored == 0L) {
+                continue;
+            }
+            long address = stored - 1;
+            if (!keepDeleted && isDeleted(address)) {
+                garbageBytes += RECORD_HEADER;
+                continue;
+            }
+            long id = previous.getLong(slot * SLOT_SIZE);
+            int free = -find(id) - 1;
+            index.putLong(free * SLOT_SIZE, id).putLong(free * SLOT_SIZE + 8, stored);
+            usedSlots++;
+        }
+    }
+
+    /**
+     * Copies live records into fresh slabs once garbage exceeds both one slab and the
+     * live data, so in-place price updates never trigger it.
+     */
+    private void compactIfWasteful() {
+        long used = arena.used();
+        if (garbageBytes <= slabSize || garbageBytes <= used - garbageBytes) {
+            return;
+        }
+        Arena compacted = new Arena(slabSize);
+        for (int slot = 0; slot <= indexMask; slot++) {
+            long address = addressAt(slot);
+            if (address < 0) {
+                continue;
+            }
+            int length = lengthAt(address);
+            long moved = compacted.allocate(length);
+            compacted.slab(moved).put(compacted.offset(moved), arena.slab(address), arena.offset(address), length);
+            setAddress(slot, moved);
+        }
+        arena = compacted;
+        garbageBytes = 0;
+    }
+
+    private static int slotsFor(int products) {
+        int needed = (int) Math.min(MAX_SLOTS, Math.ceil(Math.max(16, products) / MAX_LOAD));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static ByteBuffer allocateIndex(int slots) {
+        return ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Bump allocator over direct slabs; addresses are {@code slab * slabSize + offset}.
+     */
+    private static final class Arena {
+
+        private final int slabSize;
+        private ByteBuffer[] slabs = new ByteBuffer[4];
+        private int count;
+        private int offset;
+
+        Arena(int slabSize) {
+            this.slabSize = slabSize;
+            addSlab();
+        }
+
+        long allocate(int length) {
+            if (offset + length > slabSize) {
+                addSlab();
+            }
+            long address = (long) (count - 1) * slabSize + offset;
+            offset += length;
+            return address;
+        }
+
+        ByteBuffer slab(long address) {
+            return slabs[(int) (address / slabSize)];
+        }
+
+        int offset(long address) {
+            return (int) (address % slabSize);
+        }
+
+        long used() {
+            return (long) (count - 1) * slabSize + offset;
+        }
+
+        long capacity() {
+            return (long) count * slabSize;
+        }
+
+        private void addSlab() {
+            if (count == slabs.length) {
+                slabs = Arrays.copyOf(slabs, count * 2);
+            }
+            slabs[count++] = ByteBuffer.allocateDirect(slabSize);
+            offset = 0;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-process read cache of the whole product catalog, warm-started from a
+ * memory-mapped {@link CatalogSnapshot}.
+ *
+ * <p>Products are kept in a {@link CatalogStore}: the mapping itself plus an on-heap
+ * overlay of changes ({@link MappedCatalogStore}, the default), or a copy in direct
+ * memory ({@link OffHeapProductStore}). The store is fed by:</p>
+ * <ul>
+ *     <li>local writes, applied after commit</li>
+ *     <li>changes announced by other instances, see {@link #refresh(Map)}</li>
+ *     <li>reconciliation every {@code reconcileInterval}: rows whose {@code updated_at}
+ *         is past the watermark minus {@code reconcileOverlap}, applied when their
+ *         {@code version} is newer than the cached one</li>
+ *     <li>a deletion sweep every {@code deletionSweepInterval} comparing cached ids with
+ *         the table, so deletes made by other instances disappear within that interval</li>
+ * </ul>
+ *
+ * <p>The snapshot file is rewritten from snapshot plus overlay, without touching
+ * the database, every {@code snapshotInterval} and at shutdown. Only the very first
+ * start (or a corrupt file) scans the {@code products} table. Until the catalog is
+ * ready every lookup misses and callers use the database.</p>
+ */
+public class ProductCatalog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private static final int FETCH_SIZE = 5_000;
+
+    private static final String SCAN_SQL =
+            "SELECT id, version, name, description, price, created_at, updated_at FROM products ORDER BY id";
+    private static final String DELTA_SQL =
+            "SELECT id, version, name, description, price, created_at, updated_at FROM products WHERE updated_at > ?";
+    private static final String REFRESH_SQL =
+            "SELECT id, version, name, description, price, created_at, updated_at FROM products WHERE id = ANY(?)";
+    private static final String LATEST_SQL = "SELECT max(updated_at) FROM products";
+    private static final String IDS_SQL = "SELECT id FROM products ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CatalogProperties properties;
+    private final ScheduledExecutorService maintenance;
+
+    private volatile CatalogStore store;
+    private volatile boolean ready;
+    private volatile long watermarkMicros;
+
+    /**
+     * Creates an empty catalog; {@link #start()} loads it.
+     *
+     * @param dataSource         database holding the products table
+     * @param transactionManager transaction manager for the streaming scans
+     * @param properties         catalog configuration
+     */
+    public ProductCatalog(DataSource dataSource, PlatformTransactionManager transactionManager,
+                          CatalogProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-catalog-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Maps the snapshot file, or builds it from the database if missing or invalid,
+     * applies changes made since the snapshot and schedules maintenance. If the
+     * catalog cannot be built it stays unready.
+     */
+    public void start() {
+        long started = System.nanoTime();
+        Path file = properties.file();
+
+        CatalogSnapshot loaded = null;
+        if (Files.exists(file)) {
+            try {
+                loaded = CatalogSnapshot.open(file);
+            } catch (IOException ex) {
+                log.warn("Catalog snapshot unusable, rebuilding from the database file={}", file, ex);
+            }
+        }
+
+        boolean fromDatabase = loaded == null;
+        if (fromDatabase) {
+            try {
+                loaded = buildFromDatabase(file);
+            } catch (RuntimeException ex) {
+                log.warn("Product catalog could not be built - products are read from the database", ex);
+                return;
+            }
+        }
+        store = properties.store() == CatalogProperties.Store.OFF_HEAP
+                ? OffHeapProductStore.copyOf(loaded, (int) properties.offHeapSlabSize().toBytes())
+                : new MappedCatalogStore(loaded);
+        watermarkMicros = loaded.watermarkMicros();
+        long loadedNanos = System.nanoTime() - started;
+
+        int changed = fromDatabase ? 0 : reconcile();
+        ready = true;
+        log.info("Product catalog ready products={} source={} store={} offHeapMb={} loadMs={} reconciled={} tookMs={}",
+                loaded.count(), fromDatabase ? "database" : "snapshot", properties.store(),
+                store.offHeapBytes() >> 20, loadedNanos / 1_000_000, changed,
+                (System.nanoTime() - started) / 1_000_000);
+
+        schedule(this::reconcile, properties.reconcileInterval().toMillis());
+        schedule(this::sweepDeletions, properties.deletionSweepInterval().toMillis());
+        schedule(this::writeSnapshot, properties.snapshotInterval().toMillis());
+    }
+
+    /**
+     * @return whether lookups are answered from the catalog
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param id product identifier
+     * @return the cached product, or {@code null} if unknown, deleted or not ready
+     */
+    public ProductResponse get(long id) {
+        if (!ready) {
+            return null;
+        }
+        CatalogProduct product = store.get(id);
+        return product != null ? toResponse(product) : null;
+    }
+
+    /**
+     * @return every cached product in id order, or {@code null} if not ready
+     */
+    public List<ProductResponse> all() {
+        if (!ready) {
+            return null;
+        }
+        List<ProductResponse> products = new ArrayList<>(store.size());
+        store.iterator().forEachRemaining(product -> products.add(toResponse(product)));
+        return products;
+    }
+
+    /**
+     * Records a product as written to the database, unless a newer version is cached.
+     *
+     * @param response product as committed
+     * @param version  committed optimistic locking version
+     */
+    public void put(ProductResponse response, long version) {
+        long unscaled;
+        try {
+            unscaled = CatalogProduct.unscaled(response.price());
+        } catch (ArithmeticException ex) {
+            // Too large for the primitive layout; such a product is always read from the database.
+            remove(response.id());
+            return;
+        }
+        if (!ready) {
+            return;
+        }
+        store.apply(new CatalogProduct(response.id(), version, response.name(), response.description(), unscaled,
+                CatalogProduct.toMicros(response.createdAt()), CatalogProduct.toMicros(response.updatedAt())));
+    }
+
+    /**
+     * Records a committed delete.
+     *
+     * @param id product identifier
+     */
+    public void remove(long id) {
+        if (ready) {
+            store.remove(id);
+        }
+    }
+
+    /**
+     * Brings products changed elsewhere up to the announced versions: deletes are
+     * applied directly, and products cached in an older version, or not at all, are
+     * reloaded with one query.
+     *
+     * @param versions committed version by product id, negative for a delete
+     * @return number of products updated in the catalog
+     */
+    public int refresh(Map<Long, Long> versions) {
+        if (!ready) {
+            return 0;
+        }
+        List<Long> stale = new ArrayList<>();
+        int[] changed = {0};
+        versions.forEach((id, version) -> {
+            if (version < 0) {
+                store.remove(id);
+                changed[0]++;
+                return;
+            }
+            CatalogProduct cached = store.get(id);
+            if (cached == null || cached.version() < version) {
+                stale.add(id);
+            }
+        });
+        if (stale.isEmpty()) {
+            return changed[0];
+        }
+
+        try {
+            jdbcTemplate.query(REFRESH_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", stale.toArray())),
+                    (RowCallbackHandler) rs -> {
+                        CatalogProduct product = map(rs);
+                        if (product == null) {
+                            store.remove(rs.getLong("id"));
+                        } else if (store.apply(product)) {
+                            changed[0]++;
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            log.warn("Product catalog refresh failed - changes arrive with reconciliation count={}", stale.size(), ex);
+        }
+        return changed[0];
+    }
+
+    /**
+     * Applies rows changed since the watermark, minus the overlap that absorbs
+     * late commits and clock skew between instances.
+     *
+     * @return number of products updated in the catalog
+     */
+    public int reconcile() {
+        long since = watermarkMicros - properties.reconcileOverlap().toNanos() / 1_000;
+        int[] changed = {0};
+        long[] highest = {watermarkMicros};
+        try {
+            jdbcTemplate.query(DELTA_SQL, (RowCallbackHandler) rs -> {
+                CatalogProduct product = map(rs);
+                if (product == null) {
+                    // Repriced beyond the primitive layout; drop the cached price so reads go to the database.
+                    store.remove(rs.getLong("id"));
+                    return;
+                }
+                if (store.apply(product)) {
+                    changed[0]++;
+                }
+                highest[0] = Math.max(highest[0], product.updatedAtMicros());
+            }, Timestamp.valueOf(CatalogProduct.fromMicros(since)));
+            watermarkMicros = highest[0];
+        } catch (RuntimeException ex) {
+            log.warn("Product catalog reconciliation failed - retrying next interval", ex);
+        }
+        return changed[0];
+    }
+
+    /**
+     * Marks cached products missing from the table as deleted.
+     *
+     * @return number of products removed from the catalog
+     */
+    public int sweepDeletions() {
+        try {
+            // Products applied after this point may be missing from the scan even though they
+            // exist (put() runs after commit), so only products cached before it are candidates.
+            LongList before = new LongList(Math.max(16, store.size()));
+            store.iterator().forEachRemaining(product -> before.add(product.id()));
+            long[] cached = before.toArray();
+
+            long[] ids = readOnlyTransaction.execute(status -> {
+                LongList list = new LongList(Math.max(16, store.size()));
+                jdbcTemplate.query(IDS_SQL, (RowCallbackHandler) rs -> list.add(rs.getLong(1)));
+                return list.toArray();
+            });
+
+            int removed = 0;
+            for (Iterator<CatalogProduct> it = store.iterator(); it.hasNext(); ) {
+                CatalogProduct product = it.next();
+                // Only mark it if nothing newer arrived while scanning.
+                if (Arrays.binarySearch(ids, product.id()) < 0
+                        && Arrays.binarySearch(cached, product.id()) >= 0
+                        && store.removeIfVersion(product.id(), product.version())) {
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                log.info("Product catalog removed products deleted elsewhere count={}", removed);
+            }
+            return removed;
+        } catch (RuntimeException ex) {
+            log.warn("Product catalog deletion sweep failed - retrying next interval", ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Rewrites the snapshot file from the current catalog.
+     */
+    public void writeSnapshot() {
+        if (!ready) {
+            return;
+        }
+        long watermark = watermarkMicros;
+        try {
+            long started = System.nanoTime();
+            int count = store.writeSnapshot(properties.file(), watermark);
+            log.info("Product catalog snapshot written products={} tookMs={}",
+                    count, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Product catalog snapshot could not be written file={}", properties.file(), ex);
+        }
+    }
+
+    /**
+     * Stops maintenance and writes a final snapshot.
+     */
+    @Override
+    public void close() {
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private CatalogSnapshot buildFromDatabase(Path file) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Read before the scan: rows changed while scanning are past it and get reconciled.
+            Timestamp latest = jdbcTemplate.queryForObject(LATEST_SQL, Timestamp.class);
+            long watermark = latest != null ? CatalogProduct.toMicros(latest.toLocalDateTime()) : 0L;
+            try (Stream<CatalogProduct> rows = jdbcTemplate.queryForStream(SCAN_SQL, (rs, rowNum) -> map(rs))) {
+                CatalogSnapshot.write(file, rows.filter(Objects::nonNull).iterator(), watermark);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Catalog snapshot could not be written: " + file, ex);
+            }
+        });
+        try {
+            return CatalogSnapshot.open(file);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Catalog snapshot could not be read back: " + file, ex);
+        }
+    }
+
+    private static ProductResponse toResponse(CatalogProduct product) {
+        return new ProductResponse(product.id(), product.name(), product.description(), product.price(),
+                product.createdAt(), product.updatedAt());
+    }
+
+    private static CatalogProduct map(ResultSet rs) throws SQLException {
+        long unscaled;
+        try {
+            unscaled = CatalogProduct.unscaled(rs.getBigDecimal("price"));
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+        return new CatalogProduct(
+                rs.getLong("id"),
+                rs.getLong("version"),
+                rs.getString("name"),
+                rs.getString("description"),
+                unscaled,
+                CatalogProduct.toMicros(rs.getTimestamp("created_at").toLocalDateTime()),
+                CatalogProduct.toMicros(rs.getTimestamp("updated_at").toLocalDateTime()));
+    }
+
+    private void schedule(Runnable task, long intervalMillis) {
+        maintenance.scheduleWithFixedDelay(task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Growable primitive list of ids, avoiding a boxed {@code Long} per row.
+     */
+    private static final class LongList {
+
+        private long[] values;
+        private int size;
+
+        LongList(int capacity) {
+            values = new long[capacity];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
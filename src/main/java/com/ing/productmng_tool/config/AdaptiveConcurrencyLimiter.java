@@ -0,0 +1,151 @@
+package com.ing.productmng_tool.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency.
+ *
+ * <p>Gradient based: at the end of each window the average latency of the window is
+ * compared to a slowly moving baseline. While latency stays within {@code tolerance}
+ * of the baseline the limit grows by about its square root; once requests start
+ * queueing the limit shrinks in proportion. An overload signal (5xx, timeouts)
+ * cuts the limit multiplicatively.</p>
+ *
+ * <p>Each {@link EndpointClass} may only use its share of the limit, so catalog
+ * scans are shed first and writes last.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final double BASELINE_DECAY = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double[] shares = new double[EndpointClass.values().length];
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicBoolean overloaded = new AtomicBoolean();
+    private final AtomicLong windowEnd;
+
+    private volatile double limit;
+    // Only touched by the thread that closes a window.
+    private double baselineNanos;
+
+    /**
+     * Creates a limiter from its configuration.
+     *
+     * @param properties limiter configuration
+     * @param nowNanos   current {@link System#nanoTime()}
+     */
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, long nowNanos) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.tolerance = properties.tolerance();
+        this.windowNanos = properties.window().toNanos();
+        this.minWindowSamples = properties.minWindowSamples();
+        this.limit = properties.initialLimit();
+        this.windowEnd = new AtomicLong(nowNanos + windowNanos);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            shares[endpointClass.ordinal()] = properties.shareFor(endpointClass);
+        }
+    }
+
+    /**
+     * Admits a request if its class still has room under the current limit.
+     *
+     * @param endpointClass class of the request
+     * @return {@code true} if admitted; the caller must then call {@link #release}
+     */
+    public boolean tryAcquire(EndpointClass endpointClass) {
+        int allowed = Math.max(1, (int) (limit * shares[endpointClass.ordinal()]));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records the completion of an admitted request.
+     *
+     * @param latencyNanos time the request took
+     * @param overload     whether the request failed in a way that signals overload
+     * @param nowNanos     current {@link System#nanoTime()}
+     */
+    public void release(long latencyNanos, boolean overload, long nowNanos) {
+        inFlight.decrementAndGet();
+        windowLatency.add(latencyNanos);
+        windowSamples.increment();
+        if (overload) {
+            overloaded.set(true);
+        }
+
+        long end = windowEnd.get();
+        if (nowNanos - end >= 0 && windowEnd.compareAndSet(end, nowNanos + windowNanos)) {
+            update();
+        }
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return requests currently admitted
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatency.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        double current = limit;
+
+        if (overloaded.getAndSet(false)) {
+            limit = clamp(current * BACKOFF);
+            return;
+        }
+        if (samples < minWindowSamples) {
+            return;
+        }
+
+        double windowNanosAvg = (double) latency / samples;
+        if (baselineNanos == 0 || windowNanosAvg < baselineNanos) {
+            baselineNanos = windowNanosAvg;
+        } else {
+            baselineNanos += (windowNanosAvg - baselineNanos) * BASELINE_DECAY;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / windowNanosAvg));
+        double target = current * gradient;
+        // Grow only if the limit was actually reached; an idle service learns nothing.
+        if (peak >= current / 2) {
+            target += Math.sqrt(current);
+        }
+        limit = clamp(current * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,163 @@
+package com.ing.productmng_tool.config;
+
+import com.ing.productmng_tool.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency compartment for one {@link EndpointClass}.
+ *
+ * <p>Admits up to {@code maxConcurrent} requests, lets up to {@code maxQueue} more
+ * wait at most {@code maxWait} for a slot and rejects the rest. Optionally it also
+ * caps the number of pooled database connections the class holds at once; with caps
+ * that add up to the pool size each class effectively owns a sub-pool.</p>
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore calls;
+    private final Semaphore connections;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private Counter rejected;
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name   bulkhead name used in messages and metric tags
+     * @param limits configured limits
+     */
+    public Bulkhead(String name, BulkheadProperties.Limits limits) {
+        this.name = name;
+        this.maxConcurrent = limits.maxConcurrent();
+        this.maxQueue = limits.maxQueue();
+        this.maxWaitNanos = limits.maxWait().toNanos();
+        this.calls = new Semaphore(maxConcurrent);
+        this.connections = limits.maxConnections() > 0 ? new Semaphore(limits.maxConnections()) : null;
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if there is room. Waits never outlast the
+     * request {@link Deadline}.
+     *
+     * @return {@code true} if a slot was taken; the caller must then call {@link #exit()}
+     */
+    public boolean tryEnter() {
+        if (calls.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            reject();
+            return false;
+        }
+        try {
+            if (calls.tryAcquire(waitNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+        }
+        reject();
+        return false;
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryEnter()}.
+     */
+    public void exit() {
+        calls.release();
+    }
+
+    /**
+     * Takes a connection permit, waiting up to {@code maxWait}.
+     *
+     * @return {@code true} if a permit was taken or connections are not capped
+     */
+    public boolean tryAcquireConnection() {
+        if (connections == null) {
+            return true;
+        }
+        try {
+            return connections.tryAcquire(waitNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns a permit taken by {@link #tryAcquireConnection()}.
+     */
+    public void releaseConnection() {
+        if (connections != null) {
+            connections.release();
+        }
+    }
+
+    /**
+     * @return bulkhead name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return requests currently executing
+     */
+    public int active() {
+        return maxConcurrent - calls.availablePermits();
+    }
+
+    /**
+     * Registers the bulkhead metrics.
+     *
+     * @param registry meter registry
+     */
+    void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.bulkhead.active", this, Bulkhead::active)
+                .description("Requests executing in the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("product.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("product.bulkhead.saturation", this, b -> (double) b.active() / b.maxConcurrent)
+                .description("Fraction of bulkhead slots in use")
+                .tag("bulkhead", name)
+                .register(registry);
+        if (connections != null) {
+            int maxConnections = connections.availablePermits();
+            Gauge.builder("product.bulkhead.connections.active", connections,
+                            c -> maxConnections - c.availablePermits())
+                    .description("Pooled connections held by the bulkhead")
+                    .tag("bulkhead", name)
+                    .register(registry);
+        }
+        rejected = Counter.builder("product.bulkhead.rejected")
+                .description("Requests rejected by the bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+    }
+
+    private long waitNanos() {
+        return Math.min(maxWaitNanos, Deadline.remainingNanos(Long.MAX_VALUE));
+    }
+
+    private void reject() {
+        if (rejected != null) {
+            rejected.increment();
+        }
+    }
+}
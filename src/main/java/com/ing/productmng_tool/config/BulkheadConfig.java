@@ -0,0 +1,54 @@
+package com.ing.productmng_tool.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Isolates catalog scans, point reads and writes in separate bulkheads.
+ *
+ * <p>Active unless {@code product.bulkhead.enabled=false}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final Bulkheads bulkheads;
+
+    public BulkheadConfig(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bulkheads = new Bulkheads(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    public Bulkheads bulkheads() {
+        return bulkheads;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkheads)).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.ing.productmng_tool.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces the connection cap of the current {@link Bulkhead} on top of the pool.
+ *
+ * <p>A permit is taken before a connection is borrowed and returned when the
+ * connection is closed. Threads outside a bulkhead, such as background jobs, are
+ * not capped.</p>
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    public BulkheadDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = Bulkheads.current();
+        if (bulkhead == null) {
+            return super.getConnection();
+        }
+        if (!bulkhead.tryAcquireConnection()) {
+            throw new SQLTransientConnectionException(
+                    "Connection quota of bulkhead " + bulkhead.name() + " exhausted");
+        }
+
+        try {
+            return release(super.getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException ex) {
+            bulkhead.releaseConnection();
+            throw ex;
+        }
+    }
+
+    private static Connection release(Connection connection, Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            bulkhead.releaseConnection();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package com.ing.productmng_tool.config;
+
+import com.ing.productmng_tool.exception.BulkheadFullException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Runs each API handler inside the bulkhead of its {@link EndpointClass}.
+ *
+ * <p>The slot is held until the response has been written, so serialization of large
+ * catalog responses counts against the catalog bulkhead as well. Asynchronous
+ * handlers, such as event streams, give the slot back once the handler returns:
+ * an open stream is not work in progress.</p>
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    private static final String ATTRIBUTE = BulkheadInterceptor.class.getName();
+
+    /**
+     * Request attribute naming the bulkhead that rejected the request.
+     */
+    public static final String REJECTED_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".rejected";
+
+    private final Bulkheads bulkheads;
+
+    public BulkheadInterceptor(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+        if (!bulkhead.tryEnter()) {
+            log.warn("Bulkhead full bulkhead={} path={}", bulkhead.name(), request.getRequestURI());
+            request.setAttribute(REJECTED_ATTRIBUTE, bulkhead.name());
+            throw new BulkheadFullException(bulkhead.name().replace('_', ' '));
+        }
+
+        request.setAttribute(ATTRIBUTE, bulkhead);
+        Bulkheads.enter(bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private static void release(HttpServletRequest request) {
+        Object bulkhead = request.getAttribute(ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(ATTRIBUTE);
+            Bulkheads.leave();
+            ((Bulkhead) bulkhead).exit();
+        }
+    }
+}
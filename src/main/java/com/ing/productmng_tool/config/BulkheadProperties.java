@@ -0,0 +1,50 @@
+package com.ing.productmng_tool.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the per-endpoint-class bulkheads.
+ *
+ * <p>Bound from the {@code product.bulkhead} prefix.</p>
+ *
+ * @param enabled     whether requests are isolated in bulkheads
+ * @param pointRead   bulkhead for single-product reads
+ * @param catalogScan bulkhead for full catalog reads
+ * @param write       bulkhead for writes
+ */
+@ConfigurationProperties(prefix = "product.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Limits pointRead,
+        @DefaultValue Limits catalogScan,
+        @DefaultValue Limits write
+) {
+
+    /**
+     * @param endpointClass endpoint class
+     * @return the limits configured for the class
+     */
+    public Limits limitsFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case POINT_READ -> pointRead;
+            case CATALOG_SCAN -> catalogScan;
+            case WRITE -> write;
+        };
+    }
+
+    /**
+     * @param maxConcurrent  requests executing at once
+     * @param maxQueue       requests allowed to wait for a slot
+     * @param maxWait        how long a queued request waits before it is rejected
+     * @param maxConnections pooled connections the class may hold at once, {@code 0} for no limit
+     */
+    public record Limits(
+            @DefaultValue("20") int maxConcurrent,
+            @DefaultValue("20") int maxQueue,
+            @DefaultValue("100ms") Duration maxWait,
+            @DefaultValue("0") int maxConnections
+    ) {}
+}
@@ -0,0 +1,53 @@
+package com.ing.productmng_tool.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The bulkhead of each {@link EndpointClass} and the one the current thread is running in.
+ */
+public class Bulkheads {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    /**
+     * Creates one bulkhead per endpoint class.
+     *
+     * @param properties bulkhead configuration
+     * @param registry   meter registry for the bulkhead metrics
+     */
+    public Bulkheads(BulkheadProperties properties, MeterRegistry registry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Bulkhead bulkhead = new Bulkhead(endpointClass.name().toLowerCase(), properties.limitsFor(endpointClass));
+            bulkhead.bindTo(registry);
+            bulkheads.put(endpointClass, bulkhead);
+        }
+    }
+
+    /**
+     * @param endpointClass endpoint class
+     * @return the bulkhead of the class
+     */
+    public Bulkhead get(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    /**
+     * @return the bulkhead the current request runs in, or {@code null} outside a request
+     */
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    static void enter(Bulkhead bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+
+    static void leave() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,137 @@
+package com.ing.productmng_tool.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.deadline.DeadlineFilter;
+import com.ing.productmng_tool.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds API requests above the adaptive concurrency limit with HTTP 503.
+ *
+ * <p>Runs after rate limiting, so only requests that would otherwise reach the
+ * controllers count. Shed requests are counted in {@code product.concurrency.shed};
+ * the current limit and in-flight count are exposed as gauges.</p>
+ *
+ * <p>Server errors, 503 and 504 responses shrink the limit. Bulkhead rejections and
+ * deadlines cut short by the client's {@code X-Request-Timeout} do not: they reflect
+ * one endpoint class or one client, not the server as a whole.</p>
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                  ObjectMapper objectMapper,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = properties.enabled();
+        this.objectMapper = objectMapper;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties, System.nanoTime());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("product.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("product.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("API requests currently admitted")
+                .register(registry);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            shed.put(endpointClass, Counter.builder("product.concurrency.shed")
+                    .description("Requests rejected by the concurrency limiter")
+                    .tag("class", endpointClass.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(endpointClass)) {
+            reject(request, response, endpointClass);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean overload = true;
+        try {
+            filterChain.doFilter(request, response);
+            overload = isOverload(request, response.getStatus());
+        } finally {
+            long now = System.nanoTime();
+            limiter.release(now - start, overload, now);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass)
+            throws IOException {
+
+        shed.get(endpointClass).increment();
+        log.warn("Request shed class={} path={} limit={}",
+                endpointClass, request.getRequestURI(), limiter.limit());
+
+        ErrorResponse payload = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "Service is overloaded. Please retry later.",
+                request.getRequestURI()
+        );
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), payload);
+    }
+
+    private static boolean isOverload(HttpServletRequest request, int status) {
+        if (status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            return request.getAttribute(BulkheadInterceptor.REJECTED_ATTRIBUTE) == null;
+        }
+        if (status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            return request.getAttribute(DeadlineFilter.CLIENT_BUDGET_ATTRIBUTE) == null;
+        }
+        return status == HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ing.productmng_tool.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the adaptive concurrency limiter.
+ *
+ * <p>Bound from the {@code product.concurrency} prefix.</p>
+ *
+ * @param enabled          whether excess load is shed
+ * @param initialLimit     concurrency limit at startup
+ * @param minLimit         lower bound of the limit
+ * @param maxLimit         upper bound of the limit
+ * @param tolerance        latency increase over the baseline tolerated before the limit shrinks
+ * @param window           interval between limit updates
+ * @param minWindowSamples completed requests needed for a window to count
+ * @param pointReadShare   fraction of the limit available to single-product reads
+ * @param catalogScanShare fraction of the limit available to catalog scans
+ */
+@ConfigurationProperties(prefix = "product.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("100") int maxLimit,
+        @DefaultValue("2.0") double tolerance,
+        @DefaultValue("500ms") Duration window,
+        @DefaultValue("10") int minWindowSamples,
+        @DefaultValue("0.9") double pointReadShare,
+        @DefaultValue("0.5") double catalogScanShare
+) {
+
+    /**
+     * @param endpointClass endpoint class
+     * @return fraction of the limit the class may occupy
+     */
+    public double shareFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case POINT_READ -> pointReadShare;
+            case CATALOG_SCAN -> catalogScanShare;
+            case WRITE -> 1.0;
+        };
+    }
+}
@@ -5,17 +5,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class CorrelationIdFilter extends OncePerRequestFilter {
 
-    private static final String CORRELATION_ID = "correlationId";
+    /**
+     * MDC key holding the correlation id of the current request.
+     */
+    public static final String CORRELATION_ID = "correlationId";
+
     private static final String HEADER = "X-Correlation-Id";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -23,7 +31,7 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
 
         String correlationId = request.getHeader(HEADER);
         if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString();
+            correlationId = newCorrelationId();
         }
 
         MDC.put(CORRELATION_ID, correlationId);
@@ -35,4 +43,26 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
             MDC.remove(CORRELATION_ID);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Generates a random 128-bit id as 32 hex characters.
+     *
+     * <p>Uses {@link ThreadLocalRandom} rather than {@code UUID.randomUUID()}, which
+     * draws from a shared {@code SecureRandom} and contends under load. Correlation
+     * ids only need to be unique, not unpredictable.</p>
+     */
+    static String newCorrelationId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[32];
+        writeHex(id, 0, random.nextLong());
+        writeHex(id, 16, random.nextLong());
+        return new String(id);
+    }
+
+    private static void writeHex(char[] target, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ing.productmng_tool.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Cost classes of API requests, used to apply separate traffic policies
+ * to cheap point reads, full catalog scans and writes.
+ */
+public enum EndpointClass {
+
+    /**
+     * Single-product reads such as {@code GET /api/products/{id}} and its price
+     * history, and subscribing to the change stream, which is as cheap and touches
+     * no database.
+     */
+    POINT_READ,
+
+    /**
+     * Reads that scan the catalog, such as {@code GET /api/products}.
+     * Unknown GET endpoints fall into this class as well.
+     */
+    CATALOG_SCAN,
+
+    /**
+     * Creates, updates, deletes and any other non-GET operation.
+     */
+    WRITE;
+
+    private static final String API_PREFIX = "/api/";
+    private static final String PRODUCTS = "/api/products/";
+    private static final String CHANGE_STREAM = "/api/products/changes/stream";
+    private static final String PRICE_HISTORY = "/price-history";
+
+    /**
+     * Classifies a request.
+     *
+     * @param request incoming request
+     * @return the endpoint class, or {@code null} for requests outside {@code /api/}
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        int contextLength = request.getContextPath().length();
+        if (!path.startsWith(API_PREFIX, contextLength)) {
+            return null;
+        }
+
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        boolean stream = path.length() - contextLength == CHANGE_STREAM.length()
+                && path.startsWith(CHANGE_STREAM, contextLength);
+        if (stream) {
+            return POINT_READ;
+        }
+        int from = contextLength + PRODUCTS.length();
+        boolean history = path.endsWith(PRICE_HISTORY);
+        int to = history ? path.length() - PRICE_HISTORY.length() : path.length();
+        return isProductId(path, from, to) ? POINT_READ : CATALOG_SCAN;
+    }
+
+    private static boolean isProductId(String path, int from, int to) {
+        if (from >= to || !path.startsWith(PRODUCTS, from - PRODUCTS.length())) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ing.productmng_tool.config;
+
+import com.ing.productmng_tool.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+/**
+ * Startup behaviour of the {@code faststart} mode.
+ *
+ * <p>With {@code spring.main.lazy-initialization} enabled, migrations, the connection
+ * pool, the Hibernate metamodel, security and the product service are still ready
+ * before the instance reports started; admin endpoints, JFR, SQL statistics and
+ * other off-path beans are created on first use.</p>
+ *
+ * <p>The AppCDS training run ({@code spring.context.exit=onRefresh}) refreshes the
+ * context without a database, so it skips migrations. A property cannot disable
+ * Flyway there because AOT fixes auto-configuration conditions at build time.</p>
+ */
+@Configuration
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                FlywayMigrationInitializer.class,
+                DataSource.class,
+                EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class,
+                SecurityFilterChain.class,
+                ProductService.class);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        boolean trainingRun = "onRefresh".equals(environment.getProperty("spring.context.exit"));
+        return flyway -> {
+            if (!trainingRun) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.ing.productmng_tool.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Applies per-principal rate limits for each {@link EndpointClass}.
+ *
+ * <p>Runs after Spring Security, so authenticated requests are keyed by username and
+ * anonymous ones by remote address. Requests over the limit get HTTP 429 with a
+ * {@code Retry-After} header. Allowed and rejected requests are counted in
+ * {@code product.ratelimit.requests}.</p>
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<EndpointClass, TokenBucketRateLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> allowed = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           ObjectMapper objectMapper,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = properties.enabled();
+        this.objectMapper = objectMapper;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            RateLimitProperties.Limit limit = properties.limitFor(endpointClass);
+            limiters.put(endpointClass,
+                    new TokenBucketRateLimiter(limit.rate(), limit.burst(), properties.maxKeys()));
+            allowed.put(endpointClass, counter(registry, endpointClass, "allowed"));
+            rejected.put(endpointClass, counter(registry, endpointClass, "rejected"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String principal = principal(request);
+        long waitNanos = limiters.get(endpointClass).tryAcquire(principal, System.nanoTime());
+        if (waitNanos == 0L) {
+            allowed.get(endpointClass).increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(endpointClass).increment();
+        long retryAfterSeconds = Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        log.warn("Rate limit exceeded user={} class={} path={} retryAfter={}s",
+                principal, endpointClass, request.getRequestURI(), retryAfterSeconds);
+
+        ErrorResponse payload = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "Rate limit exceeded. Please retry later.",
+                request.getRequestURI()
+        );
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), payload);
+    }
+
+    private static String principal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter counter(MeterRegistry registry, EndpointClass endpointClass, String outcome) {
+        return Counter.builder("product.ratelimit.requests")
+                .description("Requests checked by the rate limiter")
+                .tag("class", endpointClass.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ing.productmng_tool.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of per-principal rate limiting.
+ *
+ * <p>Bound from the {@code product.rate-limit} prefix.</p>
+ *
+ * @param enabled     whether requests are rate limited
+ * @param maxKeys     maximum number of principals tracked per endpoint class
+ * @param pointRead   limit for single-product reads
+ * @param catalogScan limit for full catalog reads
+ * @param write       limit for writes
+ */
+@ConfigurationProperties(prefix = "product.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int maxKeys,
+        @DefaultValue Limit pointRead,
+        @DefaultValue Limit catalogScan,
+        @DefaultValue Limit write
+) {
+
+    /**
+     * @param endpointClass endpoint class
+     * @return the limit configured for the class
+     */
+    public Limit limitFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case POINT_READ -> pointRead;
+            case CATALOG_SCAN -> catalogScan;
+            case WRITE -> write;
+        };
+    }
+
+    /**
+     * @param rate  sustained requests per second
+     * @param burst maximum requests at once after an idle period
+     */
+    public record Limit(
+            @DefaultValue("100") double rate,
+            @DefaultValue("200") int burst
+    ) {}
+}
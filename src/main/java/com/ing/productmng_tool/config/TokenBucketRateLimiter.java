@@ -0,0 +1,95 @@
+package com.ing.productmng_tool.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free per-key token bucket.
+ *
+ * <p>Implemented as the generic cell rate algorithm: each key keeps only its
+ * theoretical arrival time (TAT) in an {@link AtomicLong}, and a request is a
+ * single compare-and-set. This behaves exactly like a bucket refilled at
+ * {@code ratePerSecond} holding up to {@code burst} tokens.</p>
+ *
+ * <p>The key map is bounded. A bucket whose TAT lies in the past is equivalent to
+ * a full, fresh bucket, so such entries are swept when the map is full. Keys that
+ * still find no room share a single overflow bucket.</p>
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE / 2);
+    private final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE / 2);
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param ratePerSecond sustained requests per second per key
+     * @param burst         requests a key may issue at once after being idle
+     * @param maxKeys       maximum number of tracked keys
+     */
+    public TokenBucketRateLimiter(double ratePerSecond, int burst, int maxKeys) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token for the key if one is available.
+     *
+     * @param key      caller identity
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until
+     *         the next token becomes available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            tat = register(key, nowNanos);
+        }
+
+        while (true) {
+            long current = tat.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long wait = base - burstToleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * @return number of tracked keys
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong register(String key, long nowNanos) {
+        if (buckets.size() >= maxKeys) {
+            sweep(nowNanos);
+            if (buckets.size() >= maxKeys) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos - emissionIntervalNanos));
+    }
+
+    private void sweep(long nowNanos) {
+        long last = lastSweep.get();
+        if (nowNanos - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        buckets.values().removeIf(tat -> tat.get() - nowNanos <= 0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.model.entity.dto.TokenResponse;
+import com.ing.productmng_tool.security.TokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exchanging HTTP Basic credentials for a bearer token.
+ *
+ * <p>The password is checked once here; requests presenting the token are then
+ * authenticated by signature verification only.</p>
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class AuthTokenController {
+
+    private final TokenService tokenService;
+
+    /**
+     * Constructs a new AuthTokenController.
+     *
+     * @param tokenService service issuing signed tokens
+     */
+    public AuthTokenController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Issues a short-lived bearer token for the Basic-authenticated caller.
+     *
+     * @param authentication authenticated caller
+     * @return token with HTTP 200 (OK)
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(Authentication authentication) {
+        TokenService.IssuedToken token = tokenService.issue(authentication);
+        return ResponseEntity.ok(new TokenResponse(token.token(), "Bearer", token.expiresIn()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.jfr.FlightRecorderService;
+import com.ing.productmng_tool.jfr.FlightRecorderService.RecordingStatus;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Admin endpoints controlling an on-demand Java Flight Recorder recording.
+ *
+ * <p>Base path: {@code /api/admin/jfr}.</p>
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+@PreAuthorize("hasRole('ADMIN')")
+public class FlightRecorderController {
+
+    private final FlightRecorderService flightRecorder;
+
+    public FlightRecorderController(FlightRecorderService flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param settings JDK settings, {@code default} (about 1% overhead) or {@code profile}
+     * @param maxAge   history kept in the recording buffer
+     * @return recording status with HTTP 200 (OK)
+     */
+    @PostMapping("/start")
+    public ResponseEntity<RecordingStatus> start(
+            @RequestParam(defaultValue = "default") String settings,
+            @RequestParam(defaultValue = "PT10M") Duration maxAge) {
+
+        return ResponseEntity.ok(flightRecorder.start(settings, maxAge));
+    }
+
+    /**
+     * Stops the recording, keeping its data for a dump.
+     *
+     * @return recording status with HTTP 200 (OK)
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<RecordingStatus> stop() {
+        return ResponseEntity.ok(flightRecorder.stop());
+    }
+
+    /**
+     * @return recording status with HTTP 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<RecordingStatus> status() {
+        return ResponseEntity.ok(flightRecorder.status());
+    }
+
+    /**
+     * Dumps the recording for download; open it in JDK Mission Control.
+     *
+     * @return the {@code .jfr} file with HTTP 200 (OK)
+     */
+    @GetMapping("/dump")
+    public ResponseEntity<Resource> dump() {
+        Path file = flightRecorder.dump();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,135 @@
+package com.ing.productmng_tool.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ing.productmng_tool.history.PriceHistory;
+import com.ing.productmng_tool.history.PriceHistoryProperties;
+import com.ing.productmng_tool.model.entity.dto.PriceHistoryResponse;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * REST controller serving the recorded price changes of a product, and the whole
+ * catalog with the prices it had at a past time.
+ *
+ * <p>Registered unless {@code product.price-history.enabled=false}.</p>
+ */
+@RestController
+@RequestMapping("/api/products")
+@ConditionalOnProperty(prefix = "product.price-history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PriceHistoryController {
+
+    private final PriceHistory history;
+    private final PriceHistoryProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+
+    /**
+     * Constructs a new PriceHistoryController.
+     *
+     * @param history      price history reader
+     * @param properties   price history configuration
+     * @param objectMapper mapper writing the streamed products
+     */
+    public PriceHistoryController(PriceHistory history, PriceHistoryProperties properties, ObjectMapper objectMapper) {
+        this.history = history;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(ProductResponse.class);
+    }
+
+    /**
+     * Returns a product's price changes, newest first.
+     *
+     * @param id     product identifier
+     * @param before {@code next} value of the previous page, absent for the newest changes
+     * @param limit  largest number of entries, capped at the configured maximum
+     * @return one page of the history with HTTP 200 (OK)
+     */
+    @GetMapping("/{id}/price-history")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<PriceHistoryResponse> getPriceHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Integer limit) {
+
+        int size = limit == null ? properties.pageSize() : Math.max(1, Math.min(limit, properties.maxPageSize()));
+        return ResponseEntity.ok(history.page(id, before, size));
+    }
+
+    /**
+     * Streams every product that existed at {@code asOf}, in id order, with the price
+     * it had then. {@code updatedAt} is the time that price was set.
+     *
+     * <p>The JSON array is written while rows are fetched, so the response starts
+     * before the catalog is read and never has to fit in memory. Errors before the
+     * first product are answered as usual; later ones abort the response.</p>
+     *
+     * @param asOf     point in time
+     * @param response response the products are written to
+     * @throws IOException if the response cannot be completed
+     */
+    @GetMapping(params = "asOf")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public void getAllProductsAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            HttpServletResponse response) throws IOException {
+
+        JsonArrayWriter writer = new JsonArrayWriter(response);
+        history.catalogAsOf(asOf, writer);
+        writer.finish();
+    }
+
+    /**
+     * Writes products as one JSON array, committing the response with the first one.
+     */
+    private final class JsonArrayWriter implements Consumer<ProductResponse> {
+
+        private final HttpServletResponse response;
+        private JsonGenerator json;
+
+        private JsonArrayWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void accept(ProductResponse product) {
+            try {
+                start();
+                productWriter.writeValue(json, product);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void finish() throws IOException {
+            start();
+            json.writeEndArray();
+            json.close();
+        }
+
+        private void start() throws IOException {
+            if (json == null) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                json = objectMapper.createGenerator(response.getOutputStream());
+                json.writeStartArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.model.entity.dto.PriceTickRequest;
+import com.ing.productmng_tool.model.entity.dto.PriceTickResponse;
+import com.ing.productmng_tool.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller accepting high-frequency price ticks from price feeds.
+ *
+ * <p>Only registered when {@code product.write-behind.enabled=true}. Ticks are
+ * acknowledged once they are durable in the write-behind log; they reach the
+ * database asynchronously.</p>
+ */
+@RestController
+@RequestMapping("/api/products/price-ticks")
+@ConditionalOnProperty(prefix = "product.write-behind", name = "enabled", havingValue = "true")
+public class PriceTickController {
+
+    private final ProductService service;
+
+    /**
+     * Constructs a new PriceTickController.
+     *
+     * @param service product service handling business logic
+     */
+    public PriceTickController(ProductService service) {
+        this.service = service;
+    }
+
+    /**
+     * Accepts a batch of price ticks.
+     *
+     * @param request validated batch of ticks
+     * @return number of accepted ticks with HTTP 202 (Accepted)
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PriceTickResponse> acceptPriceTicks(
+            @Valid @RequestBody PriceTickRequest request) {
+
+        int accepted = service.acceptPriceTicks(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new PriceTickResponse(accepted));
+    }
+}
@@ -0,0 +1,58 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.model.entity.dto.ProductChangesResponse;
+import com.ing.productmng_tool.sync.ChangeCursor;
+import com.ing.productmng_tool.sync.ProductChangeFeed;
+import com.ing.productmng_tool.sync.SyncProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving the delta-sync feed of product changes.
+ *
+ * <p>Registered unless {@code product.sync.enabled=false}. Clients mirroring the
+ * catalog start without a cursor, then keep passing the cursor of the last page,
+ * so each sync costs in proportion to what changed since the previous one.</p>
+ */
+@RestController
+@RequestMapping("/api/products/changes")
+@ConditionalOnProperty(prefix = "product.sync", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductChangesController {
+
+    private final ProductChangeFeed feed;
+    private final SyncProperties properties;
+
+    /**
+     * Constructs a new ProductChangesController.
+     *
+     * @param feed       product change feed
+     * @param properties delta-sync configuration
+     */
+    public ProductChangesController(ProductChangeFeed feed, SyncProperties properties) {
+        this.feed = feed;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns created and updated products and deletes after a cursor.
+     *
+     * @param since cursor returned by the previous page, absent for a full sync
+     * @param limit largest number of changes, capped at the configured maximum
+     * @return one page of changes with HTTP 200 (OK), or HTTP 410 (Gone) if the cursor expired
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ProductChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+
+        ChangeCursor cursor = since == null || since.isEmpty() ? ChangeCursor.START : ChangeCursor.parse(since);
+        int size = limit == null ? properties.pageSize() : Math.max(1, Math.min(limit, properties.maxPageSize()));
+        return ResponseEntity.ok(feed.page(cursor, size));
+    }
+}
@@ -68,9 +68,13 @@ public class ProductController {
     /**
      * Retrieves all available products.
      *
+     * <p>Requests with {@code asOf} are served by {@link PriceHistoryController};
+     * without the price history they are rejected rather than answered with
+     * current prices.</p>
+     *
      * @return list of products with HTTP 200 (OK)
      */
-    @GetMapping
+    @GetMapping(params = "!asOf")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<ProductResponse>> getAllProducts() {
         return ResponseEntity.ok(service.getAllProducts());
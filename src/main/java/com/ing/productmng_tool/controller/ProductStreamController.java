@@ -0,0 +1,46 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.stream.ProductEventStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming product changes as Server-Sent Events.
+ *
+ * <p>Registered unless {@code product.stream.enabled=false}. Clients following
+ * prices subscribe once instead of polling the product list.</p>
+ */
+@RestController
+@RequestMapping("/api/products/changes")
+@ConditionalOnProperty(prefix = "product.stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductStreamController {
+
+    private final ProductEventStream stream;
+
+    /**
+     * Constructs a new ProductStreamController.
+     *
+     * @param stream product change stream
+     */
+    public ProductStreamController(ProductEventStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Streams committed creates, price changes and deletes.
+     *
+     * @param lastEventId id of the last event received, sent by clients when they reconnect
+     * @return open event stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return stream.subscribe(lastEventId);
+    }
+}
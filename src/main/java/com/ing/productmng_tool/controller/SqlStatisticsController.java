@@ -0,0 +1,51 @@
+package com.ing.productmng_tool.controller;
+
+import com.ing.productmng_tool.sql.SqlReportService;
+import com.ing.productmng_tool.sql.SqlReportService.SqlReport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin endpoints exposing SQL statement statistics, slow statements and
+ * possible N+1 requests.
+ *
+ * <p>Base path: {@code /api/admin/sql}.</p>
+ */
+@RestController
+@RequestMapping("/api/admin/sql")
+@ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
+@PreAuthorize("hasRole('ADMIN')")
+public class SqlStatisticsController {
+
+    private final SqlReportService sqlReportService;
+
+    public SqlStatisticsController(SqlReportService sqlReportService) {
+        this.sqlReportService = sqlReportService;
+    }
+
+    /**
+     * @param limit maximum number of statement shapes, ordered by total time
+     * @return the SQL report with HTTP 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<SqlReport> report(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(sqlReportService.report(limit));
+    }
+
+    /**
+     * Clears all statistics and logs.
+     *
+     * @return HTTP 204 (No Content)
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        sqlReportService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ing.productmng_tool.deadline;
+
+import com.ing.productmng_tool.exception.DeadlineExceededException;
+
+/**
+ * Point in time by which the current request must complete.
+ *
+ * <p>Bound to the request thread by {@link DeadlineFilter}. Code that waits or talks to
+ * the database reads the remaining budget from here instead of using fixed timeouts.</p>
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @param budgetNanos time budget from now
+     * @return a deadline expiring after the budget
+     */
+    public static Deadline after(long budgetNanos) {
+        return new Deadline(System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * @return the deadline of the current thread, or {@code null} if none is set
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param fallback value returned when no deadline is set
+     * @return nanoseconds left for the current thread, or {@code fallback}
+     */
+    public static long remainingNanos(long fallback) {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline.remainingNanos() : fallback;
+    }
+
+    /**
+     * Fails fast if the current thread's deadline has passed.
+     *
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * @return nanoseconds left, negative once expired
+     */
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /**
+     * @return whether the deadline has passed
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    static void attach(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void detach() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ing.productmng_tool.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Propagates request deadlines into transaction and statement timeouts.
+ *
+ * <p>Active unless {@code product.deadline.enabled=false}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !hasDeadline(dataSource)) {
+                    return new DeadlineDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Data sources that route between several pools wrap each pool themselves, as
+     * the timeout is set as soon as a connection is borrowed.
+     */
+    private static boolean hasDeadline(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DeadlineDataSource.class);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ing.productmng_tool.deadline;
+
+import com.ing.productmng_tool.exception.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the remaining request budget as the PostgreSQL {@code statement_timeout}.
+ *
+ * <p>When a connection is borrowed on behalf of a request with a {@link Deadline},
+ * the session statement timeout is set to the remaining time; it is reset when the
+ * connection goes back to the pool. A connection whose timeout cannot be reset is
+ * aborted before it is returned, so the pool evicts it instead of handing the
+ * request's timeout to the next borrower. Connections are not borrowed at all once
+ * the deadline has passed. Other databases and threads without a deadline are left
+ * untouched.</p>
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineDataSource.class);
+
+    private static final String SET_TIMEOUT = "SELECT set_config('statement_timeout', ?, false)";
+    private static final String RESET_TIMEOUT = "RESET statement_timeout";
+
+    private volatile Boolean postgres;
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return super.getConnection();
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException();
+        }
+
+        Connection connection = super.getConnection();
+        if (!isPostgres(connection)) {
+            return connection;
+        }
+
+        long remainingMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline.remainingNanos()));
+        try (PreparedStatement statement = connection.prepareStatement(SET_TIMEOUT)) {
+            statement.setString(1, Long.toString(remainingMillis));
+            statement.execute();
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+        return resetOnClose(connection);
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static Connection resetOnClose(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !connection.isClosed()) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute(RESET_TIMEOUT);
+                        } catch (SQLException ex) {
+                            log.warn("Could not reset statement_timeout - evicting pooled connection", ex);
+                            abortAndClose(connection);
+                            return null;
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Closes the physical connection and hands it back. The pool finds it broken on
+     * return, discards it and reports that as a failed close, which is expected here.
+     */
+    private static void abortAndClose(Connection connection) {
+        try {
+            connection.abort(Runnable::run);
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Aborted connection returned to the pool state={}", ex.getSQLState());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ing.productmng_tool.deadline;
+
+import com.ing.productmng_tool.config.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the {@link Deadline} of each API request.
+ *
+ * <p>Clients may shorten the budget of their endpoint class with the
+ * {@code X-Request-Timeout} header, in milliseconds. Runs right after the
+ * correlation id so time spent in security, rate limiting and bulkhead
+ * queues counts against the budget.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    /**
+     * Request header carrying the client's time budget in milliseconds.
+     */
+    public static final String HEADER = "X-Request-Timeout";
+
+    /**
+     * Request attribute set when the client's header, not the endpoint default,
+     * bounds the deadline; expiring such a deadline says nothing about server load.
+     */
+    public static final String CLIENT_BUDGET_ATTRIBUTE = DeadlineFilter.class.getName() + ".clientBudget";
+
+    private final DeadlineProperties properties;
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long budget = properties.budgetFor(endpointClass).toNanos();
+        long requested = requestedBudget(request.getHeader(HEADER));
+        if (requested < budget) {
+            request.setAttribute(CLIENT_BUDGET_ATTRIBUTE, Boolean.TRUE);
+        }
+        Deadline.attach(Deadline.after(Math.min(budget, requested)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.detach();
+        }
+    }
+
+    private static long requestedBudget(String header) {
+        if (header == null || header.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : Long.MAX_VALUE;
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
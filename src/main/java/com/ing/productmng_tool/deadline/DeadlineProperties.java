@@ -0,0 +1,39 @@
+package com.ing.productmng_tool.deadline;
+
+import com.ing.productmng_tool.config.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of request deadlines.
+ *
+ * <p>Bound from the {@code product.deadline} prefix. The defaults are also the
+ * maximum a client may ask for.</p>
+ *
+ * @param enabled     whether requests get a deadline
+ * @param pointRead   budget of single-product reads
+ * @param catalogScan budget of full catalog reads
+ * @param write       budget of writes
+ */
+@ConfigurationProperties(prefix = "product.deadline")
+public record DeadlineProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2s") Duration pointRead,
+        @DefaultValue("10s") Duration catalogScan,
+        @DefaultValue("5s") Duration write
+) {
+
+    /**
+     * @param endpointClass endpoint class
+     * @return the budget of the class
+     */
+    public Duration budgetFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case POINT_READ -> pointRead;
+            case CATALOG_SCAN -> catalogScan;
+            case WRITE -> write;
+        };
+    }
+}
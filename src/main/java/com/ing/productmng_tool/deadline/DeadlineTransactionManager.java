@@ -0,0 +1,34 @@
+package com.ing.productmng_tool.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager that bounds every transaction by the request {@link Deadline}.
+ *
+ * <p>Refuses to begin a transaction once the deadline has passed, so abandoned
+ * requests never borrow a connection, and otherwise uses the remaining budget as
+ * the transaction timeout (which Spring also applies to each JPA query).</p>
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Deadline.check();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+
+        // Transaction timeouts have second granularity; sub-second budgets are
+        // enforced by the statement timeout set in DeadlineDataSource.
+        int remaining = (int) Math.max(1L, (deadline.remainingNanos() + 999_999_999L) / 1_000_000_000L);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+}
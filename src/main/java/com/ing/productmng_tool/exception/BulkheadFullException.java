@@ -0,0 +1,11 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when a bulkhead has no free slot and its wait queue is full or the wait timed out.
+ */
+public class BulkheadFullException extends BusinessException {
+
+    public BulkheadFullException(String bulkhead) {
+        super("Too many concurrent " + bulkhead + " requests. Please retry later.");
+    }
+}
@@ -1,8 +1,15 @@
 package com.ing.productmng_tool.exception;
 
+/**
+ * Base class of expected business failures translated to HTTP responses.
+ *
+ * <p>Business exceptions are part of normal control flow and never logged with a
+ * stack trace, so they are created without one. This keeps frequent failures,
+ * such as repeated lookups of missing products, cheap.</p>
+ */
 public abstract class BusinessException extends RuntimeException {
 
     public BusinessException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when a delta sync resumes from a cursor older than the retained
+ * tombstones, so deletes since then may be missing; the client has to resync
+ * from the start.
+ */
+public class ChangeCursorExpiredException extends BusinessException {
+
+    public ChangeCursorExpiredException(String cursor) {
+        super("Change cursor " + cursor + " has expired; sync again without a cursor");
+    }
+}
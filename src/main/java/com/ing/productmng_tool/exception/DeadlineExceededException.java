@@ -0,0 +1,11 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when the time budget of a request is spent before its work completes.
+ */
+public class DeadlineExceededException extends BusinessException {
+
+    public DeadlineExceededException() {
+        super("Request deadline exceeded");
+    }
+}
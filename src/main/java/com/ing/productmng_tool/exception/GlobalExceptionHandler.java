@@ -1,14 +1,24 @@
 package com.ing.productmng_tool.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -26,16 +36,25 @@ import java.util.stream.Collectors;
  * and prevents internal implementation details from leaking to clients.</p>
  *
  * <p>All responses follow the {@link ErrorResponse} contract.</p>
+ *
+ * <p>Each handled error increments {@code product.api.errors}, tagged with a fixed
+ * outcome name and the HTTP status.</p>
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(
             ProductNotFoundException ex,
             HttpServletRequest request) {
 
-        return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND, request);
+        return buildResponse("not_found", ex.getMessage(), HttpStatus.NOT_FOUND, request);
     }
 
     @ExceptionHandler(DuplicateProductException.class)
@@ -43,7 +62,76 @@ public class GlobalExceptionHandler {
             DuplicateProductException ex,
             HttpServletRequest request) {
 
-        return buildResponse(ex.getMessage(), HttpStatus.CONFLICT, request);
+        return buildResponse("duplicate", ex.getMessage(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFull(
+            BulkheadFullException ex,
+            HttpServletRequest request) {
+
+        return buildResponse("bulkhead_full", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(
+            Exception ex,
+            HttpServletRequest request) {
+
+        return buildResponse(
+                "deadline_exceeded",
+                "Request deadline exceeded before the operation completed",
+                HttpStatus.GATEWAY_TIMEOUT,
+                request
+        );
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(
+            Exception ex,
+            HttpServletRequest request) {
+
+        if (ex.getCause() instanceof DeadlineExceededException) {
+            return handleDeadlineExceeded(ex, request);
+        }
+        return buildResponse(
+                "db_unavailable",
+                "Database is temporarily unavailable. Please retry later.",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request
+        );
+    }
+
+    @ExceptionHandler(RecordingNotRunningException.class)
+    public ResponseEntity<ErrorResponse> handleRecordingNotRunning(
+            RecordingNotRunningException ex,
+            HttpServletRequest request) {
+
+        return buildResponse("recording_not_running", ex.getMessage(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(InvalidRecordingSettingsException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRecordingSettings(
+            InvalidRecordingSettingsException ex,
+            HttpServletRequest request) {
+
+        return buildResponse("invalid_recording_settings", ex.getMessage(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(InvalidChangeCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidChangeCursor(
+            InvalidChangeCursorException ex,
+            HttpServletRequest request) {
+
+        return buildResponse("invalid_cursor", ex.getMessage(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(ChangeCursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleChangeCursorExpired(
+            ChangeCursorExpiredException ex,
+            HttpServletRequest request) {
+
+        return buildResponse("cursor_expired", ex.getMessage(), HttpStatus.GONE, request);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
@@ -51,7 +139,7 @@ public class GlobalExceptionHandler {
             DataIntegrityViolationException ex,
             HttpServletRequest request) {
 
-        return buildResponse("Database constraint violation", HttpStatus.CONFLICT, request);
+        return buildResponse("constraint_violation", "Database constraint violation", HttpStatus.CONFLICT, request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -65,7 +153,33 @@ public class GlobalExceptionHandler {
                 .map(FieldError::getDefaultMessage)
                 .collect(Collectors.joining(", "));
 
-        return buildResponse(errors, HttpStatus.BAD_REQUEST, request);
+        return buildResponse("validation", errors, HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex,
+            HttpServletRequest request) {
+
+        return buildResponse(
+                "type_mismatch",
+                "Invalid value for '" + ex.getName() + "'",
+                HttpStatus.BAD_REQUEST,
+                request
+        );
+    }
+
+    @ExceptionHandler(UnsatisfiedServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedParameters(
+            UnsatisfiedServletRequestParameterException ex,
+            HttpServletRequest request) {
+
+        return buildResponse(
+                "unsupported_parameters",
+                "Request parameters not supported by this endpoint",
+                HttpStatus.BAD_REQUEST,
+                request
+        );
     }
 
     @ExceptionHandler(Exception.class)
@@ -73,7 +187,7 @@ public class GlobalExceptionHandler {
             Exception ex,
             HttpServletRequest request) {
 
-        return buildResponse("An unexpected error occurred",
+        return buildResponse("unexpected", "An unexpected error occurred",
                 HttpStatus.INTERNAL_SERVER_ERROR,
                 request);
     }
@@ -81,6 +195,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({OptimisticLockException.class, ObjectOptimisticLockingFailureException.class})
     public ResponseEntity<ErrorResponse> handleOptimisticLocking(Exception ex, HttpServletRequest request) {
         return buildResponse(
+                "optimistic_lock",
                 "Resource was modified concurrently. Please retry.",
                 HttpStatus.CONFLICT,
                 request
@@ -93,6 +208,7 @@ public class GlobalExceptionHandler {
             HttpServletRequest request) {
 
         return buildResponse(
+                "access_denied",
                 "Access is denied",
                 HttpStatus.FORBIDDEN,
                 request
@@ -105,6 +221,7 @@ public class GlobalExceptionHandler {
             HttpServletRequest request) {
 
         return buildResponse(
+                "no_handler",
                 "Endpoint not found",
                 HttpStatus.NOT_FOUND,
                 request
@@ -118,6 +235,7 @@ public class GlobalExceptionHandler {
             HttpServletRequest request) {
 
         return buildResponse(
+                "method_not_allowed",
                 "HTTP method not supported",
                 HttpStatus.METHOD_NOT_ALLOWED,
                 request
@@ -125,10 +243,18 @@ public class GlobalExceptionHandler {
     }
 
     private ResponseEntity<ErrorResponse> buildResponse(
+            String outcome,
             String message,
             HttpStatus status,
             HttpServletRequest request) {
 
+        Counter.builder("product.api.errors")
+                .description("API requests answered with an error, by handled outcome")
+                .tag("outcome", outcome)
+                .tag("status", Integer.toString(status.value()))
+                .register(meterRegistry)
+                .increment();
+
         ErrorResponse response = new ErrorResponse(
                 LocalDateTime.now(),
                 status.value(),
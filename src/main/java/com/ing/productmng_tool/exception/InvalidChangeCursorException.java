@@ -0,0 +1,11 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when a delta sync is requested with a cursor the feed never handed out.
+ */
+public class InvalidChangeCursorException extends BusinessException {
+
+    public InvalidChangeCursorException(String cursor) {
+        super("Invalid change cursor: " + cursor);
+    }
+}
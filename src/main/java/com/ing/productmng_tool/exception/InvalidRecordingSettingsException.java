@@ -0,0 +1,11 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when a JFR recording is requested with settings the JDK does not provide.
+ */
+public class InvalidRecordingSettingsException extends BusinessException {
+
+    public InvalidRecordingSettingsException(String settings) {
+        super("Unknown JFR settings: " + settings + " (use 'default' or 'profile')");
+    }
+}
@@ -2,7 +2,26 @@ package com.ing.productmng_tool.exception;
 
 public class ProductNotFoundException extends BusinessException {
 
+    private final Long productId;
+
     public ProductNotFoundException(String message) {
         super(message);
+        this.productId = null;
+    }
+
+    /**
+     * Creates the exception for a missing product id. The message is only
+     * built when it is actually read.
+     *
+     * @param productId identifier that was not found
+     */
+    public ProductNotFoundException(long productId) {
+        super(null);
+        this.productId = productId;
+    }
+
+    @Override
+    public String getMessage() {
+        return productId != null ? "Product not found with id: " + productId : super.getMessage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.ing.productmng_tool.exception;
+
+/**
+ * Thrown when a JFR dump is requested but no recording has been started.
+ */
+public class RecordingNotRunningException extends BusinessException {
+
+    public RecordingNotRunningException() {
+        super("No JFR recording has been started");
+    }
+}
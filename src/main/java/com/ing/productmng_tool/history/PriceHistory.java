@@ -0,0 +1,142 @@
+package com.ing.productmng_tool.history;
+
+import com.ing.productmng_tool.deadline.Deadline;
+import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.model.entity.dto.PriceHistoryEntry;
+import com.ing.productmng_tool.model.entity.dto.PriceHistoryResponse;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read side of the {@code product_price_history} table.
+ *
+ * <p>Rows are written by database triggers in the transaction that changes the
+ * price, so nothing here takes part in writes. Pages are keyset reads of the
+ * {@code (product_id, changed_at)} index, newest first, and cost the same however
+ * deep a client pages. They run in read-only transactions and so use the read
+ * replica when it is enabled.</p>
+ *
+ * <p>The catalog as of a past time is resolved per product with one backward probe
+ * of the same index for the newest price at or before that time. Products are
+ * visited in id order from the live and the deleted products, so rows stream out
+ * as they are found, without sorting or hashing the history first. A product
+ * without a price recorded by then did not exist yet.</p>
+ */
+public class PriceHistory {
+
+    private static final String PAGE_SQL = """
+            SELECT old_price, new_price, changed_at
+            FROM product_price_history
+            WHERE product_id = ? AND changed_at < ?
+            ORDER BY changed_at DESC
+            LIMIT ?
+            """;
+
+    private static final String AS_OF_SQL = """
+            SELECT p.id, p.name, p.description, p.created_at, h.new_price, h.changed_at
+            FROM (
+                SELECT id, name, description, created_at FROM products
+                UNION ALL
+                SELECT product_id, name, description, created_at FROM deleted_products WHERE deleted_at > ?
+            ) p
+            CROSS JOIN LATERAL (
+                SELECT new_price, changed_at
+                FROM product_price_history
+                WHERE product_id = p.id AND changed_at <= ?
+                ORDER BY changed_at DESC
+                LIMIT 1
+            ) h
+            ORDER BY p.id
+            """;
+
+    private static final int FETCH_SIZE = 5_000;
+
+    /**
+     * Later than any recorded change, for the first page.
+     */
+    private static final Timestamp NEWEST = Timestamp.valueOf(LocalDateTime.of(9999, 1, 1, 0, 0));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * @param dataSource         database holding the price history
+     * @param transactionManager transaction manager for the reads
+     */
+    public PriceHistory(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reads one page of a product's price changes. Deleted products keep their history.
+     *
+     * @param productId product identifier
+     * @param before    only changes before this time, {@code null} for the newest
+     * @param limit     largest number of entries
+     * @return the page, with the {@code before} value of the next one
+     * @throws ProductNotFoundException if the product never had a recorded price
+     */
+    public PriceHistoryResponse page(long productId, LocalDateTime before, int limit) {
+        Deadline.check();
+        Timestamp upper = before != null ? Timestamp.valueOf(before) : NEWEST;
+        List<PriceHistoryEntry> rows = readOnlyTransaction.execute(status -> jdbcTemplate.query(PAGE_SQL,
+                (rs, rowNum) -> new PriceHistoryEntry(
+                        rs.getBigDecimal("old_price"),
+                        rs.getBigDecimal("new_price"),
+                        rs.getTimestamp("changed_at").toLocalDateTime()),
+                productId, upper, limit + 1));
+
+        if (rows.isEmpty() && before == null) {
+            throw new ProductNotFoundException(productId);
+        }
+        boolean more = rows.size() > limit;
+        List<PriceHistoryEntry> entries = more ? rows.subList(0, limit) : rows;
+        return new PriceHistoryResponse(productId, entries, more ? entries.get(limit - 1).changedAt() : null);
+    }
+
+    /**
+     * Hands every product that existed at a past time, with the price it had then,
+     * to a sink in id order. Rows are fetched in batches while the sink consumes them.
+     *
+     * @param asOf point in time
+     * @param sink receives each product; {@code updatedAt} is the time its price was set
+     * @return number of products
+     */
+    public long catalogAsOf(LocalDateTime asOf, Consumer<ProductResponse> sink) {
+        Deadline.check();
+        Timestamp at = Timestamp.valueOf(asOf);
+        ZoneId zone = ZoneId.systemDefault();
+        long[] count = {0L};
+        readOnlyTransaction.executeWithoutResult(status -> streamingTemplate.query(AS_OF_SQL,
+                (RowCallbackHandler) rs -> {
+                    // java.time getters skip the Calendar arithmetic of getTimestamp, which
+                    // dominates when a million rows are converted.
+                    OffsetDateTime changed = rs.getObject("changed_at", OffsetDateTime.class);
+                    sink.accept(new ProductResponse(
+                            rs.getLong("id"),
+                            rs.getString("name"),
+                            rs.getString("description"),
+                            rs.getBigDecimal("new_price"),
+                            rs.getObject("created_at", LocalDateTime.class),
+                            LocalDateTime.ofInstant(changed.toInstant(), zone)));
+                    count[0]++;
+                }, at, at));
+        return count[0];
+    }
+}
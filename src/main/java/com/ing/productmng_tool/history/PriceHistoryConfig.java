@@ -0,0 +1,26 @@
+package com.ing.productmng_tool.history;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the price history reader.
+ *
+ * <p>Active unless {@code product.price-history.enabled=false}. The history is kept
+ * by database triggers, so the memory storage engine has none.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.price-history", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(PriceHistoryProperties.class)
+public class PriceHistoryConfig {
+
+    @Bean
+    public PriceHistory priceHistory(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        return new PriceHistory(dataSource, transactionManager);
+    }
+}
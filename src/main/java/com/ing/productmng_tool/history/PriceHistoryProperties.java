@@ -0,0 +1,20 @@
+package com.ing.productmng_tool.history;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the price history endpoint.
+ *
+ * <p>Bound from the {@code product.price-history} prefix.</p>
+ *
+ * @param enabled     whether {@code GET /api/products/{id}/price-history} is served
+ * @param pageSize    entries per page when the client does not ask for a size
+ * @param maxPageSize largest page a client may ask for
+ */
+@ConfigurationProperties(prefix = "product.price-history")
+public record PriceHistoryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") int pageSize,
+        @DefaultValue("500") int maxPageSize
+) {}
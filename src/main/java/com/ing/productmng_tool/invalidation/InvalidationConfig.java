@@ -0,0 +1,57 @@
+package com.ing.productmng_tool.invalidation;
+
+import com.ing.productmng_tool.cache.NegativeCache;
+import com.ing.productmng_tool.catalog.ProductCatalog;
+import com.ing.productmng_tool.stream.ProductEventStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * Keeps the in-process caches of several instances in step through PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY}.
+ *
+ * <p>Active only with {@code product.invalidation.enabled=true}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.invalidation", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProductChangePublisher productChangePublisher(DataSource dataSource,
+                                                         InvalidationProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        String origin = UUID.randomUUID().toString().substring(0, 8);
+        return new ProductChangePublisher(dataSource, properties.channel(), origin, meterRegistry);
+    }
+
+    /**
+     * The listening connection is held for the lifetime of the instance, so it is
+     * opened directly from the driver instead of occupying a pool slot.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProductChangeListener productChangeListener(DataSourceProperties dataSourceProperties,
+                                                       ProductChangePublisher publisher,
+                                                       NegativeCache negativeCache,
+                                                       ObjectProvider<ProductCatalog> catalog,
+                                                       ObjectProvider<ProductEventStream> events,
+                                                       DataSource dataSource,
+                                                       InvalidationProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        DataSource listenSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        return new ProductChangeListener(listenSource, properties.channel(), publisher.origin(), negativeCache,
+                catalog.getIfAvailable(), events.getIfAvailable(), dataSource, properties.maxReconnectDelay(),
+                meterRegistry);
+    }
+}
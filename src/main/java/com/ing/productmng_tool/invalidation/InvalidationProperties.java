@@ -0,0 +1,22 @@
+package com.ing.productmng_tool.invalidation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of cluster-wide cache invalidation.
+ *
+ * <p>Bound from the {@code product.invalidation} prefix.</p>
+ *
+ * @param enabled           whether product changes are exchanged with other instances
+ * @param channel           PostgreSQL notification channel
+ * @param maxReconnectDelay longest wait between attempts to reopen the listening connection
+ */
+@ConfigurationProperties(prefix = "product.invalidation")
+public record InvalidationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("product_changes") String channel,
+        @DefaultValue("30s") Duration maxReconnectDelay
+) {}
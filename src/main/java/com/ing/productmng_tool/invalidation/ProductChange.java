@@ -0,0 +1,109 @@
+package com.ing.productmng_tool.invalidation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format of product change notifications.
+ *
+ * <p>A payload is {@code origin|sentAtMillis|id:version,id:version,...}. The origin
+ * lets an instance skip its own changes, the send time measures the delivery
+ * delay, and a version of {@value #DELETED} marks a delete. Payloads stay below
+ * the 8000 byte limit of {@code NOTIFY}.</p>
+ */
+final class ProductChange {
+
+    /**
+     * Version announced for deleted products.
+     */
+    static final long DELETED = -1L;
+
+    /**
+     * Leaves room for the header below PostgreSQL's payload limit.
+     */
+    static final int MAX_PAYLOAD = 7_800;
+
+    private ProductChange() {
+    }
+
+    /**
+     * Parsed notification.
+     *
+     * @param origin       instance that committed the changes
+     * @param sentAtMillis wall-clock time the notification was sent
+     * @param versions     committed version by product id
+     */
+    record Batch(String origin, long sentAtMillis, Map<Long, Long> versions) {}
+
+    /**
+     * Splits changes into as few payloads as fit the limit.
+     *
+     * @param origin       identifier of the sending instance
+     * @param sentAtMillis wall-clock send time
+     * @param versions     committed version by product id
+     * @return payloads, each carrying at least one change
+     */
+    static List<String> encode(String origin, long sentAtMillis, Map<Long, Long> versions) {
+        String header = origin + '|' + sentAtMillis + '|';
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        for (Map.Entry<Long, Long> change : versions.entrySet()) {
+            String entry = change.getKey() + ":" + change.getValue();
+            if (payload.length() > header.length() && payload.length() + 1 + entry.length() > MAX_PAYLOAD) {
+                payloads.add(payload.toString());
+                payload.setLength(header.length());
+            }
+            if (payload.length() > header.length()) {
+                payload.append(',');
+            }
+            payload.append(entry);
+        }
+        if (payload.length() > header.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * @param payload     notification payload
+     * @param versions    map receiving the changes, keeping the highest version per id
+     * @return the origin and send time, with {@code versions} as passed in
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    static Batch parse(String payload, Map<Long, Long> versions) {
+        int originEnd = payload.indexOf('|');
+        int timeEnd = payload.indexOf('|', originEnd + 1);
+        if (originEnd <= 0 || timeEnd < 0) {
+            throw new IllegalArgumentException("Malformed product change: " + payload);
+        }
+        try {
+            long sentAt = Long.parseLong(payload, originEnd + 1, timeEnd, 10);
+            int start = timeEnd + 1;
+            while (start < payload.length()) {
+                int end = payload.indexOf(',', start);
+                if (end < 0) {
+                    end = payload.length();
+                }
+                int colon = payload.indexOf(':', start);
+                if (colon < 0 || colon > end) {
+                    throw new IllegalArgumentException("Malformed product change: " + payload);
+                }
+                long id = Long.parseLong(payload, start, colon, 10);
+                long version = Long.parseLong(payload, colon + 1, end, 10);
+                versions.merge(id, version, ProductChange::newer);
+                start = end + 1;
+            }
+            return new Batch(payload.substring(0, originEnd), sentAt, versions);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed product change: " + payload, ex);
+        }
+    }
+
+    /**
+     * A delete is final, since ids are never reused.
+     */
+    static long newer(long a, long b) {
+        return a == DELETED || b == DELETED ? DELETED : Math.max(a, b);
+    }
+}
@@ -0,0 +1,290 @@
+package com.ing.productmng_tool.invalidation;
+
+import com.ing.productmng_tool.cache.NegativeCache;
+import com.ing.productmng_tool.catalog.ProductCatalog;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.stream.ProductEvent;
+import com.ing.productmng_tool.stream.ProductEventStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies product changes announced by other instances to the local caches.
+ *
+ * <p>Holds one dedicated connection, outside the pool, that {@code LISTEN}s on the
+ * channel. Every wait returns all notifications that arrived meanwhile; they are
+ * folded into the highest version per product, the ids are dropped from the
+ * {@link NegativeCache}, and the {@link ProductCatalog}, if enabled, reloads the
+ * products it holds in an older version with a single query. Subscribers of the
+ * {@link ProductEventStream} receive the changes as well, so a stream on any
+ * instance carries the writes of all of them.</p>
+ *
+ * <p>Notifications sent while the connection is down are lost, so after every
+ * (re)connect, once {@code LISTEN} is active, the caches are resynchronized: the
+ * negative cache is cleared and the catalog reconciles and sweeps deletions.
+ * Reconnects back off from one second up to {@code maxReconnectDelay}.</p>
+ */
+public class ProductChangeListener implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeListener.class);
+
+    private static final int POLL_MILLIS = 500;
+    private static final long INITIAL_RECONNECT_MILLIS = 1_000L;
+
+    private static final String PRODUCTS_SQL =
+            "SELECT id, version, name, description, price, created_at, updated_at FROM products WHERE id = ANY(?)";
+
+    /**
+     * Idle time after which the connection is probed, since a silently dropped
+     * connection would otherwise just look quiet.
+     */
+    private static final long KEEPALIVE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final DataSource listenSource;
+    private final String channel;
+    private final String origin;
+    private final NegativeCache missingProducts;
+    private final ProductCatalog catalog;
+    private final ProductEventStream events;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxReconnectMillis;
+    private final ExecutorService listener;
+    private final Counter received;
+    private final Counter resyncs;
+    private final Timer delay;
+
+    private volatile boolean running = true;
+    private volatile boolean connected;
+    private volatile Connection connection;
+
+    /**
+     * @param listenSource      unpooled source of the listening connection
+     * @param channel           notification channel
+     * @param origin            identifier of this instance, whose own changes are skipped
+     * @param missingProducts   negative cache to invalidate
+     * @param catalog           catalog to refresh, or {@code null} if disabled
+     * @param events            stream to forward changes to, or {@code null} if disabled
+     * @param dataSource        primary database, for the products forwarded to the stream
+     * @param maxReconnectDelay longest wait between connection attempts
+     * @param meterRegistry     registry for the listener metrics
+     */
+    public ProductChangeListener(DataSource listenSource,
+                                 String channel,
+                                 String origin,
+                                 NegativeCache missingProducts,
+                                 ProductCatalog catalog,
+                                 ProductEventStream events,
+                                 DataSource dataSource,
+                                 Duration maxReconnectDelay,
+                                 MeterRegistry meterRegistry) {
+        this.listenSource = listenSource;
+        this.channel = channel;
+        this.origin = origin;
+        this.missingProducts = missingProducts;
+        this.catalog = catalog;
+        this.events = events;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.maxReconnectMillis = Math.max(INITIAL_RECONNECT_MILLIS, maxReconnectDelay.toMillis());
+        this.listener = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "product-invalidation-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.received = Counter.builder("product.invalidation.notifications")
+                .description("Product change notifications exchanged with other instances")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("product.invalidation.resyncs")
+                .description("Cache resynchronizations after the listening connection (re)connected")
+                .register(meterRegistry);
+        this.delay = Timer.builder("product.invalidation.delay")
+                .description("Time from announcing a product change to applying it on this instance")
+                .register(meterRegistry);
+        Gauge.builder("product.invalidation.connected", this, l -> l.connected ? 1 : 0)
+                .description("Whether this instance is listening for product changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts listening in the background.
+     */
+    public void start() {
+        listener.execute(this::run);
+    }
+
+    /**
+     * @return whether the listening connection is established
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Stops listening and closes the connection.
+     */
+    @Override
+    public void close() {
+        running = false;
+        listener.shutdownNow();
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ex) {
+                log.debug("Closing the listening connection failed", ex);
+            }
+        }
+        try {
+            listener.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long backoff = INITIAL_RECONNECT_MILLIS;
+        while (running) {
+            try (Connection listening = listenSource.getConnection()) {
+                connection = listening;
+                listening.setAutoCommit(true);
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+                }
+                connected = true;
+                backoff = INITIAL_RECONNECT_MILLIS;
+                resync();
+                log.info("Listening for product changes channel={}", channel);
+                listen(listening.unwrap(PGConnection.class), listening);
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                if (connected) {
+                    log.warn("Product change listener disconnected - reconnecting: {}", ex.toString());
+                } else {
+                    log.warn("Product change listener could not connect - retrying in {}ms: {}", backoff, ex.toString());
+                }
+            } finally {
+                connected = false;
+                connection = null;
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxReconnectMillis);
+        }
+    }
+
+    private void listen(PGConnection notifications, Connection listening) throws SQLException {
+        long lastActivity = System.nanoTime();
+        while (running) {
+            PGNotification[] batch = notifications.getNotifications(POLL_MILLIS);
+            long now = System.nanoTime();
+            if (batch != null && batch.length > 0) {
+                apply(batch);
+                lastActivity = now;
+            } else if (now - lastActivity > KEEPALIVE_NANOS) {
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastActivity = now;
+            }
+        }
+    }
+
+    private void apply(PGNotification[] batch) {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> versions = new HashMap<>();
+        for (PGNotification notification : batch) {
+            received.increment();
+            try {
+                ProductChange.Batch parsed = ProductChange.parse(notification.getParameter(), new HashMap<>());
+                if (origin.equals(parsed.origin())) {
+                    continue;
+                }
+                delay.record(Math.max(0L, now - parsed.sentAtMillis()), TimeUnit.MILLISECONDS);
+                parsed.versions().forEach((id, version) -> versions.merge(id, version, ProductChange::newer));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed product change notification: {}", ex.getMessage());
+            }
+        }
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        versions.keySet().forEach(missingProducts::invalidate);
+        if (catalog != null) {
+            catalog.refresh(versions);
+        }
+        if (events != null) {
+            forward(versions);
+        }
+        log.debug("Applied product changes from other instances count={}", versions.size());
+    }
+
+    /**
+     * Publishes deletes directly and other changes with the product as now stored.
+     * A product already past the announced version is published as it is; the
+     * event carries its version, so subscribers can skip repeats.
+     */
+    private void forward(Map<Long, Long> versions) {
+        List<Long> changed = new ArrayList<>();
+        versions.forEach((id, version) -> {
+            if (version == ProductChange.DELETED) {
+                events.publish(ProductEvent.deleted(id));
+            } else {
+                changed.add(id);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.query(PRODUCTS_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", changed.toArray())),
+                    (RowCallbackHandler) rs -> events.publish(ProductEvent.changed(new ProductResponse(
+                            rs.getLong("id"),
+                            rs.getString("name"),
+                            rs.getString("description"),
+                            rs.getBigDecimal("price"),
+                            rs.getTimestamp("created_at").toLocalDateTime(),
+                            rs.getTimestamp("updated_at").toLocalDateTime()), rs.getLong("version"))));
+        } catch (RuntimeException ex) {
+            log.warn("Product changes from other instances could not be streamed count={}", changed.size(), ex);
+        }
+    }
+
+    private void resync() {
+        missingProducts.clear();
+        if (catalog != null) {
+            catalog.reconcile();
+            catalog.sweepDeletions();
+        }
+        resyncs.increment();
+    }
+}
@@ -0,0 +1,153 @@
+package com.ing.productmng_tool.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Announces committed product changes to the other instances with {@code NOTIFY}.
+ *
+ * <p>Callers only enqueue; a background thread drains the queue, keeps the highest
+ * version per product and sends as few notifications as the payload limit allows,
+ * so a burst of writes costs a handful of {@code pg_notify} calls on one pooled
+ * connection. Changes that cannot be queued or sent are dropped and counted: peers
+ * still pick them up with their next catalog reconciliation.</p>
+ */
+public class ProductChangePublisher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangePublisher.class);
+
+    private static final int QUEUE_CAPACITY = 65_536;
+
+    private final DataSource dataSource;
+    private final String channel;
+    private final String origin;
+    private final LinkedBlockingQueue<long[]> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final ExecutorService sender;
+    private final Counter sent;
+    private final Counter dropped;
+
+    /**
+     * @param dataSource    primary database
+     * @param channel       notification channel
+     * @param origin        identifier of this instance, echoed back to its listener
+     * @param meterRegistry registry for the publishing metrics
+     */
+    public ProductChangePublisher(DataSource dataSource, String channel, String origin, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.origin = origin;
+        this.sender = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "product-invalidation-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder("product.invalidation.notifications")
+                .description("Product change notifications exchanged with other instances")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("product.invalidation.dropped")
+                .description("Product changes that could not be announced to other instances")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts sending queued changes.
+     */
+    public void start() {
+        sender.execute(this::run);
+    }
+
+    /**
+     * @return identifier of this instance in notifications
+     */
+    public String origin() {
+        return origin;
+    }
+
+    /**
+     * Queues a committed change.
+     *
+     * @param id      product identifier
+     * @param version committed version
+     */
+    public void publish(long id, long version) {
+        enqueue(id, version);
+    }
+
+    /**
+     * Queues a committed delete.
+     *
+     * @param id product identifier
+     */
+    public void publishDelete(long id) {
+        enqueue(id, ProductChange.DELETED);
+    }
+
+    /**
+     * Stops sending; changes still queued are dropped.
+     */
+    @Override
+    public void close() {
+        sender.shutdownNow();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(long id, long version) {
+        if (!queue.offer(new long[]{id, version})) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<long[]> drained = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(drained);
+
+            Map<Long, Long> versions = new LinkedHashMap<>();
+            drained.forEach(change -> versions.merge(change[0], change[1], ProductChange::newer));
+            drained.clear();
+            send(versions);
+        }
+    }
+
+    private void send(Map<Long, Long> versions) {
+        List<String> payloads = ProductChange.encode(origin, System.currentTimeMillis(), versions);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+            sent.increment(payloads.size());
+        } catch (SQLException | RuntimeException ex) {
+            dropped.increment(versions.size());
+            log.warn("Product changes could not be announced count={} - peers catch up on reconciliation: {}",
+                    versions.size(), ex.toString());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ing.productmng_tool.jfr;
+
+import com.ing.productmng_tool.config.CorrelationIdFilter;
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Execution of one JDBC statement or batch issued through Hibernate.
+ */
+@Name("com.ing.productmng.DatabaseStatement")
+@Label("Database Statement")
+@Category({"Product Management", "Database"})
+@StackTrace(false)
+public class DatabaseStatementEvent extends jdk.jfr.Event {
+
+    @Label("Batch")
+    boolean batch;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    /**
+     * Starts timing a statement.
+     *
+     * @param batch whether a batch is executed
+     * @return the started event, or {@code null} if the event type is disabled
+     */
+    public static DatabaseStatementEvent start(boolean batch) {
+        DatabaseStatementEvent event = new DatabaseStatementEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.batch = batch;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it exceeds the configured threshold.
+     */
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ing.productmng_tool.jfr;
+
+import com.ing.productmng_tool.exception.InvalidRecordingSettingsException;
+import com.ing.productmng_tool.exception.RecordingNotRunningException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Controls a single on-demand JFR recording of the running application.
+ *
+ * <p>The recording includes the JDK events of the chosen settings ({@code default}
+ * or {@code profile}) plus the product events. Dumps go to a temporary directory;
+ * only the latest dump is kept.</p>
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final String RECORDING_NAME = "productmng-on-demand";
+
+    private final Path dumpDirectory;
+    private Recording recording;
+    private String settings;
+
+    public FlightRecorderService() {
+        this.dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "productmng-jfr");
+    }
+
+    /**
+     * Starts the recording unless one is already running.
+     *
+     * @param settings JDK settings name, {@code default} or {@code profile}
+     * @param maxAge   how much history to keep in the recording buffer
+     * @return recording status
+     */
+    public synchronized RecordingStatus start(String settings, Duration maxAge) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName(RECORDING_NAME);
+            started.setMaxAge(maxAge);
+            started.setToDisk(true);
+            started.enable(ProductOperationEvent.class);
+            started.enable(ProductCacheEvent.class);
+            started.enable(DatabaseStatementEvent.class);
+            started.start();
+            this.recording = started;
+            this.settings = settings;
+        } catch (IOException | ParseException ex) {
+            throw new InvalidRecordingSettingsException(settings);
+        }
+
+        log.info("JFR recording started settings={} maxAge={}", settings, maxAge);
+        return status();
+    }
+
+    /**
+     * Stops the recording; its data stays available for {@link #dump()}.
+     *
+     * @return recording status
+     */
+    public synchronized RecordingStatus stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("JFR recording stopped");
+        }
+        return status();
+    }
+
+    /**
+     * Writes the recorded data to a file.
+     *
+     * @return path of the dump
+     * @throws RecordingNotRunningException if nothing has been recorded
+     */
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new RecordingNotRunningException();
+        }
+
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path target = dumpDirectory.resolve("productmng-" + Instant.now().toEpochMilli() + ".jfr");
+            deleteOldDumps();
+            recording.dump(target);
+            log.info("JFR recording dumped file={} size={}", target, Files.size(target));
+            return target;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return recording status
+     */
+    public synchronized RecordingStatus status() {
+        if (recording == null) {
+            return new RecordingStatus("NEW", null, null, 0L);
+        }
+        return new RecordingStatus(
+                recording.getState().name(),
+                settings,
+                recording.getStartTime(),
+                recording.getSize());
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteOldDumps() throws IOException {
+        try (Stream<Path> dumps = Files.list(dumpDirectory)) {
+            for (Path dump : dumps.filter(p -> p.getFileName().toString().endsWith(".jfr")).toList()) {
+                Files.deleteIfExists(dump);
+            }
+        }
+    }
+
+    /**
+     * @param state     recording state
+     * @param settings  JDK settings used
+     * @param startedAt start time, if started
+     * @param size      bytes recorded so far
+     */
+    public record RecordingStatus(String state, String settings, Instant startedAt, long size) {}
+}
@@ -0,0 +1,46 @@
+package com.ing.productmng_tool.jfr;
+
+import com.ing.productmng_tool.config.CorrelationIdFilter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Lookup in one of the in-memory product caches (negative cache, name index,
+ * coalesced loads).
+ */
+@Name("com.ing.productmng.ProductCache")
+@Label("Product Cache Lookup")
+@Description("Hit or miss of an in-memory product cache")
+@Category({"Product Management", "Cache"})
+@StackTrace(false)
+public class ProductCacheEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    /**
+     * Commits a lookup event if the event type is enabled in a running recording.
+     *
+     * @param cache cache name
+     * @param hit   whether the lookup was answered by the cache
+     */
+    public static void record(String cache, boolean hit) {
+        ProductCacheEvent event = new ProductCacheEvent();
+        if (event.isEnabled()) {
+            event.cache = cache;
+            event.hit = hit;
+            event.correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID);
+            event.commit();
+        }
+    }
+}
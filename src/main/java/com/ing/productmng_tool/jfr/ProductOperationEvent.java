@@ -0,0 +1,36 @@
+package com.ing.productmng_tool.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code ProductService} operation, such as a price change or a catalog list.
+ */
+@Name("com.ing.productmng.ProductOperation")
+@Label("Product Operation")
+@Description("A product service operation")
+@Category({"Product Management", "Service"})
+@StackTrace(false)
+public class ProductOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Product Id")
+    @Description("Product the operation targets, 0 if none")
+    long productId;
+
+    @Label("Rows")
+    @Description("Products returned or accepted")
+    int rows;
+
+    @Label("Correlation Id")
+    String correlationId;
+
+    @Label("Outcome")
+    @Description("ok, or the simple name of the exception thrown")
+    String outcome;
+}
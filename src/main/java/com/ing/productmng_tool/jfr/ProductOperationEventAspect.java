@@ -0,0 +1,61 @@
+package com.ing.productmng_tool.jfr;
+
+import com.ing.productmng_tool.config.CorrelationIdFilter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Emits a {@link ProductOperationEvent} around every {@code ProductService} call.
+ *
+ * <p>When no recording enables the event, the only cost is one
+ * {@link jdk.jfr.Event#isEnabled()} check.</p>
+ */
+@Aspect
+@Component
+public class ProductOperationEventAspect {
+
+    @Around("execution(* com.ing.productmng_tool.service.ProductService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        ProductOperationEvent event = new ProductOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+        String outcome = "ok";
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object[] args = joinPoint.getArgs();
+                event.operation = joinPoint.getSignature().getName();
+                event.productId = args.length > 0 && args[0] instanceof Long id ? id : 0L;
+                event.rows = rows(result);
+                event.correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return result != null ? 1 : 0;
+    }
+}
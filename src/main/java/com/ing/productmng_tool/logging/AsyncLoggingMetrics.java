@@ -0,0 +1,58 @@
+package com.ing.productmng_tool.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes queue depth and drop counts of every {@link CountingAsyncAppender}
+ * attached to the root logger.
+ *
+ * <p>Nothing is registered when logging is synchronous, i.e. outside the
+ * {@code prod} profile.</p>
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof CountingAsyncAppender appender) {
+                bind(registry, appender);
+            }
+        }
+    }
+
+    private static void bind(MeterRegistry registry, CountingAsyncAppender appender) {
+        String name = appender.getName();
+
+        Gauge.builder("logging.async.queue.size", appender, CountingAsyncAppender::getNumberOfElementsInQueue)
+                .description("Log events waiting to be written")
+                .tag("appender", name)
+                .register(registry);
+        Gauge.builder("logging.async.queue.capacity", appender, CountingAsyncAppender::getQueueSize)
+                .tag("appender", name)
+                .register(registry);
+        FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::discardedCount)
+                .description("Log events dropped by the asynchronous appender")
+                .tags("appender", name, "reason", "discarded")
+                .register(registry);
+        FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::overflowedCount)
+                .description("Log events dropped by the asynchronous appender")
+                .tags("appender", name, "reason", "queue_full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ing.productmng_tool.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous appender that never blocks the logging thread and counts what it drops.
+ *
+ * <p>Events are handed to a bounded queue drained by a single worker thread, which
+ * writes them. Drop policy:</p>
+ * <ul>
+ *     <li>once fewer than {@code discardingThreshold} slots are free, INFO and lower are discarded</li>
+ *     <li>once the queue is full, every event is discarded</li>
+ * </ul>
+ *
+ * <p>Events that are queued have their message formatted, and their thread name and
+ * MDC captured, on the calling thread, so log arguments changed after the call are
+ * logged as they were. Dropped events are never formatted. Caller data is never
+ * collected.</p>
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public CountingAsyncAppender() {
+        setNeverBlock(true);
+        setIncludeCallerData(false);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // A concurrent offer can still fill the last slot; that rare drop goes uncounted.
+        if (getRemainingCapacity() == 0) {
+            overflowed.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+    }
+
+    /**
+     * @return events at INFO or lower dropped because the queue was nearly full
+     */
+    public long discardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * @return events of any level dropped because the queue was full
+     */
+    public long overflowedCount() {
+        return overflowed.sum();
+    }
+}
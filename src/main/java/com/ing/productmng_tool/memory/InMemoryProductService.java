@@ -0,0 +1,154 @@
+package com.ing.productmng_tool.memory;
+
+import com.ing.productmng_tool.deadline.Deadline;
+import com.ing.productmng_tool.exception.DuplicateProductException;
+import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.memory.InMemoryProductStore.StoredProduct;
+import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
+import com.ing.productmng_tool.model.entity.dto.PriceTickRequest;
+import com.ing.productmng_tool.model.entity.dto.ProductRequest;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.service.ProductService;
+import com.ing.productmng_tool.stream.ProductEvent;
+import com.ing.productmng_tool.stream.ProductEventStream;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * {@link ProductService} backed by the {@link InMemoryProductStore}, used with
+ * {@code product.storage.engine=memory}.
+ *
+ * <p>Behaves like the JPA implementation towards clients: the same exceptions for
+ * missing products, duplicate names and concurrent price changes, and prices and
+ * timestamps at the precision of the database columns.</p>
+ *
+ * <p>Writes are pushed to the {@link ProductEventStream} once durable.</p>
+ */
+@Timed(value = "product.service", description = "Latency of product service operations")
+public class InMemoryProductService implements ProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryProductService.class);
+
+    private final InMemoryProductStore store;
+    private final ProductEventStream events;
+
+    /**
+     * @param store  product storage
+     * @param events stream of committed changes, or {@code null} if disabled
+     */
+    public InMemoryProductService(InMemoryProductStore store, ProductEventStream events) {
+        this.store = store;
+        this.events = events;
+    }
+
+    /**
+     * Creates a new product.
+     *
+     * @param request request containing product details
+     * @return created product as response DTO
+     * @throws DuplicateProductException if a product with the same name exists
+     */
+    @Override
+    public ProductResponse createProduct(ProductRequest request) {
+        Deadline.check();
+        try {
+            StoredProduct created = store.create(request.name(), request.description(), request.price());
+            ProductResponse product = created.product();
+            publish(ProductEvent.changed(product, created.version()));
+            log.info("Product created id={} name='{}' price={}", product.id(), product.name(), product.price());
+            return product;
+        } catch (DuplicateProductException ex) {
+            log.warn("Create product rejected - duplicate name='{}'", request.name());
+            throw ex;
+        }
+    }
+
+    /**
+     * Retrieves a product by its identifier.
+     *
+     * @param id product unique identifier
+     * @return product response DTO
+     * @throws ProductNotFoundException if no product is found with the given id
+     */
+    @Override
+    public ProductResponse getProductById(Long id) {
+        Deadline.check();
+        StoredProduct stored = store.find(id);
+        if (stored == null) {
+            throw new ProductNotFoundException(id);
+        }
+        return stored.product();
+    }
+
+    /**
+     * Retrieves all available products.
+     *
+     * @return list of product response DTOs in id order
+     */
+    @Override
+    public List<ProductResponse> getAllProducts() {
+        Deadline.check();
+        return store.findAll();
+    }
+
+    /**
+     * Updates the price of an existing product, failing like a stale {@code @Version}
+     * if the product changes between the read and the write.
+     *
+     * @param id      product identifier
+     * @param request request containing the new price
+     * @return updated product as response DTO
+     */
+    @Override
+    public ProductResponse changePrice(Long id, ChangePriceRequest request) {
+        Deadline.check();
+        StoredProduct current = store.find(id);
+        if (current == null) {
+            throw new ProductNotFoundException(id);
+        }
+
+        StoredProduct changed = store.changePrice(id, current.version(), request.newPrice());
+        ProductResponse updated = changed.product();
+        publish(ProductEvent.changed(updated, changed.version()));
+        log.info("Product price changed id={} oldPrice={} newPrice={}", id, current.product().price(), updated.price());
+        return updated;
+    }
+
+    /**
+     * Deletes a product by its identifier.
+     *
+     * @param id product identifier
+     * @throws ProductNotFoundException if the product does not exist
+     */
+    @Override
+    public void deleteProduct(Long id) {
+        Deadline.check();
+        if (store.delete(id) == null) {
+            log.warn("Delete product refused - not found id={}", id);
+            throw new ProductNotFoundException("There was no product found with id: " + id);
+        }
+        publish(ProductEvent.deleted(id));
+        log.info("Product deleted id={}", id);
+    }
+
+    /**
+     * Price ticks need the write-behind mode, which requires the JPA engine.
+     *
+     * @param request batch of price ticks
+     * @return never
+     * @throws IllegalStateException always
+     */
+    @Override
+    public int acceptPriceTicks(PriceTickRequest request) {
+        throw new IllegalStateException("Write-behind mode is disabled");
+    }
+
+    private void publish(ProductEvent event) {
+        if (events != null) {
+            events.publish(event);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.ing.productmng_tool.memory;
+
+import com.ing.productmng_tool.exception.DuplicateProductException;
+import com.ing.productmng_tool.memory.ProductWriteAheadLog.LogRecord;
+import com.ing.productmng_tool.model.entity.Product;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Product storage in concurrent maps, persisted through a {@link ProductWriteAheadLog}.
+ *
+ * <p>Products are keyed by id; a second map from name to id enforces unique names
+ * the way the {@code uk_products_name} constraint does. Writes to the same product
+ * are serialized by one of {@value #STRIPES} lock stripes and follow the
+ * {@code @Version} rules of the JPA engine: every update increments the version,
+ * and an update based on a version that is no longer current fails with
+ * {@link ObjectOptimisticLockingFailureException}.</p>
+ *
+ * <p>A write updates the maps, appends to the log and returns once the log is
+ * forced to disk, so a caller is only answered after its write is durable. Other
+ * readers can see the write during that fsync.</p>
+ *
+ * <p>The log is replayed on construction and compacted in the background once it
+ * has grown to twice its size after the previous compaction, and past
+ * {@code compactionMinBytes}.</p>
+ */
+public class InMemoryProductStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryProductStore.class);
+
+    private static final int STRIPES = 64;
+    private static final int PRICE_SCALE = 4;
+
+    private final Map<Long, StoredProduct> products = new ConcurrentHashMap<>();
+    private final Map<String, Long> names = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicLong ids = new AtomicLong();
+    private final ProductWriteAheadLog writeAheadLog;
+    private final long compactionMinBytes;
+    private final ScheduledExecutorService compactor;
+
+    private volatile long compactedBytes;
+
+    /**
+     * Replays the log and schedules compaction checks.
+     *
+     * @param writeAheadLog      log persisting every write
+     * @param compactionInterval milliseconds between compaction checks
+     * @param compactionMinBytes log size below which the log is never compacted
+     */
+    public InMemoryProductStore(ProductWriteAheadLog writeAheadLog, long compactionInterval, long compactionMinBytes) {
+        this.writeAheadLog = writeAheadLog;
+        this.compactionMinBytes = compactionMinBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+
+        long started = System.nanoTime();
+        long[] maxId = {0L};
+        int records = writeAheadLog.replay(record -> {
+            maxId[0] = Math.max(maxId[0], record.id());
+            replay(record);
+        });
+        ids.set(maxId[0]);
+        compactedBytes = writeAheadLog.size();
+        log.info("In-memory product store recovered products={} logRecords={} logBytes={} tookMs={}",
+                products.size(), records, compactedBytes, (System.nanoTime() - started) / 1_000_000);
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfGrown, compactionInterval, compactionInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param id product identifier
+     * @return the product, or {@code null} if it does not exist
+     */
+    public StoredProduct find(long id) {
+        return products.get(id);
+    }
+
+    /**
+     * @return every product in id order
+     */
+    public List<ProductResponse> findAll() {
+        return products.values().stream()
+                .map(StoredProduct::product)
+                .sorted(Comparator.comparing(ProductResponse::id))
+                .toList();
+    }
+
+    /**
+     * @return number of products
+     */
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Creates a product with the next id.
+     *
+     * @param name        unique product name
+     * @param description product description
+     * @param price       product price
+     * @return the created product, durable
+     * @throws DuplicateProductException if a product with this name exists
+     */
+    public StoredProduct create(String name, String description, BigDecimal price) {
+        long id = ids.incrementAndGet();
+        if (names.putIfAbsent(name, id) != null) {
+            throw new DuplicateProductException("Product with this name already exists");
+        }
+
+        LocalDateTime now = now();
+        StoredProduct created = new StoredProduct(
+                new ProductResponse(id, name, description, normalize(price), now, now), 0L);
+        long position;
+        synchronized (stripe(id)) {
+            products.put(id, created);
+            try {
+                position = writeAheadLog.append(toRecord(created));
+            } catch (RuntimeException ex) {
+                products.remove(id);
+                names.remove(name, id);
+                throw ex;
+            }
+        }
+        writeAheadLog.awaitDurable(position);
+        return created;
+    }
+
+    /**
+     * Changes the price of a product read at {@code expectedVersion}.
+     *
+     * @param id              product identifier
+     * @param expectedVersion version the caller based the change on
+     * @param price           new price
+     * @return the updated product, durable
+     * @throws ObjectOptimisticLockingFailureException if the product changed or was deleted meanwhile
+     */
+    public StoredProduct changePrice(long id, long expectedVersion, BigDecimal price) {
+        StoredProduct updated;
+        long position;
+        synchronized (stripe(id)) {
+            StoredProduct current = products.get(id);
+            if (current == null || current.version() != expectedVersion) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, id);
+            }
+            ProductResponse product = current.product();
+            updated = new StoredProduct(new ProductResponse(id, product.name(), product.description(),
+                    normalize(price), product.createdAt(), now()), current.version() + 1);
+            products.put(id, updated);
+            try {
+                position = writeAheadLog.append(toRecord(updated));
+            } catch (RuntimeException ex) {
+                products.put(id, current);
+                throw ex;
+            }
+        }
+        writeAheadLog.awaitDurable(position);
+        return updated;
+    }
+
+    /**
+     * Deletes a product.
+     *
+     * @param id product identifier
+     * @return the deleted product, or {@code null} if it did not exist
+     */
+    public StoredProduct delete(long id) {
+        StoredProduct removed;
+        long position;
+        synchronized (stripe(id)) {
+            removed = products.remove(id);
+            if (removed == null) {
+                return null;
+            }
+            try {
+                position = writeAheadLog.append(LogRecord.delete(id, removed.version()));
+            } catch (RuntimeException ex) {
+                products.put(id, removed);
+                throw ex;
+            }
+            names.remove(removed.product().name(), id);
+        }
+        writeAheadLog.awaitDurable(position);
+        return removed;
+    }
+
+    /**
+     * Rewrites the log from the current products.
+     */
+    public void compact() {
+        long started = System.nanoTime();
+        long before = writeAheadLog.size();
+        Iterator<LogRecord> live = products.values().stream().map(InMemoryProductStore::toRecord).iterator();
+        compactedBytes = writeAheadLog.compact(live);
+        log.info("Product log compacted bytesBefore={} bytesAfter={} tookMs={}",
+                before, compactedBytes, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Stops compaction and closes the log.
+     */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeAheadLog.close();
+    }
+
+    private void compactIfGrown() {
+        try {
+            long size = writeAheadLog.size();
+            if (size > compactionMinBytes && size > 2 * compactedBytes) {
+                compact();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Product log compaction failed - retrying next interval", ex);
+        }
+    }
+
+    private void replay(LogRecord record) {
+        if (record.isDelete()) {
+            StoredProduct removed = products.remove(record.id());
+            if (removed != null) {
+                names.remove(removed.product().name(), record.id());
+            }
+            return;
+        }
+        StoredProduct stored = new StoredProduct(new ProductResponse(record.id(), record.name(), record.description(),
+                record.price(), fromMicros(record.createdAtMicros()), fromMicros(record.updatedAtMicros())),
+                record.version());
+        StoredProduct previous = products.put(record.id(), stored);
+        if (previous != null) {
+            names.remove(previous.product().name(), record.id());
+        }
+        names.put(record.name(), record.id());
+    }
+
+    private Object stripe(long id) {
+        return stripes[(int) (id ^ (id >>> 32)) & (STRIPES - 1)];
+    }
+
+    private static LogRecord toRecord(StoredProduct stored) {
+        ProductResponse product = stored.product();
+        return new LogRecord(product.id(), stored.version(), product.name(), product.description(), product.price(),
+                toMicros(product.createdAt()), toMicros(product.updatedAt()));
+    }
+
+    /**
+     * Matches what the {@code numeric(19,4)} price column stores.
+     */
+    private static BigDecimal normalize(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Matches the microsecond precision of the timestamp columns.
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * A product with its optimistic locking version.
+     *
+     * @param product product as returned to clients
+     * @param version current version, 0 after creation
+     */
+    public record StoredProduct(ProductResponse product, long version) {}
+}
@@ -0,0 +1,36 @@
+package com.ing.productmng_tool.memory;
+
+import com.ing.productmng_tool.stream.ProductEventStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the in-memory storage engine in place of JPA and PostgreSQL.
+ *
+ * <p>Active only with {@code product.storage.engine=memory};
+ * {@link MemoryEngineEnvironmentPostProcessor} switches off the database
+ * auto-configuration and the features that need it.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "memory")
+@EnableConfigurationProperties(StorageProperties.class)
+public class MemoryEngineConfig {
+
+    @Bean(destroyMethod = "close")
+    public InMemoryProductStore inMemoryProductStore(StorageProperties properties) {
+        StorageProperties.Memory memory = properties.memory();
+        return new InMemoryProductStore(
+                new ProductWriteAheadLog(memory.directory().resolve("products.wal")),
+                memory.compactionInterval().toMillis(),
+                memory.compactionMinSize().toBytes());
+    }
+
+    @Bean
+    public InMemoryProductService inMemoryProductService(InMemoryProductStore store,
+                                                         ObjectProvider<ProductEventStream> events) {
+        return new InMemoryProductService(store, events.getIfAvailable());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ing.productmng_tool.memory;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lets {@code product.storage.engine=memory} alone start the application without
+ * PostgreSQL.
+ *
+ * <p>Excludes the DataSource, JPA and Flyway auto-configuration, keeping any
+ * exclusions already configured, and switches off warm-up, the catalog,
+ * write-behind, the read replica, cache invalidation, the delta-sync feed and the
+ * price history, which use the database directly. These settings take precedence over every other source.</p>
+ */
+public class MemoryEngineEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY_SOURCE = "productMemoryEngine";
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+    private static final String DATABASE_AUTO_CONFIGURATION = String.join(",",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!"memory".equalsIgnoreCase(environment.getProperty("product.storage.engine"))) {
+            return;
+        }
+
+        String configured = environment.getProperty(EXCLUDE);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(EXCLUDE, StringUtils.hasText(configured)
+                ? configured + "," + DATABASE_AUTO_CONFIGURATION
+                : DATABASE_AUTO_CONFIGURATION);
+        properties.put("product.warmup.enabled", "false");
+        properties.put("product.catalog.enabled", "false");
+        properties.put("product.write-behind.enabled", "false");
+        properties.put("product.replica.enabled", "false");
+        properties.put("product.invalidation.enabled", "false");
+        properties.put("product.sync.enabled", "false");
+        properties.put("product.price-history.enabled", "false");
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE, properties));
+    }
+}
@@ -0,0 +1,402 @@
+package com.ing.productmng_tool.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed log of product writes backing the in-memory engine.
+ *
+ * <p>Each record is framed as {@code length(4) crc32(4) payload}, big endian, where
+ * the payload is</p>
+ * <pre>
+ * PUT:    type(1) id(8) version(8) createdAt(8) updatedAt(8) priceScale(1)
+ *         priceLength(1) priceUnscaled nameLength(2) name descriptionLength(2) description
+ * DELETE: type(1) id(8) version(8)
+ * </pre>
+ * <p>with timestamps in epoch microseconds and a description length of -1 for
+ * {@code null}. Replay applies records in order and stops at the first truncated or
+ * corrupt one, which is cut off so later appends follow valid data.</p>
+ *
+ * <p>Appends only write to the file. {@link #awaitDurable(long)} makes them durable
+ * with group commit: the first waiter forces the file for everything written so far,
+ * and writers arriving meanwhile wait for that fsync or the next one.</p>
+ *
+ * <p>{@link #compact(Iterator)} rewrites the log as one PUT per live product plus the
+ * records appended while the rewrite ran, then replaces the file atomically.</p>
+ */
+public class ProductWriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteAheadLog.class);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int FRAME_HEADER = 8;
+    private static final int MAX_PAYLOAD = 64 * 1024;
+
+    private final Path file;
+    private final Object syncMonitor = new Object();
+
+    private FileChannel channel;
+    private boolean syncing;
+    private boolean closed;
+
+    private volatile long writtenBytes;
+    private volatile long durableBytes;
+
+    /**
+     * Opens (or creates) the log file.
+     *
+     * @param file log file
+     */
+    public ProductWriteAheadLog(Path file) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.deleteIfExists(compactionFile());
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open product log " + file, ex);
+        }
+    }
+
+    /**
+     * Applies every valid record in order and positions the log after the last one.
+     *
+     * @param consumer receiver of replayed records
+     * @return number of records replayed
+     */
+    public synchronized int replay(Consumer<LogRecord> consumer) {
+        try {
+            long size = channel.size();
+            long position = 0;
+            int records = 0;
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+            CRC32 crc = new CRC32();
+
+            while (position + FRAME_HEADER <= size) {
+                header.clear();
+                channel.read(header, position);
+                int length = header.getInt(0);
+                if (length <= 0 || length > MAX_PAYLOAD || position + FRAME_HEADER + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, position + FRAME_HEADER);
+                crc.reset();
+                crc.update(payload.flip());
+                if ((int) crc.getValue() != header.getInt(4)) {
+                    break;
+                }
+                consumer.accept(decode(payload.rewind()));
+                position += FRAME_HEADER + length;
+                records++;
+            }
+
+            if (position < size) {
+                log.warn("Product log truncated after a torn or corrupt record file={} validBytes={} droppedBytes={}",
+                        file, position, size - position);
+                channel.truncate(position);
+                channel.force(true);
+            }
+            channel.position(position);
+            return records;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot replay product log " + file, ex);
+        }
+    }
+
+    /**
+     * Appends a record; it is durable once {@link #awaitDurable(long)} returns.
+     *
+     * @param record record to append
+     * @return log position to wait for
+     */
+    public synchronized long append(LogRecord record) {
+        if (closed) {
+            throw new IllegalStateException("Product log is closed");
+        }
+        ByteBuffer frame = frame(record);
+        try {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot append to product log " + file, ex);
+        }
+        long written = writtenBytes + frame.capacity();
+        writtenBytes = written;
+        return written;
+    }
+
+    /**
+     * Blocks until everything up to {@code position} has been forced to disk.
+     *
+     * @param position position returned by {@link #append(LogRecord)}
+     */
+    public void awaitDurable(long position) {
+        while (durableBytes < position) {
+            long target;
+            FileChannel forced;
+            synchronized (syncMonitor) {
+                while (syncing && durableBytes < position) {
+                    waitForSync();
+                }
+                if (durableBytes >= position) {
+                    return;
+                }
+                syncing = true;
+            }
+            try {
+                synchronized (this) {
+                    if (closed) {
+                        throw new IllegalStateException("Product log closed before the write became durable");
+                    }
+                    target = writtenBytes;
+                    forced = channel;
+                }
+                forced.force(false);
+                synchronized (syncMonitor) {
+                    durableBytes = Math.max(durableBytes, target);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot force product log " + file, ex);
+            } finally {
+                synchronized (syncMonitor) {
+                    syncing = false;
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return current size of the log file in bytes
+     */
+    public synchronized long size() {
+        try {
+            return channel.size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read product log size " + file, ex);
+        }
+    }
+
+    /**
+     * Rewrites the log from the live products and swaps it in.
+     *
+     * <p>Writers must update their in-memory state before appending, so a product
+     * changed after its PUT was written here is also in the copied tail.</p>
+     *
+     * @param liveProducts PUT records of every live product, read after this call starts
+     * @return size of the new log in bytes
+     */
+    public long compact(Iterator<LogRecord> liveProducts) {
+        Path target = compactionFile();
+        try {
+            long tailStart = size();
+            try (FileChannel out = FileChannel.open(target,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer batch = ByteBuffer.allocate(256 * 1024);
+                while (liveProducts.hasNext()) {
+                    ByteBuffer frame = frame(liveProducts.next());
+                    if (batch.remaining() < frame.remaining()) {
+                        writeFully(out, batch.flip());
+                        batch.clear();
+                    }
+                    batch.put(frame);
+                }
+                writeFully(out, batch.flip());
+
+                // Holding the sync slot, then the log: the order fsync leaders use.
+                synchronized (syncMonitor) {
+                    while (syncing) {
+                        waitForSync();
+                    }
+                    syncing = true;
+                }
+                try {
+                    // Appends are blocked from here until the new file is in place.
+                    synchronized (this) {
+                        long tailEnd = channel.size();
+                        long copied = 0;
+                        while (copied < tailEnd - tailStart) {
+                            copied += channel.transferTo(tailStart + copied, tailEnd - tailStart - copied, out);
+                        }
+                        out.force(true);
+
+                        Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        channel.close();
+                        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                        channel.position(channel.size());
+                        // Everything in the new file was forced above.
+                        durableBytes = Math.max(durableBytes, writtenBytes);
+                        return channel.size();
+                    }
+                } finally {
+                    synchronized (syncMonitor) {
+                        syncing = false;
+                        syncMonitor.notifyAll();
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot compact product log " + file, ex);
+        } finally {
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ex) {
+                log.debug("Removing product log compaction file failed path={}", target, ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("Closing product log failed file={}", file, ex);
+            }
+        }
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void waitForSync() {
+        try {
+            syncMonitor.wait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for product log fsync", ex);
+        }
+    }
+
+    private Path compactionFile() {
+        return file.resolveSibling(file.getFileName() + ".compact");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @return the encoded record with its frame header, ready to write
+     */
+    static ByteBuffer frame(LogRecord record) {
+        ByteBuffer payload = encode(record);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return ByteBuffer.allocate(FRAME_HEADER + payload.remaining())
+                .putInt(payload.remaining())
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private static ByteBuffer encode(LogRecord record) {
+        if (record.name() == null) {
+            return ByteBuffer.allocate(17).put(DELETE).putLong(record.id()).putLong(record.version()).flip();
+        }
+        byte[] price = record.price().unscaledValue().toByteArray();
+        byte[] name = record.name().getBytes(StandardCharsets.UTF_8);
+        byte[] description = record.description() != null
+                ? record.description().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 * 4 + 2 + price.length + 2 + name.length + 2 + description.length)
+                .put(PUT)
+                .putLong(record.id())
+                .putLong(record.version())
+                .putLong(record.createdAtMicros())
+                .putLong(record.updatedAtMicros())
+                .put((byte) record.price().scale())
+                .put((byte) price.length)
+                .put(price)
+                .putShort((short) name.length)
+                .put(name)
+                .putShort(record.description() != null ? (short) description.length : -1)
+                .put(description);
+        return payload.flip();
+    }
+
+    private static LogRecord decode(ByteBuffer payload) {
+        byte type = payload.get();
+        long id = payload.getLong();
+        long version = payload.getLong();
+        if (type == DELETE) {
+            return LogRecord.delete(id, version);
+        }
+        long createdAt = payload.getLong();
+        long updatedAt = payload.getLong();
+        int scale = payload.get();
+        byte[] unscaled = new byte[payload.get()];
+        payload.get(unscaled);
+        byte[] name = new byte[payload.getShort()];
+        payload.get(name);
+        short descriptionLength = payload.getShort();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            payload.get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new LogRecord(id, version, new String(name, StandardCharsets.UTF_8), description,
+                new BigDecimal(new BigInteger(unscaled), scale), createdAt, updatedAt);
+    }
+
+    /**
+     * A product write: the full product after a create or update, or a delete when
+     * {@code name} is {@code null}.
+     *
+     * @param id              product identifier
+     * @param version         version after the write
+     * @param name            product name, {@code null} for a delete
+     * @param description     product description
+     * @param price           product price
+     * @param createdAtMicros creation time in epoch microseconds
+     * @param updatedAtMicros last update time in epoch microseconds
+     */
+    public record LogRecord(long id, long version, String name, String description, BigDecimal price,
+                            long createdAtMicros, long updatedAtMicros) {
+
+        /**
+         * @param id      product identifier
+         * @param version version of the deleted product
+         * @return a delete record
+         */
+        public static LogRecord delete(long id, long version) {
+            return new LogRecord(id, version, null, null, null, 0L, 0L);
+        }
+
+        /**
+         * @return whether this record deletes the product
+         */
+        public boolean isDelete() {
+            return name == null;
+        }
+    }
+}
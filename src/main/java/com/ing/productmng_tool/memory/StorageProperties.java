@@ -0,0 +1,50 @@
+package com.ing.productmng_tool.memory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selection and configuration of the product storage engine.
+ *
+ * <p>Bound from the {@code product.storage} prefix.</p>
+ *
+ * @param engine storage engine behind the product service
+ * @param memory settings of the in-memory engine
+ */
+@ConfigurationProperties(prefix = "product.storage")
+public record StorageProperties(
+        @DefaultValue("jpa") Engine engine,
+        @DefaultValue Memory memory
+) {
+
+    /**
+     * Storage engine behind the product service.
+     */
+    public enum Engine {
+
+        /**
+         * Spring Data JPA over PostgreSQL.
+         */
+        JPA,
+
+        /**
+         * Concurrent maps persisted through a local write-ahead log; no database.
+         */
+        MEMORY
+    }
+
+    /**
+     * @param directory          directory of the write-ahead log, one per instance
+     * @param compactionInterval how often the log size is checked
+     * @param compactionMinSize  log size below which the log is never compacted
+     */
+    public record Memory(
+            @DefaultValue("data/products") Path directory,
+            @DefaultValue("1m") Duration compactionInterval,
+            @DefaultValue("64MB") DataSize compactionMinSize
+    ) {}
+}
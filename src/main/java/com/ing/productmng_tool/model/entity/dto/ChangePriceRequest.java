@@ -1,6 +1,7 @@
 package com.ing.productmng_tool.model.entity.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
@@ -15,6 +16,7 @@ import java.math.BigDecimal;
  * <ul>
  *     <li>Is not null</li>
  *     <li>Is strictly greater than zero</li>
+ *     <li>Has at most 14 integer digits and 4 decimals, so it fits the write-behind tick log</li>
  * </ul>
  * </p>
  *
@@ -24,5 +26,6 @@ public record ChangePriceRequest(
 
         @NotNull(message = "New price must not be null")
         @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+        @Digits(integer = 14, fraction = 4, message = "Price must have at most 14 integer digits and 4 decimals")
         BigDecimal newPrice
 ) {}
\ No newline at end of file
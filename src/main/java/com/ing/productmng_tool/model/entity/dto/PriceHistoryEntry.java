@@ -0,0 +1,17 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One recorded price of a product.
+ *
+ * @param oldPrice  price before the change, {@code null} for the first recorded price
+ * @param newPrice  price set by the change
+ * @param changedAt time the database applied the change
+ */
+public record PriceHistoryEntry(
+        BigDecimal oldPrice,
+        BigDecimal newPrice,
+        LocalDateTime changedAt
+) {}
@@ -0,0 +1,18 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a product's price history returned by
+ * {@code GET /api/products/{id}/price-history}.
+ *
+ * @param productId product identifier
+ * @param entries   price changes, newest first
+ * @param next      value to pass as {@code before} for the next page, {@code null} on the last page
+ */
+public record PriceHistoryResponse(
+        Long productId,
+        List<PriceHistoryEntry> entries,
+        LocalDateTime next
+) {}
@@ -0,0 +1,47 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request DTO carrying a batch of price ticks from a price feed.
+ *
+ * <p>This object is consumed by the
+ * {@code POST /api/products/price-ticks} endpoint, which is only available
+ * when the write-behind mode is enabled.</p>
+ *
+ * <p>When the same product appears more than once, the last tick wins.</p>
+ *
+ * @param ticks price updates to apply (1 to 10000 entries)
+ */
+public record PriceTickRequest(
+
+        @NotEmpty(message = "At least one price tick is required")
+        @Size(max = 10000, message = "A batch may contain at most 10000 price ticks")
+        List<@Valid Tick> ticks
+) {
+
+    /**
+     * A single price update.
+     *
+     * @param productId product identifier
+     * @param price     new price (must be positive, at most 14 integer digits and 4 decimals)
+     */
+    public record Tick(
+
+            @NotNull(message = "Product id must not be null")
+            Long productId,
+
+            @NotNull(message = "Price must not be null")
+            @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+            @Digits(integer = 14, fraction = 4, message = "Price must have at most 14 integer digits and 4 decimals")
+            BigDecimal price
+    ) {}
+}
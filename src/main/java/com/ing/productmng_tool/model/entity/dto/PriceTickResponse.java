@@ -0,0 +1,10 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+/**
+ * Response DTO returned once a batch of price ticks is durably accepted.
+ *
+ * @param accepted number of ticks written to the write-behind log
+ */
+public record PriceTickResponse(
+        int accepted
+) {}
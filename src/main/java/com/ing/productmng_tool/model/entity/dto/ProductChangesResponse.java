@@ -0,0 +1,21 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+import com.ing.productmng_tool.stream.ProductEvent;
+
+import java.util.List;
+
+/**
+ * One page of the delta-sync feed returned by {@code GET /api/products/changes}.
+ *
+ * <p>Changes superseded by later ones are not repeated: each product appears at
+ * most once, with its current state or as a delete.</p>
+ *
+ * @param changes created or updated products and deletes, oldest first
+ * @param cursor  cursor to pass as {@code since} for the next page
+ * @param hasMore whether further changes were available when the page was read
+ */
+public record ProductChangesResponse(
+        List<ProductEvent> changes,
+        String cursor,
+        boolean hasMore
+) {}
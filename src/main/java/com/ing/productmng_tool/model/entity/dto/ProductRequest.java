@@ -1,6 +1,7 @@
 package com.ing.productmng_tool.model.entity.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -18,6 +19,8 @@ import java.math.BigDecimal;
  *     <li>Product name is not blank</li>
  *     <li>Name length does not exceed 255 characters</li>
  *     <li>Price is provided and strictly greater than zero</li>
+ *     <li>Price has at most 14 integer digits and 4 decimals, so every product fits
+ *     the catalog and the write-behind tick log</li>
  * </ul>
  * </p>
  *
@@ -25,7 +28,7 @@ import java.math.BigDecimal;
  *
  * @param name        product name (required, max 255 chars)
  * @param description optional product description (max 1000 chars)
- * @param price       product price (must be positive)
+ * @param price       product price (must be positive, at most 14 integer digits and 4 decimals)
  */
 public record ProductRequest(
 
@@ -38,5 +41,6 @@ public record ProductRequest(
 
         @NotNull(message = "Provide a not null price")
         @DecimalMin(value = "0.0", inclusive = false, message = "Price value must be greater than 0")
+        @Digits(integer = 14, fraction = 4, message = "Price must have at most 14 integer digits and 4 decimals")
         BigDecimal price
 ) {}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.ing.productmng_tool.model.entity.dto;
+
+/**
+ * Response DTO returned by the token endpoint.
+ *
+ * <p>This object is returned by {@code POST /api/auth/token}. The token is sent
+ * back on subsequent requests as {@code Authorization: Bearer <accessToken>}.</p>
+ *
+ * @param accessToken signed bearer token
+ * @param tokenType   always {@code Bearer}
+ * @param expiresIn   token lifetime in seconds
+ */
+public record TokenResponse(
+        String accessToken,
+        String tokenType,
+        long expiresIn
+) {}
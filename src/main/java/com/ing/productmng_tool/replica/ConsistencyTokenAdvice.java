@@ -0,0 +1,49 @@
+package com.ing.productmng_tool.replica;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the consistency token of a write right before the response body is
+ * serialized, while headers can still be added.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "product.replica", name = "enabled", havingValue = "true")
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReadReplica replica;
+
+    public ConsistencyTokenAdvice(ReadReplica replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+
+        ReadConsistency consistency = ReadConsistency.current();
+        if (consistency != null && consistency.written()
+                && !response.getHeaders().containsKey(ConsistencyTokenFilter.HEADER)) {
+            String token = ConsistencyTokenFilter.token(replica);
+            if (token != null) {
+                response.getHeaders().set(ConsistencyTokenFilter.HEADER, token);
+            }
+        }
+        return body;
+    }
+}
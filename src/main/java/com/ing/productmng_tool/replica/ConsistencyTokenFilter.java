@@ -0,0 +1,94 @@
+package com.ing.productmng_tool.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Carries read-your-writes tokens in and out of API requests.
+ *
+ * <p>A request that commits a write is answered with an {@code X-Consistency-Token}
+ * header holding the primary's WAL position after the commit. Clients send the
+ * last token they received on later requests, and their reads are then served by
+ * the replica only once it has replayed that far. Malformed tokens are ignored.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(prefix = "product.replica", name = "enabled", havingValue = "true")
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    /**
+     * Request and response header carrying the WAL position.
+     */
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final Logger log = LoggerFactory.getLogger(ConsistencyTokenFilter.class);
+
+    private final ReadReplica replica;
+
+    public ConsistencyTokenFilter(ReadReplica replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/", request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ReadConsistency consistency = ReadConsistency.attach(requiredLsn(request.getHeader(HEADER)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Responses without a body never reach ConsistencyTokenAdvice.
+            if (consistency.written() && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                String token = token(replica);
+                if (token != null) {
+                    response.setHeader(HEADER, token);
+                }
+            }
+            ReadConsistency.detach();
+        }
+    }
+
+    /**
+     * Reads the primary position for a response. Runs after the request's
+     * transaction has released its connection.
+     *
+     * @param replica replica with access to the primary
+     * @return the token, or {@code null} if the primary could not be asked
+     */
+    static String token(ReadReplica replica) {
+        try {
+            return Lsn.format(replica.primaryLsn());
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Consistency token unavailable: {}", ex.toString());
+            return null;
+        }
+    }
+
+    private static long requiredLsn(String header) {
+        if (header == null || header.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Lsn.parse(header.trim());
+        } catch (IllegalArgumentException ex) {
+            return 0L;
+        }
+    }
+}
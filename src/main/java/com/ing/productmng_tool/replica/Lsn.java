@@ -0,0 +1,35 @@
+package com.ing.productmng_tool.replica;
+
+/**
+ * PostgreSQL write-ahead log positions in their text form, {@code 16/B374D848}.
+ */
+public final class Lsn {
+
+    private Lsn() {
+    }
+
+    /**
+     * @param text position as printed by PostgreSQL
+     * @return the position as an unsigned 64-bit value
+     * @throws IllegalArgumentException if the text is not a position
+     */
+    public static long parse(String text) {
+        int slash = text.indexOf('/');
+        if (slash <= 0 || slash > 8 || text.length() - slash - 1 > 8 || slash == text.length() - 1) {
+            throw new IllegalArgumentException("Not a WAL position: " + text);
+        }
+        try {
+            return Long.parseLong(text, 0, slash, 16) << 32 | Long.parseLong(text, slash + 1, text.length(), 16);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a WAL position: " + text, ex);
+        }
+    }
+
+    /**
+     * @param lsn position
+     * @return the position as printed by PostgreSQL
+     */
+    public static String format(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+}
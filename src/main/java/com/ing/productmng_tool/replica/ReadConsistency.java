@@ -0,0 +1,82 @@
+package com.ing.productmng_tool.replica;
+
+/**
+ * Read-your-writes state of the current API request.
+ *
+ * <p>Bound to the request thread by {@link ConsistencyTokenFilter}. A request that
+ * presents a token from an earlier write is only served by a replica that has
+ * replayed up to the token's position. A request whose own transaction commits a
+ * write is answered with a new token.</p>
+ */
+public final class ReadConsistency {
+
+    private static final ThreadLocal<ReadConsistency> CURRENT = new ThreadLocal<>();
+
+    private final long requiredLsn;
+    private boolean written;
+
+    private ReadConsistency(long requiredLsn) {
+        this.requiredLsn = requiredLsn;
+    }
+
+    /**
+     * Binds a new state to the current thread.
+     *
+     * @param requiredLsn WAL position the reads must see, 0 for none
+     * @return the bound state
+     */
+    public static ReadConsistency attach(long requiredLsn) {
+        ReadConsistency consistency = new ReadConsistency(requiredLsn);
+        CURRENT.set(consistency);
+        return consistency;
+    }
+
+    /**
+     * Removes the state from the current thread.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the state of the current thread, or {@code null} outside API requests
+     */
+    public static ReadConsistency current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return WAL position the current thread's reads must see, 0 for none
+     */
+    public static long requiredLsn() {
+        ReadConsistency consistency = CURRENT.get();
+        return consistency != null ? consistency.requiredLsn : 0L;
+    }
+
+    /**
+     * Reads carrying a token must not be answered from caches that can be behind
+     * the database.
+     *
+     * @return whether the current request carries a consistency token
+     */
+    public static boolean required() {
+        return requiredLsn() > 0L;
+    }
+
+    /**
+     * Records that the current thread committed a read-write transaction.
+     */
+    public static void writeCommitted() {
+        ReadConsistency consistency = CURRENT.get();
+        if (consistency != null) {
+            consistency.written = true;
+        }
+    }
+
+    /**
+     * @return whether a write was committed during the request
+     */
+    public boolean written() {
+        return written;
+    }
+}
@@ -0,0 +1,257 @@
+package com.ing.productmng_tool.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool of a streaming replica, handed out only while the replica is
+ * healthy and close enough to the primary.
+ *
+ * <p>Every {@code checkInterval} the primary's current WAL position is sampled and
+ * compared with the position the replica has replayed. The lag is the age of the
+ * oldest sampled primary position the replica has not replayed yet, so it only
+ * depends on the local clock and is zero while the primary is idle.</p>
+ *
+ * <p>A read goes to the primary instead when the replica failed its last check or
+ * a connection attempt, when the lag exceeds {@code maxLag}, when the replica has
+ * not reached the caller's consistency token, or when no replica connection frees
+ * up within the pool's connection timeout.</p>
+ */
+public class ReadReplica implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplica.class);
+
+    /**
+     * Primary positions kept while the replica is behind. Once full, newer samples
+     * are dropped, which can only overstate the lag.
+     */
+    private static final int MAX_PENDING = 4096;
+
+    private static final State UNAVAILABLE = new State(false, 0L, 0L, 0L);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagNanos;
+    private final long checkIntervalNanos;
+    private final ScheduledExecutorService monitor;
+
+    /**
+     * Sampled primary positions not yet replayed, as {position, sampledAtNanos},
+     * oldest first. Only touched by the monitor thread.
+     */
+    private final ArrayDeque<long[]> pending = new ArrayDeque<>();
+
+    private final Counter replicaReads;
+    private final Counter unavailableReads;
+    private final Counter laggingReads;
+    private final Counter tokenReads;
+
+    private volatile State state = UNAVAILABLE;
+
+    /**
+     * @param primary        primary data source, used to sample its WAL position
+     * @param replica        replica connection pool, closed with this
+     * @param maxLag         replay lag above which reads go to the primary
+     * @param checkInterval  time between lag checks
+     * @param meterRegistry  registry for the replica metrics
+     */
+    public ReadReplica(DataSource primary,
+                       DataSource replica,
+                       Duration maxLag,
+                       Duration checkInterval,
+                       MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagNanos = maxLag.toNanos();
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("product.replica.lag", this, r -> r.state.lagNanos() / 1e9)
+                .description("Replay lag of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("product.replica.available", this, r -> r.state.available() ? 1 : 0)
+                .description("Whether the read replica passed its last check")
+                .register(meterRegistry);
+        this.replicaReads = reads(meterRegistry, "replica", "none");
+        this.unavailableReads = reads(meterRegistry, "primary", "unavailable");
+        this.laggingReads = reads(meterRegistry, "primary", "lagging");
+        this.tokenReads = reads(meterRegistry, "primary", "token");
+    }
+
+    /**
+     * Checks the replica once, then keeps checking it in the background.
+     */
+    public void start() {
+        check();
+        monitor.scheduleWithFixedDelay(this::check, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param requiredLsn WAL position the read must see, 0 for none
+     * @return a replica connection, or {@code null} if the read must go to the primary
+     */
+    public Connection connection(long requiredLsn) {
+        State current = state;
+        if (!current.available()) {
+            unavailableReads.increment();
+            return null;
+        }
+        // A stalled monitor must not keep an old, small lag alive.
+        long overdue = System.nanoTime() - current.checkedAtNanos() - checkIntervalNanos;
+        if (Math.max(current.lagNanos(), overdue) > maxLagNanos) {
+            laggingReads.increment();
+            return null;
+        }
+        if (Long.compareUnsigned(requiredLsn, current.replayLsn()) > 0) {
+            tokenReads.increment();
+            return null;
+        }
+
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            // Without a cause the pool was only busy; the replica itself is fine.
+            if (ex.getCause() != null) {
+                markDown(ex);
+            }
+            unavailableReads.increment();
+            return null;
+        }
+    }
+
+    /**
+     * @return the primary's current WAL position
+     * @throws SQLException if the primary cannot be queried
+     */
+    public long primaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            rs.next();
+            return Lsn.parse(rs.getString(1));
+        }
+    }
+
+    /**
+     * @return the state of the last check
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Stops the lag checks and closes the replica pool.
+     */
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        try {
+            if (replica.isWrapperFor(Closeable.class)) {
+                replica.unwrap(Closeable.class).close();
+            }
+        } catch (SQLException | IOException ex) {
+            log.warn("Closing the replica pool failed", ex);
+        }
+    }
+
+    void check() {
+        long primaryLsn = 0L;
+        try {
+            primaryLsn = primaryLsn();
+        } catch (SQLException | RuntimeException ex) {
+            // The lag is then judged on earlier samples only.
+            log.debug("Sampling the primary WAL position failed", ex);
+        }
+
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT pg_is_in_recovery(), pg_last_wal_replay_lsn()::text")) {
+            rs.next();
+            String replayed = rs.getString(2);
+            if (!rs.getBoolean(1) || replayed == null) {
+                if (state.available() || state.checkedAtNanos() == 0L) {
+                    log.warn("Read replica is not a standby, reading from the primary only");
+                }
+                state = new State(false, 0L, 0L, System.nanoTime());
+                return;
+            }
+            update(primaryLsn, Lsn.parse(replayed), System.nanoTime());
+        } catch (SQLException | RuntimeException ex) {
+            markDown(ex);
+        }
+    }
+
+    /**
+     * Records one check.
+     *
+     * @param primaryLsn primary position sampled before the replica was asked, 0 if unknown
+     * @param replayLsn  position the replica has replayed
+     * @param nowNanos   time of the check
+     */
+    void update(long primaryLsn, long replayLsn, long nowNanos) {
+        long[] newest = pending.peekLast();
+        if (Long.compareUnsigned(primaryLsn, replayLsn) > 0
+                && (newest == null || Long.compareUnsigned(primaryLsn, newest[0]) > 0)
+                && pending.size() < MAX_PENDING) {
+            pending.addLast(new long[]{primaryLsn, nowNanos});
+        }
+        while (!pending.isEmpty() && Long.compareUnsigned(pending.peekFirst()[0], replayLsn) <= 0) {
+            pending.removeFirst();
+        }
+
+        long lagNanos = pending.isEmpty() ? 0L : nowNanos - pending.peekFirst()[1];
+        if (!state.available()) {
+            log.info("Read replica available replayLsn={} lagMs={}", Lsn.format(replayLsn), lagNanos / 1_000_000);
+        }
+        state = new State(true, replayLsn, lagNanos, nowNanos);
+    }
+
+    private void markDown(Exception ex) {
+        if (state.available() || state.checkedAtNanos() == 0L) {
+            log.warn("Read replica unavailable, reading from the primary: {}", ex.toString());
+        }
+        state = new State(false, 0L, 0L, System.nanoTime());
+    }
+
+    private static Counter reads(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("product.replica.reads")
+                .description("Read-only connections by the database serving them")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Outcome of the last replica check.
+     *
+     * @param available      whether the replica answered as a standby
+     * @param replayLsn      WAL position the replica had replayed
+     * @param lagNanos       age of the oldest primary position not yet replayed
+     * @param checkedAtNanos {@link System#nanoTime()} of the check
+     */
+    public record State(boolean available, long replayLsn, long lagNanos, long checkedAtNanos) {}
+}
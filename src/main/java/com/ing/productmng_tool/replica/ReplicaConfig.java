@@ -0,0 +1,79 @@
+package com.ing.productmng_tool.replica;
+
+import com.ing.productmng_tool.deadline.DeadlineDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to a streaming replica.
+ *
+ * <p>Active only with {@code product.replica.enabled=true}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReadReplica readReplica(ReplicaProperties properties,
+                                   DataSourceProperties primary,
+                                   DataSource dataSource,
+                                   MeterRegistry meterRegistry) {
+        HikariDataSource pool = primary.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(properties.url())
+                .username(properties.username() != null ? properties.username() : primary.determineUsername())
+                .password(properties.password() != null ? properties.password() : primary.determinePassword())
+                .build();
+        pool.setPoolName("replica");
+        pool.setMaximumPoolSize(properties.maxPoolSize());
+        pool.setConnectionTimeout(properties.acquireTimeout().toMillis());
+        pool.setReadOnly(true);
+        // Start even if the replica is down; reads use the primary until it is back.
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricRegistry(meterRegistry);
+
+        return new ReadReplica(dataSource, new DeadlineDataSource(pool), properties.maxLag(), properties.checkInterval(), meterRegistry);
+    }
+
+    @Bean
+    public static ReplicaDataSourcePostProcessor replicaDataSourcePostProcessor(ObjectProvider<ReadReplica> replica) {
+        return new ReplicaDataSourcePostProcessor(replica);
+    }
+
+    /**
+     * Spring marks the connection of a read-only JPA transaction read-only, which
+     * selects the replica, only if Hibernate holds the connection until the
+     * session closes. Sessions end with their transaction, so nothing is held longer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD);
+    }
+
+    @Bean
+    public TransactionExecutionListener readConsistencyListener() {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    ReadConsistency.writeCommitted();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.ing.productmng_tool.replica;
+
+import com.ing.productmng_tool.deadline.DeadlineDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source in a {@link ReplicaRoutingDataSource}.
+ *
+ * <p>Runs before the other data source wrappers. The bulkhead wrapper then caps
+ * replica connections as well. The deadline wrapper borrows a physical connection
+ * to set its statement timeout, which would pin every read to the primary, so it
+ * is applied to each pool behind the routing instead.</p>
+ */
+public class ReplicaDataSourcePostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+    private final ObjectProvider<ReadReplica> replica;
+
+    public ReplicaDataSourcePostProcessor(ObjectProvider<ReadReplica> replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ReplicaRoutingDataSource)) {
+            return new ReplicaRoutingDataSource(new DeadlineDataSource(dataSource), replica::getObject);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
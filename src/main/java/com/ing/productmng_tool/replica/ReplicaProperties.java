@@ -0,0 +1,33 @@
+package com.ing.productmng_tool.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the read replica.
+ *
+ * <p>Bound from the {@code product.replica} prefix. The username and password
+ * default to those of {@code spring.datasource}.</p>
+ *
+ * @param enabled         whether read-only transactions may use the replica
+ * @param url             JDBC URL of the replica
+ * @param username        replica user, or {@code null} for the primary's
+ * @param password        replica password, or {@code null} for the primary's
+ * @param maxPoolSize     size of the replica connection pool
+ * @param acquireTimeout  wait for a replica connection before reading from the primary
+ * @param maxLag          replay lag above which reads go to the primary
+ * @param checkInterval   time between replica lag checks
+ */
+@ConfigurationProperties(prefix = "product.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maxPoolSize,
+        @DefaultValue("250ms") Duration acquireTimeout,
+        @DefaultValue("1s") Duration maxLag,
+        @DefaultValue("500ms") Duration checkInterval
+) {}
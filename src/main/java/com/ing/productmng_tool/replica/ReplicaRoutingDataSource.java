@@ -0,0 +1,63 @@
+package com.ing.productmng_tool.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only work to the {@link ReadReplica} and everything else to the primary.
+ *
+ * <p>Read-only transactions mark their connection read-only only after borrowing it,
+ * so connections are handed out as lazy proxies that pick their database at the
+ * first statement. Reads outside a transaction ({@code Propagation.SUPPORTS} with
+ * {@code readOnly = true}) never mark the connection, and are recognized by the
+ * read-only flag of the transaction synchronization instead.</p>
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    private final Supplier<ReadReplica> replica;
+
+    /**
+     * @param primary primary data source
+     * @param replica replica, looked up on the first read-only connection
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Supplier<ReadReplica> replica) {
+        super(primary);
+        this.replica = replica;
+        setReadOnlyDataSource(new ReadOnlyDataSource());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readOnlyConnection();
+        }
+        return super.getConnection();
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        Connection connection = replica.get().connection(ReadConsistency.requiredLsn());
+        return connection != null ? connection : obtainTargetDataSource().getConnection();
+    }
+
+    /**
+     * Target of connections marked read-only before their first statement.
+     */
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Read-only connections use the configured credentials");
+        }
+    }
+}
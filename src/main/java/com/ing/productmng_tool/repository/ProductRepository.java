@@ -1,11 +1,28 @@
 package com.ing.productmng_tool.repository;
 
 import com.ing.productmng_tool.model.entity.Product;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     boolean existsByName(String name);
+
+    /**
+     * Streams the names of all products without loading entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of product names
+     */
+    @Query("select p.name from Product p")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllNames();
 }
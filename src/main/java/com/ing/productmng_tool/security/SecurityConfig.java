@@ -1,5 +1,9 @@
 package com.ing.productmng_tool.security;
 
+import com.ing.productmng_tool.timing.RequestTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -14,11 +18,22 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
 
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(TokenProperties.class)
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    private static final String TOKEN_ENDPOINT = "/api/auth/token";
+
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
     private final CustomAccessDeniedHandler accessDeniedHandler;
 
@@ -29,7 +44,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -41,8 +56,19 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/products/**").authenticated()
+                        .requestMatchers("/api/auth/**").authenticated()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().permitAll()
                 )
+                .addFilterBefore(
+                        new TokenAuthenticationFilter(tokenService, authenticationEntryPoint, TOKEN_ENDPOINT),
+                        BasicAuthenticationFilter.class)
+                .addFilterAfter((request, response, chain) -> {
+                    RequestTiming.authenticated();
+                    chain.doFilter(request, response);
+                }, AuthorizationFilter.class)
                 .httpBasic(Customizer.withDefaults());
 
         return http.build();
@@ -70,4 +96,17 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public TokenService tokenService(TokenProperties properties) {
+        byte[] secret;
+        if (properties.secret() == null || properties.secret().isBlank()) {
+            log.warn("No product.security.token.secret configured - using a random key, tokens will not survive a restart");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(properties.secret());
+        }
+        return new TokenService(secret, properties.ttl(), Clock.systemUTC());
+    }
+}
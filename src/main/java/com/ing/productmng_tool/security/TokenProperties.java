@@ -0,0 +1,21 @@
+package com.ing.productmng_tool.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the signed bearer tokens.
+ *
+ * <p>Bound from the {@code product.security.token} prefix.</p>
+ *
+ * @param secret base64 encoded HMAC key (at least 32 bytes); a random key is
+ *               generated when empty, which invalidates tokens on restart
+ * @param ttl    lifetime of an issued token
+ */
+@ConfigurationProperties(prefix = "product.security.token")
+public record TokenProperties(
+        String secret,
+        @DefaultValue("15m") Duration ttl
+) {}
@@ -0,0 +1,143 @@
+package com.ing.productmng_tool.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived, HMAC-SHA256 signed bearer tokens.
+ *
+ * <p>A token is {@code base64url(payload) + "." + base64url(mac)} where the payload
+ * carries the username, the expiry (epoch seconds) and the granted authorities.
+ * Verification needs only the key: there is no user lookup and no password hash,
+ * and the signature is compared in constant time.</p>
+ */
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Creates a new token service.
+     *
+     * @param secret HMAC key
+     * @param ttl    lifetime of issued tokens
+     * @param clock  clock used for issuing and expiry checks
+     */
+    public TokenService(byte[] secret, Duration ttl, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Token secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a token for an authenticated principal.
+     *
+     * @param authentication successful authentication
+     * @return the signed token
+     */
+    public IssuedToken issue(Authentication authentication) {
+        String username = authentication.getName();
+        if (username.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Username must not contain line breaks");
+        }
+
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+
+        byte[] payload = (username + "\n" + expiresAt + "\n" + roles).getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        return new IssuedToken(token, ttl.toSeconds());
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @param token token presented by the client
+     * @return the authentication it represents, or {@code null} if the token is
+     *         malformed, forged or expired
+     */
+    public Authentication verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+
+        String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(parts[1]);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(parts[2]);
+        return UsernamePasswordAuthenticationToken.authenticated(parts[0], null, authorities);
+    }
+
+    private byte[] sign(byte[] payload) {
+        Mac mac = macs.get();
+        mac.reset();
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    /**
+     * @param token     signed token
+     * @param expiresIn lifetime in seconds
+     */
+    public record IssuedToken(String token, long expiresIn) {}
+}
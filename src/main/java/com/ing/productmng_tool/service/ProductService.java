@@ -2,6 +2,7 @@ package com.ing.productmng_tool.service;
 
 
 import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
+import com.ing.productmng_tool.model.entity.dto.PriceTickRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductResponse;
 
@@ -18,4 +19,6 @@ public interface ProductService {
     ProductResponse changePrice(Long id, ChangePriceRequest request);
 
     void deleteProduct(Long id);
+
+    int acceptPriceTicks(PriceTickRequest request);
 }
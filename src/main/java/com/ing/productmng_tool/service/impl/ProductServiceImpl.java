@@ -1,23 +1,51 @@
 package com.ing.productmng_tool.service.impl;
 
+import com.ing.productmng_tool.cache.NegativeCache;
+import com.ing.productmng_tool.cache.ProductNameIndex;
+import com.ing.productmng_tool.cache.SingleFlight;
+import com.ing.productmng_tool.catalog.ProductCatalog;
+import com.ing.productmng_tool.deadline.Deadline;
 import com.ing.productmng_tool.exception.DuplicateProductException;
 import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.invalidation.ProductChangePublisher;
 import com.ing.productmng_tool.mapper.ProductMapper;
 import com.ing.productmng_tool.model.entity.Product;
 import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
+import com.ing.productmng_tool.model.entity.dto.PriceTickRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.replica.ReadConsistency;
+import com.ing.productmng_tool.replica.ReadReplica;
 import com.ing.productmng_tool.repository.ProductRepository;
 import com.ing.productmng_tool.service.ProductService;
+import com.ing.productmng_tool.stream.ProductEvent;
+import com.ing.productmng_tool.stream.ProductEventStream;
+import com.ing.productmng_tool.warmup.ProductAccessTracker;
+import com.ing.productmng_tool.writebehind.PriceWriteBehindBuffer;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Default implementation of {@link ProductService}.
@@ -27,33 +55,120 @@ import java.util.List;
  *
  * <p>All write operations are executed within transactional boundaries.
  * Read operations are marked as {@code readOnly = true} for performance optimization.</p>
+ *
+ * <p>When the write-behind mode is enabled, price changes are accepted through the
+ * {@link PriceWriteBehindBuffer} instead of a per-call UPDATE, and reads apply the
+ * latest accepted price on top of the stored one.</p>
+ *
+ * <p>Concurrent identical reads are coalesced with {@link SingleFlight}, so callers
+ * asking for the same product (or the full list) at the same moment share one
+ * database load. These reads join an existing transaction but do not start one
+ * themselves; only the leading caller opens a read-only transaction through the
+ * repository, which keeps waiting followers from holding pooled connections.</p>
+ *
+ * <p>Ids confirmed missing are remembered for a short time in a {@link NegativeCache},
+ * so repeated lookups of unknown products are answered without a database query.
+ * With a {@link ReadReplica}, a miss is only confirmed by the primary, since the
+ * replica may not have replayed the product's insert yet.</p>
+ *
+ * <p>Duplicate names are rejected before attempting an INSERT when the
+ * {@link ProductNameIndex} reports the name as possibly present and
+ * {@link ProductRepository#existsByName(String)} confirms it.</p>
+ *
+ * <p>Every operation is bounded by the request {@link Deadline}: expired requests
+ * fail before touching the database, and the remaining budget becomes the
+ * transaction and statement timeout. Callers sharing a coalesced load stop waiting
+ * when their own deadline passes.</p>
+ *
+ * <p>Successful point reads are counted by the {@link ProductAccessTracker}, which
+ * decides what a starting instance preloads.</p>
+ *
+ * <p>When the {@link ProductCatalog} is enabled and loaded, point and list reads are
+ * answered from it. Database loads and committed writes are applied to it, so this
+ * instance reads its own writes; changes made elsewhere arrive with reconciliation.</p>
+ *
+ * <p>With the {@link ProductChangePublisher} enabled, every committed write is also
+ * announced to the other instances, which evict or refresh their copies within
+ * milliseconds instead of waiting for reconciliation or a TTL. Committed writes are
+ * likewise pushed to subscribers of the {@link ProductEventStream}.</p>
+ *
+ * <p>Every operation is timed as {@code product.service}, tagged with the method and
+ * the exception class, if any.</p>
  */
 @Service
+@ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
 @Transactional
+@Timed(value = "product.service", description = "Latency of product service operations")
 public class ProductServiceImpl implements ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    private static final String CATALOG_KEY = "all";
+
     private final ProductRepository repository;
     private final ProductMapper mapper;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate primaryRead;
+    private final PriceWriteBehindBuffer writeBehind;
+    private final SingleFlight<Long, ProductResponse> productLoads;
+    private final SingleFlight<String, List<ProductResponse>> catalogLoads;
+    private final NegativeCache missingProducts;
+    private final ProductNameIndex productNames;
+    private final ProductAccessTracker accessTracker;
+    private final ProductCatalog catalog;
+    private final ProductChangePublisher changePublisher;
+    private final ProductEventStream events;
 
     /**
      * Constructs a new ProductServiceImpl.
      *
-     * @param repository product persistence repository
-     * @param mapper     mapper responsible for entity-DTO conversions
+     * @param repository         product persistence repository
+     * @param mapper             mapper responsible for entity-DTO conversions
+     * @param transactionManager transaction manager for price changes written synchronously
+     * @param writeBehind        write-behind buffer, available only when the mode is enabled
+     * @param meterRegistry      registry receiving read coalescing metrics
+     * @param missingProducts    cache of product ids known not to exist
+     * @param productNames       membership index of existing product names
+     * @param accessTracker      point-read counter feeding warm-up, available unless warm-up is disabled
+     * @param catalog            snapshot-backed read cache, available only when enabled
+     * @param changePublisher    announces committed writes to other instances, available only when enabled
+     * @param events             stream of committed changes, available unless disabled
+     * @param replica            read replica, available only when enabled
      */
     public ProductServiceImpl(ProductRepository repository,
-                              ProductMapper mapper) {
+                              ProductMapper mapper,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<PriceWriteBehindBuffer> writeBehind,
+                              MeterRegistry meterRegistry,
+                              NegativeCache missingProducts,
+                              ProductNameIndex productNames,
+                              ObjectProvider<ProductAccessTracker> accessTracker,
+                              ObjectProvider<ProductCatalog> catalog,
+                              ObjectProvider<ProductChangePublisher> changePublisher,
+                              ObjectProvider<ProductEventStream> events,
+                              ObjectProvider<ReadReplica> replica) {
         this.repository = repository;
         this.mapper = mapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.primaryRead = replica.getIfAvailable() != null ? primaryRead(transactionManager) : null;
+        this.missingProducts = missingProducts;
+        this.productNames = productNames;
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.accessTracker = accessTracker.getIfAvailable();
+        this.catalog = catalog.getIfAvailable();
+        this.changePublisher = changePublisher.getIfAvailable();
+        this.events = events.getIfAvailable();
+        this.productLoads = new SingleFlight<>("product", meterRegistry);
+        this.catalogLoads = new SingleFlight<>("catalog", meterRegistry);
     }
 
     /**
      * Creates a new product.
      *
      * <p>If a product with the same name already exists,
-     * a {@link DuplicateProductException} is thrown.</p>
+     * a {@link DuplicateProductException} is thrown. Names that the
+     * {@link ProductNameIndex} reports as definitely new go straight to the
+     * INSERT; others are confirmed with an existence query first.</p>
      *
      * @param request request containing product details
      * @return created product as response DTO
@@ -62,10 +177,21 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductResponse createProduct(ProductRequest request) {
 
+        if (productNames.mightContain(request.name()) && repository.existsByName(request.name())) {
+            log.warn("Create product rejected - duplicate name='{}'", request.name());
+            throw new DuplicateProductException("Product with this name already exists");
+        }
+
         Product product = mapper.toEntity(request);
 
         try {
             Product saved = repository.save(product);
+            productNames.add(saved.getName());
+            afterCommit(() -> {
+                missingProducts.invalidate(saved.getId());
+                cache(saved);
+                announce(saved);
+            });
             log.info("Product created id={} name='{}' price={}", saved.getId(), saved.getName(), saved.getPrice());
             return mapper.toResponse(saved);
         } catch (DataIntegrityViolationException ex) {
@@ -82,13 +208,37 @@ public class ProductServiceImpl implements ProductService {
      * @throws ProductNotFoundException if no product is found with the given id
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(Long id) {
-        Product product = repository.findById(id)
-                .orElseThrow(() ->
-                        new ProductNotFoundException("Product not found with id: " + id));
+        Deadline.check();
+        // A client reading its own write skips everything that can lag the database.
+        boolean consistent = ReadConsistency.required();
+        if (!consistent && missingProducts.isMissing(id)) {
+            throw new ProductNotFoundException(id);
+        }
+
+        ProductResponse cached = catalog != null && !consistent ? catalog.get(id) : null;
+        Supplier<ProductResponse> loader = () -> {
+            long generation = missingProducts.generation();
+            Optional<Product> product = repository.findById(id);
+            if (product.isEmpty() && primaryRead != null) {
+                product = primaryRead.execute(status -> repository.findById(id));
+            }
+            if (product.isEmpty()) {
+                missingProducts.markMissing(id, generation);
+                throw new ProductNotFoundException(id);
+            }
 
-        return mapper.toResponse(product);
+            cache(product.get());
+            return mapper.toResponse(product.get());
+        };
+        ProductResponse response = withPendingPrice(cached != null ? cached
+                : consistent ? loader.get() : productLoads.load(id, loader));
+
+        if (accessTracker != null) {
+            accessTracker.record(id);
+        }
+        return response;
     }
 
     /**
@@ -97,12 +247,22 @@ public class ProductServiceImpl implements ProductService {
      * @return list of product response DTOs
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductResponse> getAllProducts() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toResponse)
-                .toList();
+        Deadline.check();
+        boolean consistent = ReadConsistency.required();
+        List<ProductResponse> cached = catalog != null && !consistent ? catalog.all() : null;
+        Supplier<List<ProductResponse>> loader = () ->
+                repository.findAll()
+                        .stream()
+                        .map(mapper::toResponse)
+                        .toList();
+        List<ProductResponse> products = cached != null ? cached
+                : consistent ? loader.get() : catalogLoads.load(CATALOG_KEY, loader);
+
+        return writeBehind != null
+                ? products.stream().map(writeBehind::overlay).toList()
+                : products;
     }
 
     /**
@@ -112,22 +272,29 @@ public class ProductServiceImpl implements ProductService {
      * Optimistic locking is handled via the {@code @Version} field
      * in the {@link Product} entity.</p>
      *
+     * <p>In write-behind mode the new price is appended to the durable tick log
+     * and written to the database asynchronously. Only the existence check runs in
+     * a (read-only) transaction, so no connection is held while waiting for the
+     * tick log to sync.</p>
+     *
      * @param id      product identifier
      * @param request request containing the new price
      * @return updated product as response DTO
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductResponse changePrice(Long id, ChangePriceRequest request) {
+        if (writeBehind == null) {
+            return writeTransaction.execute(status -> updatePrice(id, request));
+        }
 
         Product product = repository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
-
-        var oldPrice = product.getPrice();
-        product.setPrice(request.newPrice());
+                .orElseThrow(() -> new ProductNotFoundException(id));
 
-        Product updated = repository.save(product);
-        log.info("Product price changed id={} oldPrice={} newPrice={}", updated.getId(), oldPrice, updated.getPrice());
-        return mapper.toResponse(updated);
+        ProductResponse current = writeBehind.overlay(mapper.toResponse(product));
+        writeBehind.submit(id, request.newPrice());
+        log.info("Product price accepted id={} oldPrice={} newPrice={}", id, current.price(), request.newPrice());
+        return writeBehind.overlay(current);
     }
 
     /**
@@ -138,12 +305,116 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public void deleteProduct(Long id) {
-        if (!repository.existsById(id)) {
+        Product product = repository.findById(id).orElse(null);
+        if (product == null) {
             log.warn("Delete product refused - not found id={}", id);
             throw new ProductNotFoundException("There was no product found with id: " + id);
         }
 
-        repository.deleteById(id);
+        repository.delete(product);
+        String name = product.getName();
+        afterCommit(() -> {
+            productNames.remove(name);
+            if (catalog != null) {
+                catalog.remove(id);
+            }
+            if (changePublisher != null) {
+                changePublisher.publishDelete(id);
+            }
+            if (events != null) {
+                events.publish(ProductEvent.deleted(id));
+            }
+            if (writeBehind != null) {
+                writeBehind.discard(id);
+            }
+        });
         log.info("Product deleted id={}", id);
     }
+
+    /**
+     * Accepts a batch of price ticks in write-behind mode.
+     *
+     * <p>Ticks are acknowledged once durable in the tick log. Ticks for unknown
+     * products are dropped when the batch is flushed to the database.</p>
+     *
+     * @param request batch of price ticks
+     * @return number of accepted ticks
+     * @throws IllegalStateException if the write-behind mode is disabled
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int acceptPriceTicks(PriceTickRequest request) {
+        if (writeBehind == null) {
+            throw new IllegalStateException("Write-behind mode is disabled");
+        }
+
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        request.ticks().forEach(tick -> prices.put(tick.productId(), tick.price()));
+        return writeBehind.submitAll(prices);
+    }
+
+    private ProductResponse updatePrice(Long id, ChangePriceRequest request) {
+        Product product = repository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+
+        var oldPrice = product.getPrice();
+        product.setPrice(request.newPrice());
+
+        Product updated = repository.save(product);
+        afterCommit(() -> {
+            cache(updated);
+            announce(updated);
+        });
+        log.info("Product price changed id={} oldPrice={} newPrice={}", updated.getId(), oldPrice, updated.getPrice());
+        return mapper.toResponse(updated);
+    }
+
+    /**
+     * A read-write transaction of its own, which the routing data source never sends
+     * to the replica.
+     */
+    private static TransactionTemplate primaryRead(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Applies a loaded or committed entity to the catalog. After commit the entity
+     * carries the version and timestamps written by the flush.
+     */
+    private void cache(Product product) {
+        if (catalog != null && product.getVersion() != null) {
+            catalog.put(mapper.toResponse(product), product.getVersion());
+        }
+    }
+
+    private void announce(Product product) {
+        if (product.getVersion() == null) {
+            return;
+        }
+        if (changePublisher != null) {
+            changePublisher.publish(product.getId(), product.getVersion());
+        }
+        if (events != null) {
+            events.publish(ProductEvent.changed(mapper.toResponse(product), product.getVersion()));
+        }
+    }
+
+    private ProductResponse withPendingPrice(ProductResponse response) {
+        return writeBehind != null ? writeBehind.overlay(response) : response;
+    }
 }
\ No newline at end of file
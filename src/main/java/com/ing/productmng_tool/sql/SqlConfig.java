@@ -0,0 +1,25 @@
+package com.ing.productmng_tool.sql;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link SqlStatementMonitor} as Hibernate's statement inspector.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlProperties.class)
+public class SqlConfig {
+
+    @Bean
+    public SqlStatementMonitor sqlStatementMonitor(SqlProperties properties) {
+        return new SqlStatementMonitor(properties);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementMonitor monitor) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, monitor);
+    }
+}
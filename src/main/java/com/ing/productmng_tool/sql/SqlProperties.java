@@ -0,0 +1,24 @@
+package com.ing.productmng_tool.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of SQL statement observability.
+ *
+ * <p>Bound from the {@code product.sql} prefix.</p>
+ *
+ * @param slowThreshold       execution time above which a statement enters the slow log
+ * @param slowLogSize         number of slow statements kept
+ * @param maxShapes           number of distinct statement shapes tracked
+ * @param maxStatementsPerRequest statements one request may issue before it is reported as a possible N+1
+ */
+@ConfigurationProperties(prefix = "product.sql")
+public record SqlProperties(
+        @DefaultValue("100ms") Duration slowThreshold,
+        @DefaultValue("200") int slowLogSize,
+        @DefaultValue("500") int maxShapes,
+        @DefaultValue("10") int maxStatementsPerRequest
+) {}
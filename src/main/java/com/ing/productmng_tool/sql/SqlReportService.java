@@ -0,0 +1,113 @@
+package com.ing.productmng_tool.sql;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Combines Hibernate's session factory statistics with the per-shape statement
+ * statistics, slow statements and possible N+1 requests of the {@link SqlStatementMonitor}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "product.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
+public class SqlReportService {
+
+    private final SqlStatementMonitor monitor;
+    private final Statistics statistics;
+
+    public SqlReportService(SqlStatementMonitor monitor, EntityManagerFactory entityManagerFactory) {
+        this.monitor = monitor;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * @param limit maximum number of statement shapes returned
+     * @return the current report
+     */
+    public SqlReport report(int limit) {
+        return new SqlReport(
+                HibernateSummary.of(statistics),
+                monitor.topShapes(limit),
+                monitor.slowStatements(),
+                monitor.suspectedNPlusOne());
+    }
+
+    /**
+     * Clears the monitor and Hibernate's statistics.
+     */
+    public void reset() {
+        monitor.reset();
+        statistics.clear();
+    }
+
+    /**
+     * @param hibernate     session factory totals
+     * @param shapes        statement shapes ordered by total execution time
+     * @param slow          slow statements, newest first
+     * @param possibleNPlusOne requests over the statement limit, newest first
+     */
+    public record SqlReport(
+            HibernateSummary hibernate,
+            List<SqlStatementMonitor.ShapeSummary> shapes,
+            List<SqlStatementMonitor.SlowStatement> slow,
+            List<SqlStatementMonitor.SuspectedNPlusOne> possibleNPlusOne
+    ) {}
+
+    /**
+     * Totals collected by Hibernate since {@code since}; only populated when
+     * {@code hibernate.generate_statistics} is enabled.
+     *
+     * @param enabled                 whether Hibernate collects statistics
+     * @param since                   start of the collection period
+     * @param preparedStatements      JDBC statements prepared
+     * @param queryExecutions         HQL and native queries executed
+     * @param slowestQueryMs          slowest query execution
+     * @param slowestQuery            shape of the slowest query
+     * @param entityLoads             entities loaded
+     * @param entityFetches           entities fetched lazily, one statement each
+     * @param collectionFetches       collections fetched lazily, one statement each
+     * @param queryPlanCacheHitRatio  hit ratio of the HQL plan cache
+     * @param transactions            transactions completed
+     */
+    public record HibernateSummary(
+            boolean enabled,
+            Instant since,
+            long preparedStatements,
+            long queryExecutions,
+            long slowestQueryMs,
+            String slowestQuery,
+            long entityLoads,
+            long entityFetches,
+            long collectionFetches,
+            double queryPlanCacheHitRatio,
+            long transactions
+    ) {
+
+        static HibernateSummary of(Statistics statistics) {
+            long planHits = statistics.getQueryPlanCacheHitCount();
+            long planLookups = planHits + statistics.getQueryPlanCacheMissCount();
+            return new HibernateSummary(
+                    statistics.isStatisticsEnabled(),
+                    statistics.getStart(),
+                    statistics.getPrepareStatementCount(),
+                    statistics.getQueryExecutionCount(),
+                    statistics.getQueryExecutionMaxTime(),
+                    shapeOf(statistics.getQueryExecutionMaxTimeQueryString()),
+                    statistics.getEntityLoadCount(),
+                    statistics.getEntityFetchCount(),
+                    statistics.getCollectionFetchCount(),
+                    planLookups == 0 ? 0 : (double) planHits / planLookups,
+                    statistics.getTransactionCount());
+        }
+
+        // Hibernate keeps the query as written, which may hold inline literals.
+        private static String shapeOf(String query) {
+            return query != null ? StatementShapes.of(query) : null;
+        }
+    }
+}
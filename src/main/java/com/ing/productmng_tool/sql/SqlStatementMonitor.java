@@ -0,0 +1,229 @@
+package com.ing.productmng_tool.sql;
+
+import com.ing.productmng_tool.config.CorrelationIdFilter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-shape statement statistics, a bounded slow-statement log and possible N+1
+ * requests.
+ *
+ * <p>Registered as Hibernate's {@link StatementInspector}, which sees the SQL of every
+ * statement as it is prepared; the execution time arrives from the session listener
+ * on the same thread. Only statement shapes are stored, never bind values.</p>
+ */
+public class SqlStatementMonitor implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMonitor.class);
+
+    private static final String OTHER = "(other statements)";
+
+    private static volatile SqlStatementMonitor installed;
+
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final int maxStatementsPerRequest;
+
+    private final ThreadLocal<String> preparedSql = new ThreadLocal<>();
+    private final Map<String, String> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> stats = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowStatement> slowLog;
+    private final AtomicLong slowCount = new AtomicLong();
+    private final AtomicReferenceArray<SuspectedNPlusOne> nPlusOneLog;
+    private final AtomicLong nPlusOneCount = new AtomicLong();
+
+    /**
+     * Creates the monitor and makes it available to the Hibernate session listener.
+     *
+     * @param properties observability configuration
+     */
+    public SqlStatementMonitor(SqlProperties properties) {
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.maxShapes = properties.maxShapes();
+        this.maxStatementsPerRequest = properties.maxStatementsPerRequest();
+        this.slowLog = new AtomicReferenceArray<>(properties.slowLogSize());
+        this.nPlusOneLog = new AtomicReferenceArray<>(properties.slowLogSize());
+        installed = this;
+    }
+
+    /**
+     * @return the monitor of the running application, or {@code null} if none is installed
+     */
+    public static SqlStatementMonitor installed() {
+        return installed;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        preparedSql.set(sql);
+        return sql;
+    }
+
+    /**
+     * Records the execution of the statement last prepared on this thread.
+     *
+     * @param nanos execution time
+     * @return the statement shape, or {@code null} if unknown
+     */
+    public String statementExecuted(long nanos) {
+        String sql = preparedSql.get();
+        if (sql == null) {
+            return null;
+        }
+
+        String shape = shapeOf(sql);
+        stats.computeIfAbsent(shape, s -> new ShapeStats()).record(nanos);
+
+        if (nanos > slowThresholdNanos) {
+            SlowStatement slow = new SlowStatement(Instant.now(), nanos / 1_000_000.0, shape,
+                    MDC.get(CorrelationIdFilter.CORRELATION_ID));
+            slowLog.set((int) (slowCount.getAndIncrement() % slowLog.length()), slow);
+            log.warn("Slow SQL statement duration={}ms shape={}", nanos / 1_000_000, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * Checks the statement count of a finished request.
+     *
+     * @param method      HTTP method
+     * @param path        request path
+     * @param statements  statements executed by the request
+     * @param topShape    shape executed most often in a row
+     * @param topRepeats  how often it was repeated
+     */
+    public void requestCompleted(String method, String path, int statements, String topShape, int topRepeats) {
+        if (statements <= maxStatementsPerRequest) {
+            return;
+        }
+        SuspectedNPlusOne suspect = new SuspectedNPlusOne(Instant.now(), method, path, statements,
+                topShape, topRepeats, MDC.get(CorrelationIdFilter.CORRELATION_ID));
+        nPlusOneLog.set((int) (nPlusOneCount.getAndIncrement() % nPlusOneLog.length()), suspect);
+        log.warn("Possible N+1 method={} path={} statements={} repeated={} shape={}",
+                method, path, statements, topRepeats, topShape);
+    }
+
+    /**
+     * @param limit maximum number of shapes returned
+     * @return shapes ordered by total execution time, highest first
+     */
+    public List<ShapeSummary> topShapes(int limit) {
+        return stats.entrySet().stream()
+                .map(e -> e.getValue().summary(e.getKey()))
+                .sorted(Comparator.comparingDouble(ShapeSummary::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return the retained slow statements, newest first
+     */
+    public List<SlowStatement> slowStatements() {
+        return newestFirst(slowLog, slowCount.get());
+    }
+
+    /**
+     * @return the retained possible N+1 requests, newest first
+     */
+    public List<SuspectedNPlusOne> suspectedNPlusOne() {
+        return newestFirst(nPlusOneLog, nPlusOneCount.get());
+    }
+
+    /**
+     * Clears all statistics and logs.
+     */
+    public void reset() {
+        stats.clear();
+        for (int i = 0; i < slowLog.length(); i++) {
+            slowLog.set(i, null);
+            nPlusOneLog.set(i, null);
+        }
+    }
+
+    private String shapeOf(String sql) {
+        String shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        shape = StatementShapes.of(sql);
+        if (!stats.containsKey(shape) && stats.size() >= maxShapes) {
+            shape = OTHER;
+        }
+        if (shapesBySql.size() < maxShapes * 2) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private static <T> List<T> newestFirst(AtomicReferenceArray<T> ring, long count) {
+        int size = (int) Math.min(count, ring.length());
+        List<T> entries = new ArrayList<>(size);
+        for (long i = count - 1; i >= count - size; i--) {
+            entries.add(ring.get((int) (i % ring.length())));
+        }
+        entries.removeIf(Objects::isNull);
+        return entries;
+    }
+
+    private static final class ShapeStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        ShapeSummary summary(String shape) {
+            long executions = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new ShapeSummary(shape, executions, totalMs,
+                    executions == 0 ? 0 : totalMs / executions, maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * @param shape      normalized statement
+     * @param executions number of executions
+     * @param totalMs    total execution time
+     * @param meanMs     mean execution time
+     * @param maxMs      slowest execution
+     */
+    public record ShapeSummary(String shape, long executions, double totalMs, double meanMs, double maxMs) {}
+
+    /**
+     * @param at            completion time
+     * @param durationMs    execution time
+     * @param shape         normalized statement
+     * @param correlationId request that issued it, if any
+     */
+    public record SlowStatement(Instant at, double durationMs, String shape, String correlationId) {}
+
+    /**
+     * @param at            completion time
+     * @param method        HTTP method
+     * @param path          request path
+     * @param statements    statements executed by the request
+     * @param repeatedShape shape executed most often in a row
+     * @param repeats       length of that run
+     * @param correlationId request correlation id
+     */
+    public record SuspectedNPlusOne(Instant at, String method, String path, int statements,
+                                    String repeatedShape, int repeats, String correlationId) {}
+}
@@ -0,0 +1,28 @@
+package com.ing.productmng_tool.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL text to its shape: literals and bind markers become {@code ?},
+ * IN lists collapse and whitespace is normalized.
+ *
+ * <p>Hibernate already binds parameters, so shapes never contain values; replacing
+ * literals also redacts anything written inline by native queries.</p>
+ */
+final class StatementShapes {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private StatementShapes() {
+    }
+
+    static String of(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
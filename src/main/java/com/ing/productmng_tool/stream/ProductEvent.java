@@ -0,0 +1,55 @@
+package com.ing.productmng_tool.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+
+/**
+ * A committed product change, as sent in the {@code data} field of a stream event.
+ *
+ * @param type      kind of change, also the SSE event name
+ * @param productId product identifier
+ * @param version   committed optimistic locking version, {@code -1} for a delete
+ * @param product   product after the change, absent for a delete
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductEvent(Type type, long productId, long version, ProductResponse product) {
+
+    /**
+     * @param product product as committed
+     * @param version committed version; 0 is a create, anything newer a price change
+     * @return the event for a created or repriced product
+     */
+    public static ProductEvent changed(ProductResponse product, long version) {
+        return new ProductEvent(version == 0L ? Type.CREATED : Type.PRICE_CHANGED, product.id(), version, product);
+    }
+
+    /**
+     * @param productId deleted product
+     * @return the event for a delete
+     */
+    public static ProductEvent deleted(long productId) {
+        return new ProductEvent(Type.DELETED, productId, -1L, null);
+    }
+
+    /**
+     * Kinds of product changes.
+     */
+    public enum Type {
+        CREATED("created"),
+        PRICE_CHANGED("price-changed"),
+        DELETED("deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * @return name of the SSE event
+         */
+        public String eventName() {
+            return eventName;
+        }
+    }
+}
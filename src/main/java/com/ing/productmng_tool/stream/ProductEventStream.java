@@ -0,0 +1,476 @@
+package com.ing.productmng_tool.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed product changes out to Server-Sent Events subscribers.
+ *
+ * <p>Events are serialized once and appended to a ring of the last
+ * {@code replaySize} events. A subscriber holds no queue of its own, only the
+ * sequence of the last event written to it; whenever it is behind, one of
+ * {@code dispatchThreads} threads writes the missing events from the ring. Idle
+ * subscribers therefore cost an open connection and a few fields, not a thread,
+ * and a burst costs the same memory however many subscribers there are.</p>
+ *
+ * <p>A subscriber that falls so far behind that the ring has overwritten its next
+ * event is dropped. It can reconnect with {@code Last-Event-ID}: ids still in the
+ * ring are resumed from the next event, anything older, or an id issued before a
+ * restart, gets a {@value #RESET} event telling the client to reload the products
+ * before following the live stream.</p>
+ *
+ * <p>Subscribers that received nothing for {@code heartbeatInterval} get a comment
+ * line, which keeps proxies from closing the connection and detects clients that
+ * went away.</p>
+ *
+ * <p>Writes block while a client does not read. A subscriber whose write has not
+ * finished after {@code writeTimeout} is dropped, and the dispatcher gets an extra
+ * thread until that write returns, so stalled clients never hold up the others.</p>
+ */
+public class ProductEventStream implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductEventStream.class);
+
+    /**
+     * Name of the event sent when a requested resume point is no longer available.
+     */
+    public static final String RESET = "reset";
+
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE = 0L;
+    private static final long STALLED = Long.MIN_VALUE;
+    private static final MediaType TEXT = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Entry[] ring;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Prefix of every event id, so ids issued by a previous run or another
+     * instance are recognized as not resumable.
+     */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 32);
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter stalled;
+    private final Counter replayed;
+    private final Counter reset;
+
+    /**
+     * Guards {@link #ring}, {@link #lastSequence} and the scheduling state of subscribers.
+     */
+    private final Object lock = new Object();
+    private long lastSequence;
+
+    /**
+     * @param objectMapper      serializes event payloads
+     * @param replaySize        events kept for resuming and catching up
+     * @param dispatchThreads   threads writing to subscribers
+     * @param heartbeatInterval idle time before a comment line is sent
+     * @param writeTimeout      time a write may block before the subscriber is dropped
+     * @param timeout           lifetime of a subscription
+     * @param meterRegistry     registry for the stream metrics
+     */
+    public ProductEventStream(ObjectMapper objectMapper,
+                              int replaySize,
+                              int dispatchThreads,
+                              Duration heartbeatInterval,
+                              Duration writeTimeout,
+                              Duration timeout,
+                              MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[Math.max(1, replaySize)];
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+
+        AtomicInteger threads = new AtomicInteger();
+        int poolSize = Math.max(1, dispatchThreads);
+        this.dispatcher = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "product-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("product.stream.subscribers", subscribers, Set::size)
+                .description("Open product change streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("product.stream.events")
+                .description("Product change events published to the stream")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("product.stream.dropped")
+                .description("Subscribers dropped for falling behind the replay buffer")
+                .register(meterRegistry);
+        this.stalled = Counter.builder("product.stream.stalled")
+                .description("Subscribers dropped because a write did not finish within the write timeout")
+                .register(meterRegistry);
+        this.replayed = resumes(meterRegistry, "replayed");
+        this.reset = resumes(meterRegistry, "reset");
+    }
+
+    /**
+     * Starts the heartbeats and the detection of stalled writes.
+     */
+    public void start() {
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+        long check = Math.max(TimeUnit.MILLISECONDS.toNanos(50), writeTimeoutNanos / 2);
+        heartbeat.scheduleWithFixedDelay(this::detectStalledWrites, check, check, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publishes a committed change to every subscriber.
+     *
+     * @param event change to publish
+     */
+    public void publish(ProductEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            log.warn("Product event could not be serialized productId={}", event.productId(), ex);
+            return;
+        }
+
+        List<Subscriber> wake = new ArrayList<>();
+        synchronized (lock) {
+            long sequence = ++lastSequence;
+            ring[slot(sequence)] = new Entry(sequence, event.type().eventName(), data);
+            for (Subscriber subscriber : subscribers) {
+                if (sequence - subscriber.cursor > ring.length) {
+                    drop(subscriber);
+                } else if (!subscriber.scheduled) {
+                    subscriber.scheduled = true;
+                    wake.add(subscriber);
+                }
+            }
+        }
+        published.increment();
+        wake.forEach(this::dispatch);
+    }
+
+    /**
+     * Opens a subscription.
+     *
+     * @param lastEventId id of the last event the client received, or {@code null} for live events only
+     * @return emitter completing when the subscription ends
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+
+        boolean resume;
+        synchronized (lock) {
+            long resumeAfter = resumePoint(lastEventId);
+            resume = resumeAfter >= 0;
+            subscriber.cursor = resume ? resumeAfter : lastSequence;
+            // Held back from the dispatchers until the response is committed below.
+            subscriber.scheduled = true;
+            subscribers.add(subscriber);
+        }
+        if (lastEventId != null) {
+            (resume ? replayed : reset).increment();
+        }
+
+        try {
+            // Sent from the request thread, which commits the response before the handler
+            // returns; a dispatcher committing it instead would race with filters still
+            // adding headers on the way out.
+            emitter.send(SseEmitter.event().comment("connected"));
+            if (lastEventId != null && !resume) {
+                emitter.send(SseEmitter.event().name(RESET).data("{}", TEXT));
+            }
+        } catch (IOException ex) {
+            remove(subscriber);
+            emitter.completeWithError(ex);
+            return emitter;
+        }
+
+        boolean behind;
+        synchronized (lock) {
+            behind = subscriber.cursor < lastSequence;
+            subscriber.scheduled = behind;
+        }
+        if (behind) {
+            dispatch(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * @return number of open subscriptions
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Ends every subscription and stops dispatching.
+     */
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.closed = true;
+            complete(subscriber.emitter);
+        }
+        subscribers.clear();
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the sequence to resume after, or {@code -1} if the id cannot be resumed
+     */
+    private long resumePoint(String lastEventId) {
+        if (lastEventId == null) {
+            return -1L;
+        }
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return -1L;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+        boolean retained = sequence <= lastSequence && lastSequence - sequence <= ring.length;
+        return sequence >= 0 && retained ? sequence : -1L;
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        List<Subscriber> wake = new ArrayList<>();
+        synchronized (lock) {
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.scheduled && now - subscriber.lastWriteNanos >= heartbeatNanos) {
+                    subscriber.heartbeatDue = true;
+                    subscriber.scheduled = true;
+                    wake.add(subscriber);
+                }
+            }
+        }
+        wake.forEach(this::dispatch);
+    }
+
+    /**
+     * Drops subscribers stuck in a write and lends the dispatcher a thread for each,
+     * returned once the write gives up.
+     */
+    private void detectStalledWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted.get();
+            if (started != IDLE && started != STALLED && now - started > writeTimeoutNanos
+                    && subscriber.writeStarted.compareAndSet(started, STALLED)) {
+                remove(subscriber);
+                stalled.increment();
+                log.warn("Dropped product event subscriber whose write blocked for more than {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+                resizeDispatcher(1);
+            }
+        }
+    }
+
+    private void resizeDispatcher(int delta) {
+        synchronized (dispatcher) {
+            if (delta > 0) {
+                dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+                dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+            } else {
+                dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+                dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    /**
+     * @param timeoutMillis lifetime of the subscription
+     * @return the emitter of a new subscription
+     */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void dispatch(Subscriber subscriber) {
+        try {
+            dispatcher.execute(() -> drain(subscriber));
+        } catch (RuntimeException ex) {
+            // Shutting down; close() completes the emitter.
+            log.debug("Product event dispatch rejected", ex);
+        }
+    }
+
+    /**
+     * Writes everything the subscriber is missing. Runs on at most one dispatcher
+     * thread per subscriber at a time, guarded by {@link Subscriber#scheduled}.
+     */
+    private void drain(Subscriber subscriber) {
+        List<Entry> batch = new ArrayList<>();
+        while (true) {
+            boolean sendHeartbeat;
+            synchronized (lock) {
+                if (!subscriber.closed && subscriber.cursor < lastSequence - ring.length) {
+                    drop(subscriber);
+                }
+                if (subscriber.closed) {
+                    subscriber.scheduled = false;
+                    break;
+                }
+                for (long sequence = subscriber.cursor + 1; sequence <= lastSequence && batch.size() < MAX_BATCH; sequence++) {
+                    batch.add(ring[slot(sequence)]);
+                }
+                sendHeartbeat = subscriber.heartbeatDue && batch.isEmpty();
+                subscriber.heartbeatDue = false;
+                if (batch.isEmpty() && !sendHeartbeat) {
+                    subscriber.scheduled = false;
+                    return;
+                }
+            }
+
+            // Odd, so it never equals IDLE or STALLED.
+            subscriber.writeStarted.set(System.nanoTime() | 1L);
+            try {
+                SseEmitter emitter = subscriber.emitter;
+                if (sendHeartbeat) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+                for (Entry entry : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + entry.sequence())
+                            .name(entry.name())
+                            .data(entry.data(), TEXT));
+                    subscriber.cursor = entry.sequence();
+                }
+                subscriber.lastWriteNanos = System.nanoTime();
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the emitter reports it through onError/onCompletion.
+                log.debug("Product event stream write failed: {}", ex.toString());
+                remove(subscriber);
+                synchronized (lock) {
+                    subscriber.scheduled = false;
+                }
+                return;
+            } finally {
+                if (subscriber.writeStarted.getAndSet(IDLE) == STALLED) {
+                    resizeDispatcher(-1);
+                }
+            }
+            batch.clear();
+        }
+        complete(subscriber.emitter);
+    }
+
+    /**
+     * Must be called holding {@link #lock}.
+     */
+    private void drop(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        dropped.increment();
+        log.warn("Dropped product event subscriber behind by more than {} events", ring.length);
+        if (!subscriber.scheduled) {
+            // Completed by a dispatcher, never by the publishing thread.
+            subscriber.scheduled = true;
+            dispatch(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private static void complete(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException ex) {
+            log.debug("Completing a product event stream failed: {}", ex.toString());
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private static Counter resumes(MeterRegistry registry, String result) {
+        return Counter.builder("product.stream.resumes")
+                .description("Subscriptions resuming from a Last-Event-ID")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Entry(long sequence, String name, String data) {}
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+
+        /**
+         * Sequence of the last event written.
+         */
+        volatile long cursor;
+        volatile boolean closed;
+        volatile long lastWriteNanos = System.nanoTime();
+
+        /**
+         * Start of the write in progress, {@link #IDLE} when not writing, or
+         * {@link #STALLED} while a write that blocked too long has a thread on loan.
+         */
+        final AtomicLong writeStarted = new AtomicLong(IDLE);
+
+        // Guarded by the stream lock.
+        boolean scheduled;
+        boolean heartbeatDue;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
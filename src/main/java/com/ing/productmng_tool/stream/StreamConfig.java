@@ -0,0 +1,27 @@
+package com.ing.productmng_tool.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the Server-Sent Events stream of product changes.
+ *
+ * <p>Active unless {@code product.stream.enabled=false}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.stream", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(StreamProperties.class)
+public class StreamConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProductEventStream productEventStream(ObjectMapper objectMapper,
+                                                 StreamProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        return new ProductEventStream(objectMapper, properties.replaySize(), properties.dispatchThreads(),
+                properties.heartbeatInterval(), properties.writeTimeout(), properties.timeout(), meterRegistry);
+    }
+}
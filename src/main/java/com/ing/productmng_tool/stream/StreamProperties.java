@@ -0,0 +1,30 @@
+package com.ing.productmng_tool.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the product change stream.
+ *
+ * <p>Bound from the {@code product.stream} prefix.</p>
+ *
+ * @param enabled           whether changes are streamed to subscribers
+ * @param replaySize        most recent events kept for resuming subscribers
+ * @param maxPending        events a subscriber may fall behind before it is dropped
+ * @param dispatchThreads   threads writing events to subscribers
+ * @param heartbeatInterval idle time after which a subscriber receives a comment line
+ * @param writeTimeout      time a write may block before the subscriber is dropped
+ * @param timeout           lifetime of a subscription; clients reconnect and resume
+ */
+@ConfigurationProperties(prefix = "product.stream")
+public record StreamProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int replaySize,
+        @DefaultValue("1000") int maxPending,
+        @DefaultValue("4") int dispatchThreads,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("5s") Duration writeTimeout,
+        @DefaultValue("30m") Duration timeout
+) {}
@@ -0,0 +1,57 @@
+package com.ing.productmng_tool.sync;
+
+import com.ing.productmng_tool.exception.InvalidChangeCursorException;
+
+/**
+ * Position in the change feed: the writing transaction and the change sequence
+ * value of the last change a client has seen, printed as {@code <xid>-<seq>}.
+ *
+ * <p>Both parts are unsigned 64-bit values, compared transaction first.</p>
+ *
+ * @param xid transaction id ({@code xid8}) of the change
+ * @param seq change sequence value within the feed
+ */
+public record ChangeCursor(long xid, long seq) implements Comparable<ChangeCursor> {
+
+    /**
+     * Position before every change.
+     */
+    public static final ChangeCursor START = new ChangeCursor(0L, 0L);
+
+    /**
+     * @param text cursor as returned by the feed
+     * @return the cursor
+     * @throws InvalidChangeCursorException if the text is not a cursor
+     */
+    public static ChangeCursor parse(String text) {
+        int dash = text.indexOf('-');
+        if (dash <= 0 || dash == text.length() - 1) {
+            throw new InvalidChangeCursorException(text);
+        }
+        try {
+            return new ChangeCursor(
+                    Long.parseUnsignedLong(text, 0, dash, 10),
+                    Long.parseUnsignedLong(text, dash + 1, text.length(), 10));
+        } catch (NumberFormatException ex) {
+            throw new InvalidChangeCursorException(text);
+        }
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int byXid = Long.compareUnsigned(xid, other.xid);
+        return byXid != 0 ? byXid : Long.compareUnsigned(seq, other.seq);
+    }
+
+    /**
+     * @return the transaction id as PostgreSQL prints it
+     */
+    String xidText() {
+        return Long.toUnsignedString(xid);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toUnsignedString(xid) + "-" + Long.toUnsignedString(seq);
+    }
+}
@@ -0,0 +1,232 @@
+package com.ing.productmng_tool.sync;
+
+import com.ing.productmng_tool.deadline.Deadline;
+import com.ing.productmng_tool.exception.ChangeCursorExpiredException;
+import com.ing.productmng_tool.model.entity.dto.ProductChangesResponse;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.stream.ProductEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delta-sync feed of product changes, read page by page from a {@link ChangeCursor}.
+ *
+ * <p>Triggers stamp every inserted or updated product, and the tombstone every
+ * delete leaves, with the writing transaction id and a value of
+ * {@code product_change_seq}. Sequence values are handed out in write order, not
+ * commit order, so a page only contains changes of transactions older than the
+ * oldest one still running, in (transaction, sequence) order. A transaction that
+ * commits late can therefore never land behind a cursor already handed out; a
+ * long-running transaction only holds newer changes back until it ends.</p>
+ *
+ * <p>Tombstones are purged after {@code tombstoneRetention}. The newest purged
+ * position is kept, and a cursor before it is rejected, since deletes may be
+ * missing after it.</p>
+ *
+ * <p>Pages are read in a read-only repeatable-read transaction, so with a read
+ * replica enabled they are served by the replica.</p>
+ */
+public class ProductChangeFeed implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    private static final String BOUNDS_SQL = """
+            SELECT pg_snapshot_xmin(pg_current_snapshot())::text, change_xid::text, change_seq
+            FROM product_change_horizon
+            """;
+
+    private static final String PRODUCTS_SQL = """
+            SELECT change_xid::text AS xid, change_seq, id, version, name, description, price, created_at, updated_at
+            FROM products
+            WHERE (change_xid, change_seq) > (?::xid8, ?) AND change_xid < ?::xid8
+            ORDER BY change_xid, change_seq
+            LIMIT ?
+            """;
+
+    private static final String TOMBSTONES_SQL = """
+            SELECT change_xid::text AS xid, change_seq, product_id
+            FROM product_tombstones
+            WHERE (change_xid, change_seq) > (?::xid8, ?) AND change_xid < ?::xid8
+            ORDER BY change_xid, change_seq
+            LIMIT ?
+            """;
+
+    private static final String PURGE_SQL = """
+            WITH purged AS (
+                DELETE FROM product_tombstones WHERE deleted_at < now() - make_interval(secs => ?)
+                RETURNING change_xid, change_seq
+            ), newest AS (
+                SELECT change_xid, change_seq FROM purged ORDER BY change_xid DESC, change_seq DESC LIMIT 1
+            ), moved AS (
+                UPDATE product_change_horizon h SET change_xid = n.change_xid, change_seq = n.change_seq
+                FROM newest n WHERE (n.change_xid, n.change_seq) > (h.change_xid, h.change_seq)
+                RETURNING 1
+            )
+            SELECT count(*) FROM purged
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final long retentionSeconds;
+    private final long purgeIntervalMillis;
+    private final ScheduledExecutorService purger;
+
+    private final Counter changesServed;
+    private final Counter expiredCursors;
+    private final Counter purgedTombstones;
+
+    /**
+     * @param dataSource         database holding the products and tombstones
+     * @param transactionManager transaction manager for the page reads
+     * @param tombstoneRetention how long tombstones are kept
+     * @param purgeInterval      time between tombstone purges
+     * @param meterRegistry      registry for the feed metrics
+     */
+    public ProductChangeFeed(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             Duration tombstoneRetention,
+                             Duration purgeInterval,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.retentionSeconds = tombstoneRetention.toSeconds();
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-sync-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.changesServed = Counter.builder("product.sync.changes")
+                .description("Changes returned by delta-sync pages")
+                .register(meterRegistry);
+        this.expiredCursors = Counter.builder("product.sync.expired")
+                .description("Delta syncs rejected because the cursor predates the retained tombstones")
+                .register(meterRegistry);
+        this.purgedTombstones = Counter.builder("product.sync.tombstones.purged")
+                .description("Tombstones removed after the retention window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Purges expired tombstones now and then every {@code purgeInterval}.
+     */
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purgeQuietly, 0L, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the changes after a cursor.
+     *
+     * @param since cursor of the last change seen, {@link ChangeCursor#START} for a full sync
+     * @param limit largest number of changes to return
+     * @return the page and the cursor to continue from
+     * @throws ChangeCursorExpiredException if tombstones after {@code since} were purged
+     */
+    public ProductChangesResponse page(ChangeCursor since, int limit) {
+        Deadline.check();
+        ProductChangesResponse page = snapshotTransaction.execute(status -> read(since, limit));
+        changesServed.increment(page.changes().size());
+        return page;
+    }
+
+    /**
+     * Removes tombstones older than the retention window.
+     *
+     * @return number of tombstones removed
+     */
+    public long purge() {
+        Long purged = jdbcTemplate.queryForObject(PURGE_SQL, Long.class, retentionSeconds);
+        long count = purged != null ? purged : 0L;
+        if (count > 0) {
+            purgedTombstones.increment(count);
+            log.info("Purged expired product tombstones count={}", count);
+        }
+        return count;
+    }
+
+    /**
+     * Stops the tombstone purges.
+     */
+    @Override
+    public void close() {
+        purger.shutdownNow();
+    }
+
+    private ProductChangesResponse read(ChangeCursor since, int limit) {
+        Bounds bounds = jdbcTemplate.queryForObject(BOUNDS_SQL, (rs, rowNum) -> new Bounds(
+                Long.parseUnsignedLong(rs.getString(1)),
+                new ChangeCursor(Long.parseUnsignedLong(rs.getString(2)), rs.getLong(3))));
+        if (since.compareTo(bounds.purged()) < 0 && !since.equals(ChangeCursor.START)) {
+            expiredCursors.increment();
+            throw new ChangeCursorExpiredException(since.toString());
+        }
+
+        // Both tables are read up to one change past the page, then merged.
+        String stable = Long.toUnsignedString(bounds.stableXid());
+        Object[] args = {since.xidText(), since.seq(), stable, limit + 1};
+        List<Change> products = jdbcTemplate.query(PRODUCTS_SQL, (rs, rowNum) -> new Change(cursor(rs),
+                ProductEvent.changed(new ProductResponse(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getBigDecimal("price"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("updated_at").toLocalDateTime()), rs.getLong("version"))), args);
+        List<Change> tombstones = jdbcTemplate.query(TOMBSTONES_SQL, (rs, rowNum) -> new Change(cursor(rs),
+                ProductEvent.deleted(rs.getLong("product_id"))), args);
+
+        List<ProductEvent> changes = new ArrayList<>(Math.min(limit, products.size() + tombstones.size()));
+        ChangeCursor last = since;
+        int p = 0;
+        int t = 0;
+        while (changes.size() < limit && (p < products.size() || t < tombstones.size())) {
+            Change next = t == tombstones.size()
+                    || p < products.size() && products.get(p).cursor().compareTo(tombstones.get(t).cursor()) < 0
+                    ? products.get(p++)
+                    : tombstones.get(t++);
+            changes.add(next.event());
+            last = next.cursor();
+        }
+        boolean hasMore = p < products.size() || t < tombstones.size();
+        return new ProductChangesResponse(changes, last.toString(), hasMore);
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException ex) {
+            log.warn("Purging product tombstones failed", ex);
+        }
+    }
+
+    private static ChangeCursor cursor(ResultSet rs) throws SQLException {
+        return new ChangeCursor(Long.parseUnsignedLong(rs.getString(1)), rs.getLong(2));
+    }
+
+    /**
+     * @param stableXid oldest transaction still running when the page was read
+     * @param purged    newest position of a purged tombstone
+     */
+    private record Bounds(long stableXid, ChangeCursor purged) {}
+
+    private record Change(ChangeCursor cursor, ProductEvent event) {}
+}
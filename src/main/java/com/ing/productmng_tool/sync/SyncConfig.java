@@ -0,0 +1,32 @@
+package com.ing.productmng_tool.sync;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the delta-sync change feed.
+ *
+ * <p>Active unless {@code product.sync.enabled=false}. The feed relies on the change
+ * stamps and tombstones maintained by database triggers, so it is switched off with
+ * the memory storage engine.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.sync", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SyncProperties.class)
+public class SyncConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProductChangeFeed productChangeFeed(DataSource dataSource,
+                                               PlatformTransactionManager transactionManager,
+                                               SyncProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ProductChangeFeed(dataSource, transactionManager,
+                properties.tombstoneRetention(), properties.purgeInterval(), meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ing.productmng_tool.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the delta-sync change feed.
+ *
+ * <p>Bound from the {@code product.sync} prefix.</p>
+ *
+ * @param enabled            whether {@code GET /api/products/changes} is served
+ * @param pageSize           changes per page when the client does not ask for a size
+ * @param maxPageSize        largest page a client may ask for
+ * @param tombstoneRetention how long deletes stay in the feed; older cursors must resync
+ * @param purgeInterval      time between purges of expired tombstones
+ */
+@ConfigurationProperties(prefix = "product.sync")
+public record SyncProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500") int pageSize,
+        @DefaultValue("5000") int maxPageSize,
+        @DefaultValue("30d") Duration tombstoneRetention,
+        @DefaultValue("1h") Duration purgeInterval
+) {}
@@ -0,0 +1,215 @@
+package com.ing.productmng_tool.timing;
+
+/**
+ * Phase timestamps and database totals of the current request.
+ *
+ * <p>One instance per request, bound to the request thread by
+ * {@link ServerTimingFilter}. Every recording method is a no-op outside a
+ * timed request, so instrumented code does not need to check.</p>
+ *
+ * <p>Phases, in request order:</p>
+ * <ul>
+ *     <li>{@code auth} – Spring Security, including BCrypt for HTTP Basic</li>
+ *     <li>{@code wait} – rate limiting, load shedding and bulkhead queues</li>
+ *     <li>{@code app} – controller, service and mapping, excluding database time</li>
+ *     <li>{@code db} – JDBC statement execution; {@code pool} – connection acquisition</li>
+ *     <li>{@code ser} – JSON serialization of the response body</li>
+ * </ul>
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start;
+    private long authEnd;
+    private long handlerStart;
+    private long bodyStart;
+    private long end;
+    private long dbNanos;
+    private int dbStatements;
+    private long poolNanos;
+    private String runShape;
+    private int runLength;
+    private String topShape;
+    private int topRepeats;
+
+    private RequestTiming(long start) {
+        this.start = start;
+    }
+
+    /**
+     * @return the timing of the current request, or {@code null} outside a timed request
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Marks the end of authentication and authorization.
+     */
+    public static void authenticated() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.authEnd == 0) {
+            timing.authEnd = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the start of the handler.
+     */
+    public static void handlerStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.handlerStart == 0) {
+            timing.handlerStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the start of response body serialization.
+     */
+    public static void bodyStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.bodyStart == 0) {
+            timing.bodyStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Adds the duration of one executed statement.
+     *
+     * <p>Also tracks the longest run of consecutive statements with the same shape,
+     * the typical signature of an N+1 access pattern.</p>
+     *
+     * @param nanos execution time
+     * @param shape normalized statement, or {@code null} if unknown
+     */
+    public static void statementExecuted(long nanos, String shape) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dbNanos += nanos;
+            timing.dbStatements++;
+            timing.trackRun(shape);
+        }
+    }
+
+    /**
+     * Adds time spent waiting for a pooled connection.
+     *
+     * @param nanos acquisition time
+     */
+    public static void connectionAcquired(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.poolNanos += nanos;
+        }
+    }
+
+    static RequestTiming start() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    void finish() {
+        end = System.nanoTime();
+        CURRENT.remove();
+    }
+
+    /**
+     * @return total request time so far, or until {@code finish}
+     */
+    long totalNanos() {
+        return (end != 0 ? end : System.nanoTime()) - start;
+    }
+
+    /**
+     * @return number of statements executed
+     */
+    int dbStatements() {
+        return dbStatements;
+    }
+
+    /**
+     * @return shape of the longest run of identical statements, or {@code null}
+     */
+    String topShape() {
+        return topShape;
+    }
+
+    /**
+     * @return length of the longest run of identical statements
+     */
+    int topRepeats() {
+        return topRepeats;
+    }
+
+    /**
+     * Formats the phases known when the response headers are written.
+     *
+     * @return {@code Server-Timing} header value
+     */
+    String serverTimingHeader() {
+        long now = System.nanoTime();
+        long authEndOrNow = authEnd != 0 ? authEnd : now;
+        long handlerStartOrAuth = handlerStart != 0 ? handlerStart : authEndOrNow;
+        long handlerEnd = bodyStart != 0 ? bodyStart : now;
+
+        StringBuilder header = new StringBuilder(128);
+        append(header, "auth", authEndOrNow - start);
+        append(header, "wait", handlerStartOrAuth - authEndOrNow);
+        append(header, "app", handler(handlerStartOrAuth, handlerEnd) - dbNanos - poolNanos);
+        append(header, "pool", poolNanos);
+        append(header, "db", dbNanos);
+        header.append(";desc=\"").append(dbStatements).append(" stmt\"");
+        return header.toString();
+    }
+
+    /**
+     * Formats all phases as key=value pairs in milliseconds for the slow request log.
+     *
+     * @return log fragment
+     */
+    String logFields() {
+        long authEndOrStart = authEnd != 0 ? authEnd : start;
+        long handlerStartOrAuth = handlerStart != 0 ? handlerStart : authEndOrStart;
+        long handlerEnd = bodyStart != 0 ? bodyStart : end;
+        long serialization = bodyStart != 0 ? end - bodyStart : 0;
+
+        return "auth=" + millis(authEndOrStart - start)
+                + " wait=" + millis(handlerStartOrAuth - authEndOrStart)
+                + " app=" + millis(handler(handlerStartOrAuth, handlerEnd) - dbNanos - poolNanos)
+                + " pool=" + millis(poolNanos)
+                + " db=" + millis(dbNanos)
+                + " statements=" + dbStatements
+                + " ser=" + millis(serialization);
+    }
+
+    private void trackRun(String shape) {
+        if (shape == null) {
+            return;
+        }
+        runLength = shape.equals(runShape) ? runLength + 1 : 1;
+        runShape = shape;
+        if (runLength > topRepeats) {
+            topRepeats = runLength;
+            topShape = shape;
+        }
+    }
+
+    private static long handler(long from, long to) {
+        return Math.max(0L, to - from);
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(millis(nanos));
+    }
+
+    private static String millis(long nanos) {
+        long micros = Math.max(0L, nanos) / 1_000;
+        long fraction = micros % 1_000;
+        return (micros / 1_000) + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+}
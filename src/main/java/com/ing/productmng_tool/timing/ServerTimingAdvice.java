@@ -0,0 +1,46 @@
+package com.ing.productmng_tool.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ends the handler phase and writes the {@code Server-Timing} header right before
+ * the response body is serialized, while headers can still be added.
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean header;
+
+    public ServerTimingAdvice(TimingProperties properties) {
+        this.header = properties.enabled() && properties.header();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            RequestTiming.bodyStarted();
+            if (header) {
+                response.getHeaders().set(ServerTimingFilter.HEADER, timing.serverTimingHeader());
+            }
+        }
+        return body;
+    }
+}
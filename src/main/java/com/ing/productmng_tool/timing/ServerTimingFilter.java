@@ -0,0 +1,85 @@
+package com.ing.productmng_tool.timing;
+
+import com.ing.productmng_tool.sql.SqlStatementMonitor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Times the phases of each API request.
+ *
+ * <p>Phases are reported in a {@code Server-Timing} header written just before the
+ * response body, and requests slower than {@code product.timing.slow-threshold} are
+ * logged with every phase, including serialization. The statement count of each
+ * request is passed to the {@link SqlStatementMonitor} for N+1 detection, which keeps
+ * running when {@code product.timing.enabled} is off. The correlation id is already in
+ * the MDC when this filter runs. A fast request costs one small allocation and a
+ * handful of {@link System#nanoTime()} calls.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@EnableConfigurationProperties(TimingProperties.class)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    /**
+     * Response header carrying the phase durations.
+     */
+    public static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean header;
+    private final long slowThresholdNanos;
+    private final boolean enabled;
+    private final SqlStatementMonitor statementMonitor;
+
+    public ServerTimingFilter(TimingProperties properties, ObjectProvider<SqlStatementMonitor> statementMonitor) {
+        this.statementMonitor = statementMonitor.getIfAvailable();
+        this.enabled = properties.enabled();
+        this.header = enabled && properties.header();
+        this.slowThresholdNanos = enabled ? properties.slowThreshold().toNanos() : Long.MAX_VALUE;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return (!enabled && statementMonitor == null) || !request.getRequestURI().startsWith("/api/", request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTiming timing = RequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (header && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timing.serverTimingHeader());
+            }
+            timing.finish();
+            if (statementMonitor != null) {
+                statementMonitor.requestCompleted(request.getMethod(), request.getRequestURI(),
+                        timing.dbStatements(), timing.topShape(), timing.topRepeats());
+            }
+            if (timing.totalNanos() > slowThresholdNanos) {
+                log.warn("Slow request method={} path={} status={} total={}ms {}",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        timing.totalNanos() / 1_000_000,
+                        timing.logFields());
+            }
+        }
+    }
+}
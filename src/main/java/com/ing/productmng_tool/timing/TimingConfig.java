@@ -0,0 +1,30 @@
+package com.ing.productmng_tool.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Marks the start of the handler phase after every other interceptor, so
+ * bulkhead queueing is reported as {@code wait}.
+ */
+@Configuration
+public class TimingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        RequestTiming.handlerStarted();
+                        return true;
+                    }
+                })
+                .addPathPatterns("/api/**")
+                .order(Ordered.LOWEST_PRECEDENCE);
+    }
+}
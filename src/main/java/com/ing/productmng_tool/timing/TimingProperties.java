@@ -0,0 +1,22 @@
+package com.ing.productmng_tool.timing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of per-request phase timing.
+ *
+ * <p>Bound from the {@code product.timing} prefix.</p>
+ *
+ * @param enabled       whether API requests are timed
+ * @param header        whether the {@code Server-Timing} header is sent to clients
+ * @param slowThreshold total time above which a request is logged with its phases
+ */
+@ConfigurationProperties(prefix = "product.timing")
+public record TimingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean header,
+        @DefaultValue("500ms") Duration slowThreshold
+) {}
@@ -0,0 +1,62 @@
+package com.ing.productmng_tool.timing;
+
+import com.ing.productmng_tool.jfr.DatabaseStatementEvent;
+import com.ing.productmng_tool.sql.SqlStatementMonitor;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds JDBC execution and connection acquisition times into {@link RequestTiming}
+ * and the {@link SqlStatementMonitor}, and emits a {@link DatabaseStatementEvent}
+ * per statement while JFR records it.
+ *
+ * <p>Registered through {@code hibernate.session.events.auto}; Hibernate creates
+ * one instance per session, so the start timestamps need no synchronization.</p>
+ */
+public class TimingSessionEventListener implements SessionEventListener {
+
+    private long statementStart;
+    private long acquisitionStart;
+    private DatabaseStatementEvent statementEvent;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTiming.connectionAcquired(System.nanoTime() - acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementEvent = DatabaseStatementEvent.start(false);
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementEvent = DatabaseStatementEvent.start(true);
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnd();
+    }
+
+    private void statementEnd() {
+        long nanos = System.nanoTime() - statementStart;
+        SqlStatementMonitor monitor = SqlStatementMonitor.installed();
+        RequestTiming.statementExecuted(nanos, monitor != null ? monitor.statementExecuted(nanos) : null);
+        if (statementEvent != null) {
+            statementEvent.finish();
+            statementEvent = null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ing.productmng_tool.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts point reads per product and periodically adds the counts to the
+ * {@code product_access_frequency} table, from which a starting instance picks
+ * the products to preload.
+ *
+ * <p>Counting is off until {@link #startRecording()}, so warm-up reads are not
+ * counted. Between two flushes at most {@code trackedProducts} distinct ids are
+ * counted; reads of further ids are ignored until the next flush.</p>
+ */
+public class ProductAccessTracker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductAccessTracker.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO product_access_frequency (product_id, hits, last_accessed_at) VALUES (?, ?, ?)
+            ON CONFLICT (product_id) DO UPDATE
+            SET hits = product_access_frequency.hits + EXCLUDED.hits, last_accessed_at = EXCLUDED.last_accessed_at
+            """;
+
+    private static final String HOTTEST_SQL = """
+            SELECT f.product_id FROM product_access_frequency f
+            JOIN products p ON p.id = f.product_id
+            WHERE f.last_accessed_at > ?
+            ORDER BY f.hits DESC
+            LIMIT ?
+            """;
+
+    private static final String NEWEST_SQL = "SELECT id FROM products ORDER BY id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int trackedProducts;
+    private final long recentWindowMillis;
+    private final ScheduledExecutorService flusher;
+
+    private volatile Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    /**
+     * Creates the tracker and starts the periodic flush.
+     *
+     * @param jdbcTemplate JDBC access to the frequency table
+     * @param properties   warm-up configuration
+     */
+    public ProductAccessTracker(JdbcTemplate jdbcTemplate, WarmupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackedProducts = properties.trackedProducts();
+        this.recentWindowMillis = properties.recentWindow().toMillis();
+
+        long interval = properties.flushInterval().toMillis();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-access-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts one point read.
+     *
+     * @param productId product identifier
+     */
+    public void record(long productId) {
+        if (!recording) {
+            return;
+        }
+        Map<Long, LongAdder> current = counts;
+        LongAdder hits = current.get(productId);
+        if (hits == null) {
+            if (current.size() >= trackedProducts) {
+                return;
+            }
+            hits = current.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        hits.increment();
+    }
+
+    /**
+     * Starts counting reads, called once warm-up has finished.
+     */
+    public void startRecording() {
+        recording = true;
+    }
+
+    /**
+     * Returns the products to preload: the most read ones within the recent window,
+     * or the newest products if nothing has been recorded yet.
+     *
+     * @param limit maximum number of ids
+     * @return product ids, hottest first
+     */
+    public List<Long> hottest(int limit) {
+        Timestamp since = Timestamp.from(Instant.now().minusMillis(recentWindowMillis));
+        List<Long> ids = jdbcTemplate.queryForList(HOTTEST_SQL, Long.class, since, limit);
+        return ids.isEmpty() ? jdbcTemplate.queryForList(NEWEST_SQL, Long.class, limit) : ids;
+    }
+
+    /**
+     * Adds the counts collected since the last flush to the database.
+     */
+    public void flush() {
+        Map<Long, LongAdder> collected = counts;
+        if (collected.isEmpty()) {
+            return;
+        }
+        counts = new ConcurrentHashMap<>();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(collected.size());
+        collected.forEach((id, hits) -> rows.add(new Object[]{id, hits.sum(), now}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Stops the flusher and writes the remaining counts.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        recording = false;
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Product access counts could not be flushed - counts of this interval are lost", ex);
+        }
+    }
+}
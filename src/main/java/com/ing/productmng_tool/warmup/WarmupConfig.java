@@ -0,0 +1,39 @@
+package com.ing.productmng_tool.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.controller.ProductController;
+import com.ing.productmng_tool.service.ProductService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires access-frequency tracking and the startup warm-up.
+ *
+ * <p>Active unless {@code product.warmup.enabled=false}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean(destroyMethod = "close")
+    public ProductAccessTracker productAccessTracker(JdbcTemplate jdbcTemplate, WarmupProperties properties) {
+        return new ProductAccessTracker(jdbcTemplate, properties);
+    }
+
+    @Bean
+    public WarmupRunner warmupRunner(DataSource dataSource,
+                                     ProductService productService,
+                                     ProductController productController,
+                                     ObjectMapper objectMapper,
+                                     ProductAccessTracker productAccessTracker,
+                                     WarmupProperties properties) {
+        return new WarmupRunner(dataSource, productService, productController, objectMapper,
+                productAccessTracker, properties);
+    }
+}
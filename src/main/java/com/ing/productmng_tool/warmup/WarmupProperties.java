@@ -0,0 +1,30 @@
+package com.ing.productmng_tool.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the startup warm-up and the access-frequency tracking behind it.
+ *
+ * <p>Bound from the {@code product.warmup} prefix.</p>
+ *
+ * @param enabled         whether the instance warms up before reporting ready
+ * @param budget          maximum warm-up time; the instance becomes ready when it is spent
+ * @param hotProducts     number of most accessed products preloaded
+ * @param iterations      point reads run through controller, service, mapper and JSON
+ * @param trackedProducts distinct products counted between two flushes
+ * @param flushInterval   how often access counts are written to the database
+ * @param recentWindow    only products accessed within this window count as hot
+ */
+@ConfigurationProperties(prefix = "product.warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30s") Duration budget,
+        @DefaultValue("200") int hotProducts,
+        @DefaultValue("10000") int iterations,
+        @DefaultValue("10000") int trackedProducts,
+        @DefaultValue("60s") Duration flushInterval,
+        @DefaultValue("7d") Duration recentWindow
+) {}
@@ -0,0 +1,165 @@
+package com.ing.productmng_tool.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.controller.ProductController;
+import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms the instance up before it reports ready.
+ *
+ * <p>Spring Boot switches readiness to {@code ACCEPTING_TRAFFIC} only after every
+ * {@link ApplicationRunner} has returned, so {@code /actuator/health/readiness}
+ * stays {@code OUT_OF_SERVICE} while this runs. Steps, each stopped when the
+ * budget is spent:</p>
+ * <ol>
+ *     <li>open the pool's minimum idle connections and run a statement on each</li>
+ *     <li>read the hottest products through {@link ProductService}, which fills the
+ *         database buffers and any read cache on that path</li>
+ *     <li>run point reads through {@link ProductController} and serialize them with
+ *         the application's {@link ObjectMapper} until the controller, service, mapper
+ *         and JSON code is compiled by C2</li>
+ * </ol>
+ *
+ * <p>Warm-up reads are not counted by the {@link ProductAccessTracker}; counting
+ * starts when warm-up ends.</p>
+ */
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /**
+     * Consecutive failed reads after which the read loop gives up.
+     */
+    private static final int MAX_CONSECUTIVE_FAILURES = 100;
+
+    private final DataSource dataSource;
+    private final ProductService productService;
+    private final ProductController productController;
+    private final ObjectMapper objectMapper;
+    private final ProductAccessTracker accessTracker;
+    private final WarmupProperties properties;
+
+    public WarmupRunner(DataSource dataSource,
+                        ProductService productService,
+                        ProductController productController,
+                        ObjectMapper objectMapper,
+                        ProductAccessTracker accessTracker,
+                        WarmupProperties properties) {
+        this.dataSource = dataSource;
+        this.productService = productService;
+        this.productController = productController;
+        this.objectMapper = objectMapper;
+        this.accessTracker = accessTracker;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        long deadline = started + properties.budget().toNanos();
+
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "warmup", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        try {
+            int connections = openConnections(deadline);
+            List<Long> hot = accessTracker.hottest(properties.hotProducts());
+            int preloaded = preload(hot, deadline);
+            int iterations = exercise(hot, deadline);
+
+            log.info("Warm-up finished connections={} preloaded={} iterations={} tookMs={} budgetExceeded={}",
+                    connections, preloaded, iterations, (System.nanoTime() - started) / 1_000_000,
+                    System.nanoTime() - deadline > 0);
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up aborted - reporting ready with a cold instance", ex);
+        } finally {
+            SecurityContextHolder.clearContext();
+            accessTracker.startRecording();
+        }
+    }
+
+    private int openConnections(long deadline) {
+        int target;
+        try {
+            target = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+        } catch (SQLException ex) {
+            return 0;
+        }
+
+        List<Connection> opened = new ArrayList<>(target);
+        try {
+            while (opened.size() < target && System.nanoTime() - deadline < 0) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } catch (SQLException ex) {
+            log.warn("Warm-up could not open connection {} of {}", opened.size() + 1, target, ex);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Returning a broken connection is the pool's problem, not warm-up's.
+                }
+            }
+        }
+        return opened.size();
+    }
+
+    private int preload(List<Long> ids, long deadline) {
+        int loaded = 0;
+        for (Long id : ids) {
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+            try {
+                productService.getProductById(id);
+                loaded++;
+            } catch (ProductNotFoundException ex) {
+                // Deleted since it was counted.
+            }
+        }
+        return loaded;
+    }
+
+    private int exercise(List<Long> ids, long deadline) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int iterations = 0;
+        int failures = 0;
+        while (iterations < properties.iterations() && System.nanoTime() - deadline < 0) {
+            Long id = ids.get(iterations % ids.size());
+            iterations++;
+            try {
+                objectMapper.writeValueAsBytes(productController.getProduct(id).getBody());
+                failures = 0;
+            } catch (Exception ex) {
+                if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                    log.warn("Warm-up reads keep failing - stopping after {} iterations", iterations, ex);
+                    break;
+                }
+            }
+        }
+        return iterations;
+    }
+}
@@ -0,0 +1,418 @@
+package com.ing.productmng_tool.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped log of price ticks.
+ *
+ * <p>Records have a fixed size and are written into pre-allocated segment files
+ * mapped with {@link FileChannel#map}. Appends only copy bytes into the mapping;
+ * durability is provided by a background syncer that forces the active segment
+ * at most every {@code syncInterval}, so concurrent appenders share one fsync
+ * (group commit).</p>
+ *
+ * <p>Record layout (40 bytes, big endian):</p>
+ * <pre>
+ * sequence(8) productId(8) unscaledPrice(8) epochMillis(8) crc32(4) padding(4)
+ * </pre>
+ *
+ * <p>A checkpoint file records the highest sequence whose effect is known to be
+ * in the database. Segments entirely below the checkpoint are deleted and only
+ * newer records are returned by {@link #replay(Consumer)}.</p>
+ */
+public class PriceTickLog implements Closeable {
+
+    /**
+     * Scale used to store prices as unscaled longs; matches the {@code products.price} column.
+     */
+    public static final int PRICE_SCALE = 4;
+
+    static final int RECORD_SIZE = 40;
+
+    private static final Logger log = LoggerFactory.getLogger(PriceTickLog.class);
+
+    private static final String SEGMENT_PREFIX = "ticks-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long syncIntervalNanos;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Object syncMonitor = new Object();
+    private final Thread syncer;
+
+    private Segment active;
+    private long nextSequence;
+    private long checkpoint;
+
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+
+    /**
+     * Opens (or creates) the log in the given directory.
+     *
+     * @param directory    directory holding segments and the checkpoint
+     * @param segmentBytes size of each segment file in bytes
+     * @param syncInterval maximum delay of the batched fsync in nanoseconds
+     */
+    public PriceTickLog(Path directory, long segmentBytes, long syncInterval) {
+        this.directory = directory;
+        this.segmentRecords = (int) Math.max(1, Math.min(segmentBytes, Integer.MAX_VALUE) / RECORD_SIZE);
+        this.syncIntervalNanos = Math.max(syncInterval, 100_000L);
+
+        try {
+            Files.createDirectories(directory);
+            this.checkpoint = readCheckpoint();
+            this.nextSequence = loadSegments() + 1;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open price tick log in " + directory, ex);
+        }
+
+        this.writtenSequence = nextSequence - 1;
+        this.durableSequence = nextSequence - 1;
+        this.syncer = new Thread(this::syncLoop, "price-tick-log-sync");
+        this.syncer.setDaemon(true);
+        this.syncer.start();
+    }
+
+    /**
+     * Streams every valid record newer than the checkpoint, in sequence order.
+     *
+     * @param consumer receiver of replayed records
+     */
+    public void replay(Consumer<PriceTick> consumer) {
+        for (Segment segment : segments) {
+            if (segment == active) {
+                continue;
+            }
+            segment.forEachRecord(tick -> {
+                if (tick.sequence() > checkpoint) {
+                    consumer.accept(tick);
+                }
+            });
+        }
+    }
+
+    /**
+     * Appends a tick to the log. The record is visible to replay once
+     * {@link #awaitDurable(long)} returns for its sequence.
+     *
+     * @param productId     product identifier
+     * @param unscaledPrice price multiplied by {@code 10^PRICE_SCALE}
+     * @param epochMillis   time the tick was accepted
+     * @return sequence number assigned to the record
+     */
+    public synchronized long append(long productId, long unscaledPrice, long epochMillis) {
+        if (closed) {
+            throw new IllegalStateException("Price tick log is closed");
+        }
+        if (active == null || active.isFull()) {
+            roll();
+        }
+
+        long sequence = nextSequence++;
+        active.write(sequence, productId, unscaledPrice, epochMillis);
+        writtenSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * @return the highest sequence appended so far
+     */
+    public long lastSequence() {
+        return writtenSequence;
+    }
+
+    /**
+     * Blocks until the record with the given sequence has been forced to disk.
+     *
+     * @param sequence sequence returned by {@link #append}
+     */
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();
+            while (durableSequence < sequence) {
+                if (closed) {
+                    throw new IllegalStateException("Price tick log closed before tick became durable");
+                }
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for price tick fsync", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that every tick up to {@code sequence} is reflected in the database
+     * and removes segments that are no longer needed for replay.
+     *
+     * @param sequence highest sequence safe to forget
+     */
+    public synchronized void checkpoint(long sequence) {
+        if (sequence <= checkpoint) {
+            return;
+        }
+
+        try {
+            Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(tmp, Long.toString(sequence), StandardCharsets.US_ASCII);
+            Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoint = sequence;
+
+            // A segment can go once the next one starts at or below the checkpoint.
+            while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= checkpoint) {
+                Segment obsolete = segments.remove(0);
+                obsolete.close();
+                Files.deleteIfExists(obsolete.path);
+            }
+        } catch (IOException ex) {
+            log.warn("Price tick log checkpoint failed sequence={}", sequence, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            sync();
+            closed = true;
+        }
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();
+        }
+        syncer.interrupt();
+        synchronized (this) {
+            segments.forEach(Segment::close);
+        }
+    }
+
+    private void syncLoop() {
+        while (!closed) {
+            synchronized (syncMonitor) {
+                try {
+                    if (durableSequence >= writtenSequence) {
+                        syncMonitor.wait(syncIntervalNanos / 1_000_000L, (int) (syncIntervalNanos % 1_000_000L));
+                    }
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+
+            // Give concurrent appenders a moment to join this fsync.
+            if (writtenSequence > durableSequence) {
+                sleepNanos(syncIntervalNanos);
+                sync();
+            }
+        }
+    }
+
+    private void sync() {
+        Segment target;
+        long upTo;
+        synchronized (this) {
+            if (closed || active == null) {
+                return;
+            }
+            target = active;
+            upTo = writtenSequence;
+        }
+
+        target.force();
+
+        synchronized (syncMonitor) {
+            if (upTo > durableSequence) {
+                durableSequence = upTo;
+            }
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void roll() {
+        if (active != null) {
+            active.force();
+        }
+        try {
+            active = Segment.create(segmentPath(nextSequence), nextSequence, segmentRecords);
+            segments.add(active);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create price tick log segment", ex);
+        }
+    }
+
+    private long loadSegments() throws IOException {
+        long lastSequence = checkpoint;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> paths = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+
+            for (Path path : paths) {
+                Segment segment = Segment.open(path, firstSequenceOf(path));
+                long segmentLast = segment.lastSequence();
+                if (segmentLast < segment.firstSequence) {
+                    // Rolled but never written before a crash.
+                    segment.close();
+                    Files.delete(path);
+                    continue;
+                }
+                segments.add(segment);
+                lastSequence = Math.max(lastSequence, segmentLast);
+            }
+        }
+        return lastSequence;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0L;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A single replayed log record.
+     *
+     * @param sequence      log sequence number
+     * @param productId     product identifier
+     * @param unscaledPrice price multiplied by {@code 10^PRICE_SCALE}
+     * @param epochMillis   time the tick was accepted
+     */
+    public record PriceTick(long sequence, long productId, long unscaledPrice, long epochMillis) {}
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+
+        private Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, long firstSequence, int records) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+            return new Segment(path, firstSequence, channel, buffer);
+        }
+
+        static Segment open(Path path, long firstSequence) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Segment(path, firstSequence, channel, buffer);
+        }
+
+        boolean isFull() {
+            return buffer.remaining() < RECORD_SIZE;
+        }
+
+        void write(long sequence, long productId, long unscaledPrice, long epochMillis) {
+            int start = buffer.position();
+            buffer.putLong(sequence)
+                    .putLong(productId)
+                    .putLong(unscaledPrice)
+                    .putLong(epochMillis);
+
+            crc.reset();
+            crc.update(buffer.slice(start, 32));
+            buffer.putInt((int) crc.getValue()).putInt(0);
+        }
+
+        void forEachRecord(Consumer<PriceTick> consumer) {
+            ByteBuffer view = buffer.duplicate().clear();
+            CRC32 checksum = new CRC32();
+            long expected = firstSequence;
+
+            while (view.remaining() >= RECORD_SIZE) {
+                int start = view.position();
+                long sequence = view.getLong();
+                long productId = view.getLong();
+                long unscaledPrice = view.getLong();
+                long epochMillis = view.getLong();
+                int storedCrc = view.getInt();
+                view.getInt();
+
+                checksum.reset();
+                checksum.update(view.slice(start, 32));
+                // Zero-filled tail or a torn write ends the segment.
+                if (sequence != expected || (int) checksum.getValue() != storedCrc) {
+                    return;
+                }
+                consumer.accept(new PriceTick(sequence, productId, unscaledPrice, epochMillis));
+                expected++;
+            }
+        }
+
+        long lastSequence() {
+            long[] last = {firstSequence - 1};
+            forEachRecord(tick -> last[0] = tick.sequence());
+            return last[0];
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.debug("Closing price tick segment failed path={}", path, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.ing.productmng_tool.writebehind;
+
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for high-frequency price updates.
+ *
+ * <p>Each update is appended to the {@link PriceTickLog} and acknowledged once the
+ * batched fsync covers it. The latest accepted price per product is kept in memory
+ * so reads observe it immediately, and a background task flushes pending prices to
+ * the {@code products} table using batched UPDATE statements.</p>
+ *
+ * <p>Ticks that were durable but not yet flushed when the process stopped are
+ * replayed from the log on startup.</p>
+ *
+ * <p>Once a batch has committed, the products it changed are handed to the
+ * {@link FlushListener} as stored, so they reach the caches, the other instances
+ * and stream subscribers like any other committed write.</p>
+ */
+public class PriceWriteBehindBuffer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceWriteBehindBuffer.class);
+
+    private static final String UPDATE_PRICE_SQL =
+            "UPDATE products SET price = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+    private static final String FLUSHED_SQL =
+            "SELECT id, version, name, description, price, created_at, updated_at FROM products WHERE id = ANY(?)";
+
+    private final PriceTickLog tickLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final FlushListener flushListener;
+
+    private final Map<Long, PendingPrice> pending = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Creates the buffer, replays unflushed ticks and starts the periodic flusher.
+     *
+     * @param tickLog             durable tick log
+     * @param jdbcTemplate        JDBC access used for batched updates
+     * @param transactionTemplate transaction wrapper for each flushed batch
+     * @param properties          write-behind configuration
+     * @param flushListener       receives the products of each committed batch, or {@code null}
+     */
+    public PriceWriteBehindBuffer(PriceTickLog tickLog,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  WriteBehindProperties properties,
+                                  FlushListener flushListener) {
+        this.tickLog = tickLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.batchSize();
+        this.flushListener = flushListener;
+
+        tickLog.replay(tick -> pending.put(tick.productId(), PendingPrice.of(tick)));
+        if (!pending.isEmpty()) {
+            log.info("Replayed unflushed price ticks count={}", pending.size());
+        }
+
+        long interval = properties.flushInterval().toMillis();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "price-write-behind-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Accepts a single price update and returns once it is durable in the log.
+     *
+     * @param productId product identifier
+     * @param price     new price
+     * @return the pending price as seen by subsequent reads
+     */
+    public PendingPrice submit(long productId, BigDecimal price) {
+        PendingPrice accepted = append(productId, price, System.currentTimeMillis());
+        tickLog.awaitDurable(accepted.sequence());
+        return accepted;
+    }
+
+    /**
+     * Accepts a batch of price updates with a single durability wait.
+     *
+     * @param prices new prices keyed by product identifier, applied in iteration order
+     * @return number of accepted updates
+     */
+    public int submitAll(Map<Long, BigDecimal> prices) {
+        long now = System.currentTimeMillis();
+        long last = 0L;
+        for (Map.Entry<Long, BigDecimal> entry : prices.entrySet()) {
+            last = append(entry.getKey(), entry.getValue(), now).sequence();
+        }
+        tickLog.awaitDurable(last);
+        return prices.size();
+    }
+
+    /**
+     * Applies a pending price, if any, on top of a response loaded from the database.
+     *
+     * @param response product as currently stored
+     * @return the response with the latest accepted price
+     */
+    public ProductResponse overlay(ProductResponse response) {
+        if (response == null || pending.isEmpty()) {
+            return response;
+        }
+        PendingPrice price = pending.get(response.id());
+        if (price == null) {
+            return response;
+        }
+        return new ProductResponse(
+                response.id(),
+                response.name(),
+                response.description(),
+                price.price(),
+                response.createdAt(),
+                price.acceptedAt());
+    }
+
+    /**
+     * Drops a pending price, used when the product is deleted.
+     *
+     * @param productId product identifier
+     */
+    public void discard(long productId) {
+        pending.remove(productId);
+    }
+
+    /**
+     * @return number of products with a price not yet written to the database
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending prices to the database in batches and advances the log checkpoint.
+     */
+    public void flush() {
+        List<Map.Entry<Long, PendingPrice>> snapshot = new ArrayList<>(pending.entrySet());
+
+        for (int from = 0; from < snapshot.size(); from += batchSize) {
+            List<Map.Entry<Long, PendingPrice>> batch =
+                    snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+
+            List<FlushedProduct> flushed = new ArrayList<>();
+            int[] counts = transactionTemplate.execute(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setBigDecimal(1, entry.getValue().price());
+                    ps.setTimestamp(2, Timestamp.valueOf(entry.getValue().acceptedAt()));
+                    ps.setLong(3, entry.getKey());
+                })[0];
+                if (flushListener != null) {
+                    // The rows are locked by this transaction, so they are read exactly as committed.
+                    jdbcTemplate.query(FLUSHED_SQL,
+                            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                                    batch.stream().map(Map.Entry::getKey).toArray())),
+                            (RowCallbackHandler) rs -> flushed.add(new FlushedProduct(new ProductResponse(
+                                    rs.getLong("id"),
+                                    rs.getString("name"),
+                                    rs.getString("description"),
+                                    rs.getBigDecimal("price"),
+                                    rs.getTimestamp("created_at").toLocalDateTime(),
+                                    rs.getTimestamp("updated_at").toLocalDateTime()), rs.getLong("version"))));
+                }
+                return updated;
+            });
+            notifyFlushed(flushed);
+
+            for (int i = 0; i < batch.size(); i++) {
+                Map.Entry<Long, PendingPrice> entry = batch.get(i);
+                if (counts != null && counts[i] == 0) {
+                    log.warn("Write-behind price dropped - product not found id={}", entry.getKey());
+                }
+                // Keep the entry if a newer tick arrived while flushing.
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        synchronized (appendLock) {
+            long safe = pending.values().stream()
+                    .mapToLong(PendingPrice::sequence)
+                    .min()
+                    .orElse(tickLog.lastSequence() + 1) - 1;
+            tickLog.checkpoint(safe);
+        }
+    }
+
+    /**
+     * Stops the flusher, writes remaining prices and closes the log.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.warn("Final write-behind flush failed pending={} - ticks remain in the log", pending.size(), ex);
+        } finally {
+            tickLog.close();
+        }
+    }
+
+    private PendingPrice append(long productId, BigDecimal price, long epochMillis) {
+        // Served and flushed at the scale the tick log replays, so a restart changes nothing.
+        BigDecimal scaled = price.setScale(PriceTickLog.PRICE_SCALE, RoundingMode.HALF_UP);
+        long unscaled = scaled.unscaledValue().longValueExact();
+        synchronized (appendLock) {
+            long sequence = tickLog.append(productId, unscaled, epochMillis);
+            PendingPrice accepted = new PendingPrice(sequence, scaled, toLocal(epochMillis));
+            pending.put(productId, accepted);
+            return accepted;
+        }
+    }
+
+    private void notifyFlushed(List<FlushedProduct> flushed) {
+        for (FlushedProduct product : flushed) {
+            try {
+                flushListener.flushed(product.product(), product.version());
+            } catch (RuntimeException ex) {
+                log.warn("Write-behind flush listener failed id={}", product.product().id(), ex);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind flush failed pending={} - will retry", pending.size(), ex);
+        }
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Receives products whose pending price has been committed to the database.
+     */
+    @FunctionalInterface
+    public interface FlushListener {
+
+        /**
+         * Called after the batch holding the product has committed, on the flusher thread.
+         *
+         * @param product product as committed
+         * @param version committed optimistic locking version
+         */
+        void flushed(ProductResponse product, long version);
+    }
+
+    private record FlushedProduct(ProductResponse product, long version) {}
+
+    /**
+     * Latest accepted price of a product that has not been flushed yet.
+     *
+     * @param sequence   log sequence of the tick
+     * @param price      accepted price
+     * @param acceptedAt time the tick was accepted
+     */
+    public record PendingPrice(long sequence, BigDecimal price, LocalDateTime acceptedAt) {
+
+        static PendingPrice of(PriceTickLog.PriceTick tick) {
+            return new PendingPrice(
+                    tick.sequence(),
+                    BigDecimal.valueOf(tick.unscaledPrice(), PriceTickLog.PRICE_SCALE),
+                    toLocal(tick.epochMillis()));
+        }
+    }
+}
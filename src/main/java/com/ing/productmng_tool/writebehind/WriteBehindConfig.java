@@ -0,0 +1,64 @@
+package com.ing.productmng_tool.writebehind;
+
+import com.ing.productmng_tool.catalog.ProductCatalog;
+import com.ing.productmng_tool.invalidation.ProductChangePublisher;
+import com.ing.productmng_tool.stream.ProductEvent;
+import com.ing.productmng_tool.stream.ProductEventStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Wires the opt-in write-behind mode for price updates.
+ *
+ * <p>Active only when {@code product.write-behind.enabled=true}. Flushed prices are
+ * applied to the catalog, announced to the other instances and pushed to stream
+ * subscribers, each when enabled.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.write-behind", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+
+    @Bean(destroyMethod = "close")
+    public PriceTickLog priceTickLog(WriteBehindProperties properties) {
+        return new PriceTickLog(
+                properties.logDir(),
+                properties.segmentSize().toBytes(),
+                properties.syncInterval().toNanos());
+    }
+
+    @Bean(destroyMethod = "close")
+    public PriceWriteBehindBuffer priceWriteBehindBuffer(PriceTickLog priceTickLog,
+                                                         JdbcTemplate jdbcTemplate,
+                                                         PlatformTransactionManager transactionManager,
+                                                         WriteBehindProperties properties,
+                                                         ObjectProvider<ProductCatalog> catalog,
+                                                         ObjectProvider<ProductChangePublisher> changePublisher,
+                                                         ObjectProvider<ProductEventStream> events) {
+        ProductCatalog productCatalog = catalog.getIfAvailable();
+        ProductChangePublisher publisher = changePublisher.getIfAvailable();
+        ProductEventStream stream = events.getIfAvailable();
+        return new PriceWriteBehindBuffer(
+                priceTickLog,
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                properties,
+                (product, version) -> {
+                    if (productCatalog != null) {
+                        productCatalog.put(product, version);
+                    }
+                    if (publisher != null) {
+                        publisher.publish(product.id(), version);
+                    }
+                    if (stream != null) {
+                        stream.publish(ProductEvent.changed(product, version));
+                    }
+                });
+    }
+}
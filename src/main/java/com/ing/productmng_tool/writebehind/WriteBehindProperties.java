@@ -0,0 +1,30 @@
+package com.ing.productmng_tool.writebehind;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the write-behind mode for price updates.
+ *
+ * <p>Bound from the {@code product.write-behind} prefix.</p>
+ *
+ * @param enabled       whether price updates are routed through the write-behind log
+ * @param logDir        directory holding the append-only tick log segments
+ * @param segmentSize   size of a single memory-mapped log segment
+ * @param syncInterval  maximum time an append waits for the batched fsync
+ * @param flushInterval interval between flushes of pending prices to the database
+ * @param batchSize     maximum number of rows per batched UPDATE
+ */
+@ConfigurationProperties(prefix = "product.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/price-ticks") Path logDir,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("2ms") Duration syncInterval,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("1000") int batchSize
+) {}
@@ -0,0 +1,12 @@
+-- Schema previously created by hibernate.ddl-auto=update. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+CREATE TABLE products (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000),
+    price       NUMERIC(19, 4) NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6)   NOT NULL,
+    version     BIGINT,
+    CONSTRAINT uk_products_name UNIQUE (name)
+);
@@ -0,0 +1,10 @@
+-- Point-read counts per product, flushed periodically by every instance and used
+-- to pick the products preloaded during warm-up. Rows of deleted products are
+-- ignored by the join in ProductAccessTracker and do no harm.
+CREATE TABLE product_access_frequency (
+    product_id       BIGINT PRIMARY KEY,
+    hits             BIGINT      NOT NULL,
+    last_accessed_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_product_access_frequency_hits ON product_access_frequency (hits DESC);
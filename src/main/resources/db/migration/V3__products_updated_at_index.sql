@@ -0,0 +1,3 @@
+-- Supports the product catalog reconciliation, which reads rows changed since
+-- its watermark every few seconds.
+CREATE INDEX idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,69 @@
+-- Change feed behind GET /api/products/changes. Every insert and update stamps the
+-- row with the writing transaction and a fresh change sequence value; every delete
+-- leaves a tombstone stamped the same way. Readers page through both in
+-- (change_xid, change_seq) order and only up to the oldest running transaction,
+-- so a transaction that commits late cannot land behind a cursor already handed out.
+CREATE SEQUENCE product_change_seq;
+
+ALTER TABLE products
+    ADD COLUMN change_xid xid8,
+    ADD COLUMN change_seq BIGINT;
+
+UPDATE products SET change_xid = pg_current_xact_id(), change_seq = nextval('product_change_seq');
+
+ALTER TABLE products
+    ALTER COLUMN change_xid SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL;
+
+CREATE INDEX idx_products_change ON products (change_xid, change_seq);
+
+CREATE TABLE product_tombstones (
+    product_id BIGINT PRIMARY KEY,
+    change_xid xid8        NOT NULL,
+    change_seq BIGINT      NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_product_tombstones_change ON product_tombstones (change_xid, change_seq);
+CREATE INDEX idx_product_tombstones_deleted_at ON product_tombstones (deleted_at);
+
+-- Newest position of a purged tombstone. Cursors before it may have missed a delete.
+CREATE TABLE product_change_horizon (
+    id         BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    change_xid xid8   NOT NULL,
+    change_seq BIGINT NOT NULL
+);
+
+INSERT INTO product_change_horizon (change_xid, change_seq) VALUES ('0', 0);
+
+CREATE FUNCTION product_stamp_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        -- A product re-created under its old id replaces its tombstone.
+        DELETE FROM product_tombstones WHERE product_id = NEW.id;
+    END IF;
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_seq := nextval('product_change_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION product_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO product_tombstones (product_id, change_xid, change_seq, deleted_at)
+    VALUES (OLD.id, pg_current_xact_id(), nextval('product_change_seq'), now())
+    ON CONFLICT (product_id) DO UPDATE
+        SET change_xid = EXCLUDED.change_xid,
+            change_seq = EXCLUDED.change_seq,
+            deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_stamp_change
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION product_stamp_change();
+
+CREATE TRIGGER products_record_tombstone
+    AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION product_record_tombstone();
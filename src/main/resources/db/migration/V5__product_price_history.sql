@@ -0,0 +1,38 @@
+-- Every price a product has had, behind GET /api/products/{id}/price-history.
+-- Rows are written by triggers in the transaction that sets the price, so JPA
+-- writes, write-behind flushes and every instance are covered, and a committed
+-- price change always has its history row. Rows outlive the product for audits.
+-- changed_at comes from the database clock: changes to one product are serialized
+-- by its row lock, so their times increase even when instance clocks disagree.
+CREATE TABLE product_price_history (
+    id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    product_id BIGINT         NOT NULL,
+    old_price  NUMERIC(19, 4),
+    new_price  NUMERIC(19, 4) NOT NULL,
+    changed_at TIMESTAMPTZ    NOT NULL
+);
+
+-- Pages of one product's history, newest first, read from the index alone.
+CREATE INDEX idx_product_price_history_product
+    ON product_price_history (product_id, changed_at) INCLUDE (old_price, new_price);
+
+-- Earlier changes were never recorded; the current price is known since the last update.
+INSERT INTO product_price_history (product_id, old_price, new_price, changed_at)
+SELECT id, NULL, price, updated_at FROM products;
+
+CREATE FUNCTION product_record_price() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO product_price_history (product_id, old_price, new_price, changed_at)
+    VALUES (NEW.id, CASE WHEN TG_OP = 'UPDATE' THEN OLD.price END, NEW.price, clock_timestamp());
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_record_initial_price
+    AFTER INSERT ON products
+    FOR EACH ROW EXECUTE FUNCTION product_record_price();
+
+CREATE TRIGGER products_record_price_change
+    AFTER UPDATE OF price ON products
+    FOR EACH ROW WHEN (OLD.price IS DISTINCT FROM NEW.price)
+    EXECUTE FUNCTION product_record_price();
@@ -0,0 +1,31 @@
+-- Deleted products, kept so that as-of reads (GET /api/products?asOf=) still list
+-- a product at times before its deletion. Unlike the tombstones of the change
+-- feed these rows are never purged.
+CREATE TABLE deleted_products (
+    product_id  BIGINT PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(1000),
+    created_at  TIMESTAMP(6),
+    deleted_at  TIMESTAMPTZ NOT NULL
+);
+
+-- Products deleted before this migration are only known from their tombstones.
+INSERT INTO deleted_products (product_id, deleted_at)
+SELECT product_id, deleted_at FROM product_tombstones;
+
+CREATE FUNCTION product_archive() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO deleted_products (product_id, name, description, created_at, deleted_at)
+    VALUES (OLD.id, OLD.name, OLD.description, OLD.created_at, clock_timestamp())
+    ON CONFLICT (product_id) DO UPDATE
+        SET name = EXCLUDED.name,
+            description = EXCLUDED.description,
+            created_at = EXCLUDED.created_at,
+            deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_archive
+    AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION product_archive();
@@ -0,0 +1,101 @@
+package com.ing.productmng_tool.benchmark;
+
+import com.ing.productmng_tool.security.SecurityConfig;
+import com.ing.productmng_tool.security.TokenAuthenticationFilter;
+import com.ing.productmng_tool.security.TokenService;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication throughput: HTTP Basic with BCrypt against a
+ * signed bearer token, both through their real servlet filters.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthenticationBenchmark -f 1 -wi 3 -i 5 -t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuthenticationBenchmark {
+
+    private Filter basicFilter;
+    private Filter bearerFilter;
+    private String basicHeader;
+    private String bearerHeader;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = new BCryptPasswordEncoder();
+        UserDetailsService users = new SecurityConfig(null, null).userDetailsService(encoder);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(users);
+        provider.setPasswordEncoder(encoder);
+        basicFilter = new BasicAuthenticationFilter(new ProviderManager(provider));
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        TokenService tokens = new TokenService(secret, Duration.ofMinutes(15), Clock.systemUTC());
+        bearerFilter = new TokenAuthenticationFilter(tokens, (request, response, ex) -> {
+            throw new IllegalStateException("Token rejected", ex);
+        }, "/api/auth/token");
+
+        basicHeader = "Basic " + Base64.getEncoder()
+                .encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+        bearerHeader = "Bearer " + tokens.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"))).token();
+    }
+
+    @Benchmark
+    public Authentication basic() throws Exception {
+        return authenticate(basicFilter, basicHeader);
+    }
+
+    @Benchmark
+    public Authentication bearer() throws Exception {
+        return authenticate(bearerFilter, bearerHeader);
+    }
+
+    private static Authentication authenticate(Filter filter, String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, header);
+        MockFilterChain chain = new MockFilterChain();
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || chain.getRequest() == null) {
+                throw new IllegalStateException("Request was not authenticated");
+            }
+            return authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ing.productmng_tool.benchmark;
+
+import com.ing.productmng_tool.ProductmngToolApplication;
+import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
+import com.ing.productmng_tool.model.entity.dto.ProductRequest;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product service latency on the in-memory engine against the JPA engine, each in
+ * a full application context so the aspects, metrics and caches of the real
+ * request path are included.
+ *
+ * <p>The {@code jpa} engine connects to the database configured in
+ * {@code application.yml}, so {@code POSTGRES_DB}, {@code POSTGRES_USER} and
+ * {@code POSTGRES_PASSWORD} must be set. The seeded products are deleted again
+ * at the end of the run.</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductStorageBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductStorageBenchmark {
+
+    @Param({"memory", "jpa"})
+    private String engine;
+
+    @Param("1000")
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private Path directory;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("product-storage-benchmark");
+        context = new SpringApplicationBuilder(ProductmngToolApplication.class)
+                .run("--server.port=0",
+                        "--logging.level.com.ing.productmng_tool=WARN",
+                        "--product.storage.engine=" + engine,
+                        "--product.storage.memory.directory=" + directory);
+        service = context.getBean(ProductService.class);
+
+        String prefix = "bench-" + System.nanoTime() + "-";
+        ids = new long[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = service.createProduct(new ProductRequest(prefix + i, "benchmark product", BigDecimal.TEN)).id();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (long id : ids) {
+            service.deleteProduct(id);
+        }
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public ProductResponse getProductById() {
+        return service.getProductById(randomId());
+    }
+
+    /**
+     * Read, version check and durable write. Concurrent threads can pick the same
+     * product; a lost race costs the same work and is not retried.
+     */
+    @Benchmark
+    public ProductResponse changePrice() {
+        BigDecimal price = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 100_000), 2);
+        try {
+            return service.changePrice(randomId(), new ChangePriceRequest(price));
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            return null;
+        }
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,59 @@
+package com.ing.productmng_tool.benchmark;
+
+import com.ing.productmng_tool.config.EndpointClass;
+import com.ing.productmng_tool.config.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiting decision: classifying the request and
+ * taking a token, for one hot principal and for many distinct principals.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="RateLimiterBenchmark -f 1 -wi 3 -i 5 -t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int PRINCIPALS = 10_000;
+
+    private TokenBucketRateLimiter limiter;
+    private MockHttpServletRequest request;
+    private String[] principals;
+
+    @Setup
+    public void setUp() {
+        // High enough that the benchmark measures the allowed path.
+        limiter = new TokenBucketRateLimiter(1e9, 1_000_000, 100_000);
+        request = new MockHttpServletRequest("GET", "/api/products/42");
+        principals = new String[PRINCIPALS];
+        for (int i = 0; i < PRINCIPALS; i++) {
+            principals[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long singlePrincipal() {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        return limiter.tryAcquire(principals[0], System.nanoTime()) + endpointClass.ordinal();
+    }
+
+    @Benchmark
+    public long manyPrincipals() {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        String principal = principals[ThreadLocalRandom.current().nextInt(PRINCIPALS)];
+        return limiter.tryAcquire(principal, System.nanoTime()) + endpointClass.ordinal();
+    }
+}
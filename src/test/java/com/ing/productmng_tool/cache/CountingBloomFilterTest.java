@@ -0,0 +1,42 @@
+package com.ing.productmng_tool.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_shouldHaveNoFalseNegatives_andFewFalsePositives() {
+
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("product-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("product-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("product-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void remove_shouldForgetElement_withoutAffectingOthers() {
+
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("Steak");
+        filter.add("Socks");
+
+        filter.remove("Steak");
+
+        assertFalse(filter.mightContain("Steak"));
+        assertTrue(filter.mightContain("Socks"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ing.productmng_tool.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeCacheTest {
+
+    private final NegativeCache cache = new NegativeCache(16, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void markMissing_shouldRememberId_untilInvalidated() {
+
+        cache.markMissing(42L, cache.generation());
+        assertTrue(cache.isMissing(42L));
+        assertFalse(cache.isMissing(43L));
+
+        cache.invalidate(42L);
+        assertFalse(cache.isMissing(42L));
+    }
+
+    @Test
+    void markMissing_shouldBeIgnored_whenInvalidatedDuringLookup() {
+
+        long generation = cache.generation();
+        cache.invalidate(42L);
+
+        cache.markMissing(42L, generation);
+
+        assertFalse(cache.isMissing(42L));
+    }
+
+    @Test
+    void isMissing_shouldExpireEntries() {
+
+        NegativeCache shortLived = new NegativeCache(16, Duration.ZERO, new SimpleMeterRegistry());
+        shortLived.markMissing(42L, shortLived.generation());
+
+        assertFalse(shortLived.isMissing(42L));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ing.productmng_tool.cache;
+
+import com.ing.productmng_tool.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> loads = new SingleFlight<>("product", registry);
+
+    @Test
+    void load_shouldShareOneExecution_betweenConcurrentCallers() throws Exception {
+
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> loads.load(1L, () -> {
+                executions.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "Steak";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = executor.submit(() -> loads.load(1L, () -> {
+                executions.incrementAndGet();
+                return "other";
+            }));
+            while (registry.get("product.loads").tag("result", "shared").counter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("Steak", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("Steak", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertEquals(0, loads.inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_shouldLoadAgain_whenLeaderRunsOutOfItsOwnDeadline() throws Exception {
+
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> loads.load(1L, () -> {
+                executions.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                throw new DeadlineExceededException();
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = executor.submit(() -> loads.load(1L, () -> {
+                executions.incrementAndGet();
+                return "Steak";
+            }));
+            while (registry.get("product.loads").tag("result", "shared").counter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                    () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, leaderFailure.getCause());
+            assertEquals("Steak", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(2, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_shouldNotCacheFailures() {
+
+        assertThrows(IllegalStateException.class,
+                () -> loads.load(1L, () -> { throw new IllegalStateException("down"); }));
+
+        assertEquals("Steak", loads.load(1L, () -> "Steak"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
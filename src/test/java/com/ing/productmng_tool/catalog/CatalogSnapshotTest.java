@@ -0,0 +1,86 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void open_shouldServeWrittenProducts_byId() throws IOException {
+
+        LocalDateTime created = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000);
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, List.of(
+                product(3L, "Socks", "Nike comfy socks", "30", created),
+                product(7L, "Protein Bar", null, "5.125", created),
+                product(12L, "Jersey – Home", "Ünïcode", "90.00", created)).iterator(), 42L);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(3, snapshot.count());
+        assertEquals(42L, snapshot.watermarkMicros());
+        assertTrue(snapshot.indexOf(5L) < 0);
+
+        CatalogProduct bar = snapshot.productAt(snapshot.indexOf(7L));
+        assertEquals("Protein Bar", bar.name());
+        assertNull(bar.description());
+        assertEquals(new BigDecimal("5.1250"), bar.price());
+        assertEquals(created, bar.createdAt());
+
+        CatalogProduct jersey = snapshot.productAt(snapshot.indexOf(12L));
+        assertEquals("Jersey – Home", jersey.name());
+        assertEquals("Ünïcode", jersey.description());
+        assertEquals(2L, snapshot.versionAt(snapshot.indexOf(12L)));
+
+        List<Long> ids = new ArrayList<>();
+        snapshot.iterator().forEachRemaining(p -> ids.add(p.id()));
+        assertEquals(List.of(3L, 7L, 12L), ids);
+    }
+
+    @Test
+    void open_shouldRejectCorruptedFile() throws IOException {
+
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, List.of(
+                product(1L, "Socks", "Nike comfy socks", "30", LocalDateTime.now())).iterator(), 0L);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), channel.size() - 1);
+        }
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void write_shouldRejectUnorderedProducts() {
+
+        LocalDateTime now = LocalDateTime.now();
+        Path file = dir.resolve("catalog.snapshot");
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.write(file, List.of(
+                product(2L, "B", null, "1", now),
+                product(1L, "A", null, "1", now)).iterator(), 0L));
+    }
+
+    private static CatalogProduct product(long id, String name, String description, String price,
+                                          LocalDateTime time) {
+        return new CatalogProduct(id, 2L, name, description, CatalogProduct.unscaled(new BigDecimal(price)),
+                CatalogProduct.toMicros(time), CatalogProduct.toMicros(time));
+    }
+}
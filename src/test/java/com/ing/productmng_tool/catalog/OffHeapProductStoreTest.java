@@ -0,0 +1,91 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapProductStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void apply_shouldKeepNewestVersion() {
+
+        try (OffHeapProductStore store = new OffHeapProductStore(16, OffHeapProductStore.MIN_SLAB_SIZE)) {
+            assertTrue(store.apply(product(1L, 1L, "Socks", "Nike comfy socks", 300_000L)));
+            assertTrue(store.apply(product(2L, 1L, "Protein Bar", null, 50_000L)));
+
+            assertTrue(store.apply(product(1L, 2L, "Socks", "Nike comfy socks", 310_000L)));
+            assertFalse(store.apply(product(1L, 1L, "Socks (stale)", null, 1L)));
+
+            CatalogProduct socks = store.get(1L);
+            assertEquals(2L, socks.version());
+            assertEquals("Nike comfy socks", socks.description());
+            assertEquals(310_000L, socks.unscaledPrice());
+            assertNull(store.get(2L).description());
+            assertNull(store.get(3L));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void remove_shouldRejectStaleCopies_untilSnapshotWritten() throws IOException {
+
+        try (OffHeapProductStore store = new OffHeapProductStore(16, OffHeapProductStore.MIN_SLAB_SIZE)) {
+            store.apply(product(5L, 3L, "Mug", "mug", 125_000L));
+            store.apply(product(9L, 1L, "Cup", "cup", 99_000L));
+            store.apply(product(7L, 1L, "Plate", null, 10_000L));
+
+            store.remove(5L);
+            assertFalse(store.apply(product(5L, 3L, "Mug", "mug", 125_000L)));
+            assertFalse(store.removeIfVersion(9L, 2L));
+            assertTrue(store.removeIfVersion(9L, 1L));
+            assertNull(store.get(5L));
+            assertEquals(1, store.size());
+
+            Path file = dir.resolve("catalog.snapshot");
+            assertEquals(1, store.writeSnapshot(file, 42L));
+            assertEquals(7L, CatalogSnapshot.open(file).idAt(0));
+
+            // Deletions reflected in the file are forgotten.
+            assertTrue(store.apply(product(5L, 1L, "Mug", "mug", 125_000L)));
+        }
+    }
+
+    @Test
+    void store_shouldGrowAndCompact_withoutLosingProducts() {
+
+        int products = 5_000;
+        try (OffHeapProductStore store = new OffHeapProductStore(16, OffHeapProductStore.MIN_SLAB_SIZE)) {
+            for (long version = 1; version <= 20; version++) {
+                for (long id = 1; id <= products; id++) {
+                    // The growing name forces appends, leaving garbage behind.
+                    store.apply(product(id, version, "Product " + id + "-".repeat((int) version), null, id));
+                }
+            }
+
+            assertEquals(products, store.size());
+            assertEquals("Product 4321" + "-".repeat(20), store.get(4321L).name());
+            assertTrue(store.offHeapBytes() < 8L * OffHeapProductStore.MIN_SLAB_SIZE,
+                    "garbage should have been compacted: " + store.offHeapBytes());
+
+            List<Long> ids = new ArrayList<>();
+            store.iterator().forEachRemaining(p -> ids.add(p.id()));
+            assertEquals(products, ids.size());
+            assertEquals(1L, ids.get(0));
+            assertEquals((long) products, ids.get(products - 1));
+        }
+    }
+
+    private static CatalogProduct product(long id, long version, String name, String description, long price) {
+        return new CatalogProduct(id, version, name, description, price, 1_000_000L, 2_000_000L);
+    }
+}
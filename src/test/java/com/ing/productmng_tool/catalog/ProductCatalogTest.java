@@ -0,0 +1,100 @@
+package com.ing.productmng_tool.catalog;
+
+import com.ing.productmng_tool.catalog.CatalogSnapshot.CatalogProduct;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+
+    @TempDir
+    Path dir;
+
+    private ProductCatalog catalog;
+
+    @AfterEach
+    void close() {
+        if (catalog != null) {
+            catalog.close();
+        }
+    }
+
+    @Test
+    void sweepDeletions_shouldKeepProductCreatedWhileScanning() throws Exception {
+
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, List.of(product(1L), product(2L)).iterator(), 0L);
+
+        Connection connection = mock(Connection.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        // Reconciliation at startup finds nothing new.
+        PreparedStatement delta = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(delta);
+        when(delta.executeQuery()).thenReturn(mock(ResultSet.class));
+
+        Statement scan = mock(Statement.class);
+        ResultSet ids = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(scan);
+        when(scan.executeQuery(anyString())).thenReturn(ids);
+
+        catalog = new ProductCatalog(dataSource, mock(PlatformTransactionManager.class), properties(file));
+        catalog.start();
+
+        // Product 2 was deleted elsewhere. Product 3 commits after the scan's snapshot
+        // and is applied locally while the ids are still being read.
+        AtomicInteger rows = new AtomicInteger();
+        when(ids.next()).thenAnswer(invocation -> {
+            if (rows.get() == 0) {
+                catalog.put(response(3L), 0L);
+            }
+            return rows.incrementAndGet() == 1;
+        });
+        when(ids.getLong(1)).thenReturn(1L);
+
+        assertEquals(1, catalog.sweepDeletions());
+
+        assertNotNull(catalog.get(1L));
+        assertNull(catalog.get(2L));
+        assertNotNull(catalog.get(3L));
+        assertEquals(List.of(1L, 3L), catalog.all().stream().map(ProductResponse::id).toList());
+    }
+
+    private static CatalogProperties properties(Path file) {
+        Duration never = Duration.ofHours(1);
+        return new CatalogProperties(true, CatalogProperties.Store.MAPPED, DataSize.ofMegabytes(1), file,
+                never, never, Duration.ofSeconds(5), never);
+    }
+
+    private static CatalogProduct product(long id) {
+        return new CatalogProduct(id, 1L, "Product " + id, null, CatalogProduct.unscaled(BigDecimal.TEN),
+                CatalogProduct.toMicros(TIME), CatalogProduct.toMicros(TIME));
+    }
+
+    private static ProductResponse response(long id) {
+        return new ProductResponse(id, "Product " + id, null, BigDecimal.TEN, TIME, TIME);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ing.productmng_tool.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(
+            true, 10, 2, 100, 2.0, Duration.ofMillis(100), 5, 0.9, 0.5);
+
+    @Test
+    void tryAcquire_shouldShedCatalogScansFirst() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0L);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(EndpointClass.CATALOG_SCAN));
+        }
+        assertFalse(limiter.tryAcquire(EndpointClass.CATALOG_SCAN));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(EndpointClass.POINT_READ));
+        }
+        assertFalse(limiter.tryAcquire(EndpointClass.POINT_READ));
+
+        assertTrue(limiter.tryAcquire(EndpointClass.WRITE));
+        assertFalse(limiter.tryAcquire(EndpointClass.WRITE));
+    }
+
+    @Test
+    void release_shouldGrowLimit_whileLatencyIsStable_andShrink_whenItRises() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0L);
+        long now = 0L;
+
+        for (int i = 0; i < 5; i++) {
+            now = runWindow(limiter, now, 10 * MS);
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "limit should grow, was " + grown);
+
+        for (int i = 0; i < 10; i++) {
+            now = runWindow(limiter, now, 200 * MS);
+        }
+        assertTrue(limiter.limit() < grown, "limit should shrink, was " + limiter.limit());
+    }
+
+    @Test
+    void release_shouldBackOff_onOverload() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0L);
+
+        assertTrue(limiter.tryAcquire(EndpointClass.WRITE));
+        limiter.release(MS, true, 100 * MS);
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private static long runWindow(AdaptiveConcurrencyLimiter limiter, long start, long latency) {
+        int admitted = 0;
+        while (limiter.tryAcquire(EndpointClass.WRITE)) {
+            admitted++;
+        }
+        long end = start + 100 * MS;
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(latency, false, end);
+        }
+        return end;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ing.productmng_tool.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void tryEnter_shouldRejectOnlyTheSaturatedClass() {
+
+        BulkheadProperties.Limits tight = new BulkheadProperties.Limits(1, 0, Duration.ofMillis(10), 1);
+        BulkheadProperties.Limits roomy = new BulkheadProperties.Limits(5, 5, Duration.ofMillis(10), 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkheads bulkheads = new Bulkheads(new BulkheadProperties(true, roomy, tight, roomy), registry);
+
+        Bulkhead scans = bulkheads.get(EndpointClass.CATALOG_SCAN);
+        assertTrue(scans.tryEnter());
+        assertFalse(scans.tryEnter());
+        assertEquals(1.0, registry.get("product.bulkhead.rejected").tag("bulkhead", "catalog_scan").counter().count());
+        assertEquals(1.0, registry.get("product.bulkhead.saturation").tag("bulkhead", "catalog_scan").gauge().value());
+
+        Bulkhead reads = bulkheads.get(EndpointClass.POINT_READ);
+        assertTrue(reads.tryEnter());
+        reads.exit();
+
+        scans.exit();
+        assertTrue(scans.tryEnter());
+        scans.exit();
+    }
+
+    @Test
+    void tryAcquireConnection_shouldTimeOut_whenQuotaIsExhausted() {
+
+        Bulkhead bulkhead = new Bulkhead("write", new BulkheadProperties.Limits(5, 5, Duration.ofMillis(10), 1));
+
+        assertTrue(bulkhead.tryAcquireConnection());
+        assertFalse(bulkhead.tryAcquireConnection());
+
+        bulkhead.releaseConnection();
+        assertTrue(bulkhead.tryAcquireConnection());
+    }
+}
@@ -0,0 +1,71 @@
+package com.ing.productmng_tool.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.deadline.DeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitFilterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = filter();
+
+    @Test
+    void doFilter_shouldShrinkLimit_whenServerTimesOut() throws Exception {
+
+        respond(new MockHttpServletRequest("GET", "/api/products/1"), 504);
+
+        assertEquals(18.0, limit());
+    }
+
+    @Test
+    void doFilter_shouldKeepLimit_whenBulkheadRejects() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setAttribute(BulkheadInterceptor.REJECTED_ATTRIBUTE, "CATALOG_SCAN");
+        respond(request, 503);
+
+        assertEquals(20.0, limit());
+    }
+
+    @Test
+    void doFilter_shouldKeepLimit_whenClientBudgetExpires() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setAttribute(DeadlineFilter.CLIENT_BUDGET_ATTRIBUTE, Boolean.TRUE);
+        respond(request, 504);
+
+        assertEquals(20.0, limit());
+    }
+
+    private void respond(MockHttpServletRequest request, int status) throws Exception {
+        FilterChain chain = (req, res) -> ((MockHttpServletResponse) res).setStatus(status);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private double limit() {
+        return registry.get("product.concurrency.limit").gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrencyLimitFilter filter() {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(registry);
+        // A zero window updates the limit after every request.
+        return new ConcurrencyLimitFilter(
+                new ConcurrencyLimitProperties(true, 20, 4, 100, 2.0, Duration.ZERO, 10, 0.9, 0.5),
+                new ObjectMapper(), provider);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ing.productmng_tool.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurst_thenRejectWithWaitTime() {
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 3, 10);
+        long now = 5 * SECOND;
+
+        assertEquals(0L, limiter.tryAcquire("user", now));
+        assertEquals(0L, limiter.tryAcquire("user", now));
+        assertEquals(0L, limiter.tryAcquire("user", now));
+
+        long wait = limiter.tryAcquire("user", now);
+        assertEquals(SECOND / 2, wait);
+        assertEquals(0L, limiter.tryAcquire("user", now + wait));
+
+        // Other principals have their own bucket.
+        assertEquals(0L, limiter.tryAcquire("admin", now));
+    }
+
+    @Test
+    void tryAcquire_shouldSweepIdleKeys_andShareOverflowBucket_whenFull() {
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2);
+        long now = 5 * SECOND;
+
+        assertEquals(0L, limiter.tryAcquire("a", now));
+        assertEquals(0L, limiter.tryAcquire("b", now));
+
+        // Map is full and both buckets are still refilling: new keys share one bucket.
+        assertEquals(0L, limiter.tryAcquire("c", now));
+        assertTrue(limiter.tryAcquire("d", now) > 0);
+        assertEquals(2, limiter.size());
+
+        // Once idle buckets are refilled they are dropped to make room.
+        assertEquals(0L, limiter.tryAcquire("e", now + 2 * SECOND));
+        assertEquals(1, limiter.size());
+    }
+}
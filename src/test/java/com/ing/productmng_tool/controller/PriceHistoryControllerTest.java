@@ -0,0 +1,96 @@
+package com.ing.productmng_tool.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.productmng_tool.history.PriceHistory;
+import com.ing.productmng_tool.history.PriceHistoryProperties;
+import com.ing.productmng_tool.model.entity.dto.PriceHistoryEntry;
+import com.ing.productmng_tool.model.entity.dto.PriceHistoryResponse;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PriceHistoryControllerTest {
+
+    private final PriceHistory history = mock(PriceHistory.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new PriceHistoryController(history, new PriceHistoryProperties(true, 50, 500), objectMapper))
+            .build();
+
+    @Test
+    void getPriceHistory_shouldReturnNewestPageWithDefaultSize() throws Exception {
+
+        LocalDateTime changedAt = LocalDateTime.of(2026, 3, 10, 9, 30);
+        when(history.page(7L, null, 50)).thenReturn(new PriceHistoryResponse(7L,
+                List.of(new PriceHistoryEntry(new BigDecimal("10.00"), new BigDecimal("12.50"), changedAt)),
+                changedAt));
+
+        mockMvc.perform(get("/api/products/7/price-history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(7))
+                .andExpect(jsonPath("$.entries[0].oldPrice").value(10.00))
+                .andExpect(jsonPath("$.entries[0].newPrice").value(12.50))
+                .andExpect(jsonPath("$.next").exists());
+    }
+
+    @Test
+    void getPriceHistory_shouldPassCursorAndCapLimit() throws Exception {
+
+        LocalDateTime before = LocalDateTime.of(2026, 3, 10, 9, 30, 0, 123_456_000);
+        when(history.page(7L, before, 500)).thenReturn(new PriceHistoryResponse(7L, List.of(), null));
+
+        mockMvc.perform(get("/api/products/7/price-history")
+                        .param("before", "2026-03-10T09:30:00.123456")
+                        .param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").isEmpty());
+
+        verify(history).page(7L, before, 500);
+    }
+
+    @Test
+    void getAllProductsAsOf_shouldStreamProductsAsJsonArray() throws Exception {
+
+        LocalDateTime asOf = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime priced = LocalDateTime.of(2026, 2, 20, 8, 15);
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> sink = invocation.getArgument(1);
+            sink.accept(new ProductResponse(1L, "Laptop", null, new BigDecimal("999.0000"), priced, priced));
+            sink.accept(new ProductResponse(3L, "Phone", "Old", new BigDecimal("450.0000"), null, priced));
+            return 2L;
+        }).when(history).catalogAsOf(eq(asOf), any());
+
+        mockMvc.perform(get("/api/products").param("asOf", "2026-03-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].price").value(999.0))
+                .andExpect(jsonPath("$[1].id").value(3))
+                .andExpect(jsonPath("$[1].updatedAt").value("2026-02-20T08:15:00"));
+    }
+
+    @Test
+    void getAllProductsAsOf_shouldReturnEmptyArrayBeforeFirstProduct() throws Exception {
+
+        when(history.catalogAsOf(any(), any())).thenReturn(0L);
+
+        mockMvc.perform(get("/api/products").param("asOf", "2000-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+}
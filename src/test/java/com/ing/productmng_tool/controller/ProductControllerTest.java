@@ -1,8 +1,10 @@
 package com.ing.productmng_tool.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.exception.DeadlineExceededException;
 import com.ing.productmng_tool.exception.GlobalExceptionHandler;
 import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductResponse;
 import com.ing.productmng_tool.security.CustomAccessDeniedHandler;
@@ -105,6 +107,21 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    // ------------------------------
+    // 504 Gateway Timeout
+    // ------------------------------
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllProducts_shouldReturn504_whenDeadlineExceeded() throws Exception {
+
+        when(service.getAllProducts()).thenThrow(new DeadlineExceededException());
+
+        mockMvc.perform(get("/api/products").header("X-Request-Timeout", "50"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status").value(504));
+    }
+
     // ------------------------------
     // 400 Bad Request (validation)
     // ------------------------------
@@ -125,6 +142,38 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createProduct_shouldReturn400_whenPriceExceedsCatalogRange() throws Exception {
+
+        ProductRequest request = new ProductRequest(
+                "Yacht",
+                "desc",
+                new BigDecimal("922337203685477.5808")
+        );
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void changePrice_shouldReturn400_whenPriceExceedsTickLogRange() throws Exception {
+
+        ChangePriceRequest request = new ChangePriceRequest(new BigDecimal("922337203685477.5808"));
+
+        mockMvc.perform(patch("/api/products/1/price")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
     // ------------------------------
     // 401 Unauthorized
     // ------------------------------
@@ -3,6 +3,7 @@ package com.ing.productmng_tool.controller;
 import com.ing.productmng_tool.security.SecurityConfig;
 import com.ing.productmng_tool.security.CustomAccessDeniedHandler;
 import com.ing.productmng_tool.security.CustomAuthenticationEntryPoint;
+import com.ing.productmng_tool.security.TokenService;
 import com.ing.productmng_tool.exception.GlobalExceptionHandler;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,8 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +38,9 @@ class ProductSecurityTest {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private TokenService tokenService;
+
     /**
      * Test configuration that provides a mocked ProductService bean.
      */
@@ -87,4 +93,40 @@ class ProductSecurityTest {
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    // 200 - signed bearer token instead of Basic credentials
+    @Test
+    void shouldAllowAccess_withBearerToken() throws Exception {
+
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"))).token();
+
+        mockMvc.perform(get("/api/products")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    // 401 - tampered bearer token
+    @Test
+    void shouldReturn401_whenBearerTokenTampered() throws Exception {
+
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"))).token();
+
+        mockMvc.perform(get("/api/products")
+                        .header("Authorization", "Bearer x" + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // 403 - roles embedded in the token are enforced
+    @Test
+    void shouldReturn403_whenBearerTokenLacksAdminRole() throws Exception {
+
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"))).token();
+
+        mockMvc.perform(delete("/api/products/1")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
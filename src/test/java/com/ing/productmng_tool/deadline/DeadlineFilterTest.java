@@ -0,0 +1,62 @@
+package com.ing.productmng_tool.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+
+    private final DeadlineFilter filter = new DeadlineFilter(new DeadlineProperties(
+            true, Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(5)));
+
+    @Test
+    void doFilter_shouldUseHeader_whenShorterThanDefault() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(DeadlineFilter.HEADER, "300");
+
+        assertTrue(remainingDuring(request) <= TimeUnit.MILLISECONDS.toNanos(300));
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void doFilter_shouldCapHeader_atEndpointDefault() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader(DeadlineFilter.HEADER, "60000");
+
+        long remaining = remainingDuring(request);
+        assertTrue(remaining <= TimeUnit.SECONDS.toNanos(2));
+        assertTrue(remaining > TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void determineTimeout_shouldFollowRemainingBudget() {
+
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+
+        Deadline.attach(Deadline.after(TimeUnit.MILLISECONDS.toNanos(2500)));
+        try {
+            assertEquals(3, transactionManager.determineTimeout(definition));
+            definition.setTimeout(1);
+            assertEquals(1, transactionManager.determineTimeout(definition));
+        } finally {
+            Deadline.detach();
+        }
+    }
+
+    private long remainingDuring(MockHttpServletRequest request) throws Exception {
+        AtomicLong remaining = new AtomicLong();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> remaining.set(Deadline.current().remainingNanos()));
+        return remaining.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ing.productmng_tool.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeTest {
+
+    @Test
+    void encode_shouldRoundTripThroughParse() {
+
+        Map<Long, Long> versions = new LinkedHashMap<>();
+        versions.put(7L, 3L);
+        versions.put(42L, ProductChange.DELETED);
+
+        List<String> payloads = ProductChange.encode("a1b2c3d4", 1_700_000_000_000L, versions);
+
+        assertEquals(List.of("a1b2c3d4|1700000000000|7:3,42:-1"), payloads);
+        ProductChange.Batch batch = ProductChange.parse(payloads.get(0), new HashMap<>());
+        assertEquals("a1b2c3d4", batch.origin());
+        assertEquals(1_700_000_000_000L, batch.sentAtMillis());
+        assertEquals(versions, batch.versions());
+    }
+
+    @Test
+    void encode_shouldSplitBatchesAtPayloadLimit() {
+
+        Map<Long, Long> versions = new LinkedHashMap<>();
+        for (long id = 1_000_000_000L; id < 1_000_002_000L; id++) {
+            versions.put(id, 12L);
+        }
+
+        List<String> payloads = ProductChange.encode("origin", 1L, versions);
+
+        assertTrue(payloads.size() > 1);
+        Map<Long, Long> parsed = new HashMap<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= ProductChange.MAX_PAYLOAD);
+            ProductChange.parse(payload, parsed);
+        }
+        assertEquals(versions, parsed);
+    }
+
+    @Test
+    void parse_shouldKeepNewestVersionAndLetDeletesWin() {
+
+        Map<Long, Long> versions = ProductChange.parse("x|0|5:2,5:4,5:3,9:8,9:-1,9:9", new HashMap<>()).versions();
+
+        assertEquals(Map.of(5L, 4L, 9L, ProductChange.DELETED), versions);
+        assertThrows(IllegalArgumentException.class, () -> ProductChange.parse("no-header", new HashMap<>()));
+        assertThrows(IllegalArgumentException.class, () -> ProductChange.parse("x|0|5-2", new HashMap<>()));
+    }
+}
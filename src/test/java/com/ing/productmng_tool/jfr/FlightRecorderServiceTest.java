@@ -0,0 +1,44 @@
+package com.ing.productmng_tool.jfr;
+
+import com.ing.productmng_tool.exception.RecordingNotRunningException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderServiceTest {
+
+    private final FlightRecorderService flightRecorder = new FlightRecorderService();
+
+    @Test
+    void dump_shouldContainProductEvents() throws Exception {
+
+        assertThrows(RecordingNotRunningException.class, flightRecorder::dump);
+
+        flightRecorder.start("default", Duration.ofMinutes(1));
+        ProductCacheEvent.record("negative", true);
+        DatabaseStatementEvent statement = DatabaseStatementEvent.start(false);
+        assertNotNull(statement);
+        statement.finish();
+        assertEquals("STOPPED", flightRecorder.stop().state());
+
+        Path dump = flightRecorder.dump();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+
+        RecordedEvent cacheEvent = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.ing.productmng.ProductCache"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("negative", cacheEvent.getString("cache"));
+        assertTrue(cacheEvent.getBoolean("hit"));
+        assertTrue(events.stream()
+                .anyMatch(e -> e.getEventType().getName().equals("com.ing.productmng.DatabaseStatement")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ing.productmng_tool.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ILoggingEvent> written = new CopyOnWriteArrayList<>();
+    private final CountingAsyncAppender appender = new CountingAsyncAppender();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    void append_shouldDropWithoutBlocking_andCountByReason() throws Exception {
+
+        start(4, 3);
+
+        // The worker takes the first event and blocks on it, the next four fill the queue.
+        appender.doAppend(event(Level.INFO, "taken"));
+        awaitQueueEmpty();
+        appender.doAppend(event(Level.WARN, "w1"));
+        appender.doAppend(event(Level.WARN, "w2"));
+        appender.doAppend(event(Level.INFO, "discarded"));
+        appender.doAppend(event(Level.WARN, "w3"));
+        appender.doAppend(event(Level.WARN, "w4"));
+        appender.doAppend(event(Level.ERROR, "overflowed"));
+
+        assertEquals(1, appender.discardedCount());
+        assertEquals(1, appender.overflowedCount());
+
+        release.countDown();
+        appender.stop();
+        assertEquals(List.of("taken", "w1", "w2", "w3", "w4"),
+                written.stream().map(ILoggingEvent::getMessage).toList());
+    }
+
+    @Test
+    void append_shouldCaptureCallerMdc_andArgumentsAsLogged() throws Exception {
+
+        start(16, 0);
+
+        StringBuilder name = new StringBuilder("Socks");
+        MDC.put("correlationId", "abc");
+        try {
+            appender.doAppend(event(Level.INFO, "name={} price={}", name, 42));
+        } finally {
+            MDC.remove("correlationId");
+        }
+        name.append(" (renamed)");
+        release.countDown();
+        appender.stop();
+
+        ILoggingEvent event = written.get(0);
+        assertEquals("abc", event.getMDCPropertyMap().get("correlationId"));
+        assertEquals("name=Socks price=42", event.getFormattedMessage());
+        assertEquals(Thread.currentThread().getName(), event.getThreadName());
+    }
+
+    private void start(int queueSize, int discardingThreshold) {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event);
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setQueueSize(queueSize);
+        appender.setDiscardingThreshold(discardingThreshold);
+        appender.addAppender(slow);
+        appender.start();
+    }
+
+    private void awaitQueueEmpty() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.getNumberOfElementsInQueue() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private LoggingEvent event(Level level, String message, Object... args) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, message, null, args);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ing.productmng_tool.memory;
+
+import com.ing.productmng_tool.exception.DuplicateProductException;
+import com.ing.productmng_tool.memory.InMemoryProductStore.StoredProduct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryProductStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void create_shouldRejectDuplicateName_andChangePriceShouldCheckVersion() {
+
+        try (InMemoryProductStore store = open()) {
+            StoredProduct socks = store.create("Socks", "Nike comfy socks", new BigDecimal("30"));
+
+            assertThrows(DuplicateProductException.class,
+                    () -> store.create("Socks", "other", new BigDecimal("1")));
+            assertEquals(new BigDecimal("30.0000"), socks.product().price());
+            assertEquals(0L, socks.version());
+
+            StoredProduct changed = store.changePrice(socks.product().id(), 0L, new BigDecimal("31.5"));
+            assertEquals(1L, changed.version());
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> store.changePrice(socks.product().id(), 0L, new BigDecimal("29")));
+
+            store.delete(socks.product().id());
+            assertEquals("Socks", store.create("Socks", null, new BigDecimal("2")).product().name());
+        }
+    }
+
+    @Test
+    void reopen_shouldRecoverFromLog_andDropTornTail() throws Exception {
+
+        long mugId;
+        try (InMemoryProductStore store = open()) {
+            mugId = store.create("Mug", "mug", new BigDecimal("12.5")).product().id();
+            long plate = store.create("Plate", null, new BigDecimal("3")).product().id();
+            store.changePrice(mugId, 0L, new BigDecimal("13.75"));
+            store.delete(plate);
+        }
+
+        Path log = dir.resolve("products.wal");
+        long validBytes = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        try (InMemoryProductStore store = open()) {
+            assertEquals(1, store.size());
+            StoredProduct mug = store.find(mugId);
+            assertEquals(new BigDecimal("13.7500"), mug.product().price());
+            assertEquals(1L, mug.version());
+            assertEquals(validBytes, Files.size(log));
+            // Ids are not reused after a delete.
+            assertEquals(mugId + 2, store.create("Cup", null, BigDecimal.ONE).product().id());
+        }
+    }
+
+    @Test
+    void compact_shouldShrinkLog_andKeepProducts() throws Exception {
+
+        long id;
+        try (InMemoryProductStore store = open()) {
+            id = store.create("Mug", "mug", new BigDecimal("1")).product().id();
+            for (long version = 0; version < 500; version++) {
+                store.changePrice(id, version, BigDecimal.valueOf(version + 2));
+            }
+            long before = Files.size(dir.resolve("products.wal"));
+
+            store.compact();
+
+            assertTrue(Files.size(dir.resolve("products.wal")) < before / 100);
+            store.changePrice(id, 500L, new BigDecimal("7"));
+        }
+
+        try (InMemoryProductStore store = open()) {
+            assertEquals(501L, store.find(id).version());
+            assertEquals(new BigDecimal("7.0000"), store.find(id).product().price());
+        }
+    }
+
+    private InMemoryProductStore open() {
+        return new InMemoryProductStore(new ProductWriteAheadLog(dir.resolve("products.wal")), HOUR, Long.MAX_VALUE);
+    }
+}
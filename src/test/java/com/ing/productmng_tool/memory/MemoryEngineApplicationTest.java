@@ -0,0 +1,68 @@
+package com.ing.productmng_tool.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Starts the whole application on the in-memory engine, without PostgreSQL.
+ */
+@SpringBootTest(properties = "product.storage.engine=memory")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class MemoryEngineApplicationTest {
+
+    @TempDir
+    static Path dir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void storageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("product.storage.memory.directory", () -> dir.toString());
+    }
+
+    @Test
+    void productLifecycle_shouldWorkWithoutDatabase() throws Exception {
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Socks\",\"description\":\"Nike comfy socks\",\"price\":30}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Socks\",\"description\":\"again\",\"price\":31}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(patch("/api/products/1/price")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newPrice\":35.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(35.5));
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(delete("/api/products/1"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,99 @@
+package com.ing.productmng_tool.memory;
+
+import com.ing.productmng_tool.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes the Prometheus endpoint of the application started on the in-memory engine.
+ */
+@SpringBootTest(properties = "product.storage.engine=memory")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser(roles = "ADMIN")
+class PrometheusEndpointTest {
+
+    @TempDir
+    static Path dir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MetricsRepositoryMethodInvocationListener repositoryMetrics;
+
+    @DynamicPropertySource
+    static void storageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("product.storage.memory.directory", () -> dir.toString());
+    }
+
+    @Test
+    void scrape_shouldExposeServiceHistogram_withMethodAndApplicationTags() throws Exception {
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Socks\",\"description\":\"Nike comfy socks\",\"price\":30}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("product_service_seconds_bucket{"),
+                        containsString("method=\"createProduct\""),
+                        containsString("exception=\"none\""),
+                        containsString("application=\"productmng-tool\""),
+                        // SLO bucket of 5ms
+                        containsString("le=\"0.005\""),
+                        containsString("product_service_seconds_count{"))));
+    }
+
+    @Test
+    void scrape_shouldExposeRepositoryInvocationHistogram() throws Exception {
+
+        // The JPA repositories need PostgreSQL; report an invocation the way Spring Data does.
+        repositoryMetrics.afterInvocation(new RepositoryMethodInvocation(ProductRepository.class,
+                ProductRepository.class.getMethod("existsByName", String.class),
+                new RepositoryMethodInvocationResult() {
+                    @Override
+                    public State getState() {
+                        return State.SUCCESS;
+                    }
+
+                    @Override
+                    public Throwable getError() {
+                        return null;
+                    }
+                }, TimeUnit.MILLISECONDS.toNanos(3)));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("spring_data_repository_invocations_seconds_bucket{"),
+                        containsString("repository=\"ProductRepository\""),
+                        containsString("method=\"existsByName\""),
+                        // SLO bucket of 1ms
+                        containsString("le=\"0.001\""))));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ing.productmng_tool.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadReplicaTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final ReadReplica readReplica = new ReadReplica(primary, replica,
+            Duration.ofSeconds(1), Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @Test
+    void lsn_shouldRoundTripPostgresNotation() {
+
+        assertEquals(0x16_B374D848L, Lsn.parse("16/B374D848"));
+        assertEquals("16/B374D848", Lsn.format(Lsn.parse("16/B374D848")));
+        assertEquals("0/0", Lsn.format(0L));
+        assertThrows(IllegalArgumentException.class, () -> Lsn.parse("16B374D848"));
+        assertThrows(IllegalArgumentException.class, () -> Lsn.parse("1/XYZ"));
+    }
+
+    @Test
+    void update_shouldMeasureLagFromOldestUnreplayedPrimaryPosition() {
+
+        readReplica.update(100L, 100L, 0L);
+        assertEquals(0L, readReplica.state().lagNanos());
+
+        readReplica.update(200L, 150L, 1_000 * MS);
+        readReplica.update(300L, 150L, 1_500 * MS);
+        assertEquals(500 * MS, readReplica.state().lagNanos());
+
+        // 200 is replayed, 300 is still pending since 1500ms.
+        readReplica.update(300L, 250L, 1_800 * MS);
+        assertEquals(300 * MS, readReplica.state().lagNanos());
+
+        readReplica.update(300L, 300L, 1_900 * MS);
+        assertEquals(0L, readReplica.state().lagNanos());
+        assertEquals(300L, readReplica.state().replayLsn());
+    }
+
+    @Test
+    void connection_shouldFallBackToPrimary_whenBehindTokenLaggingOrDown() throws Exception {
+
+        Connection connection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        assertNull(readReplica.connection(0L), "unchecked replica");
+
+        long now = System.nanoTime();
+        readReplica.update(500L, 500L, now);
+        assertSame(connection, readReplica.connection(0L));
+        assertSame(connection, readReplica.connection(500L));
+        assertNull(readReplica.connection(501L), "token ahead of replay");
+
+        readReplica.update(900L, 500L, now - 3_000 * MS);
+        readReplica.update(900L, 500L, now);
+        assertNull(readReplica.connection(0L), "lagging 3s");
+
+        readReplica.update(900L, 900L, now);
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("down", new RuntimeException()));
+        assertNull(readReplica.connection(0L), "replica down");
+        assertFalse(readReplica.state().available());
+    }
+}
@@ -1,22 +1,35 @@
 package com.ing.productmng_tool.service;
 
+import com.ing.productmng_tool.cache.NegativeCache;
+import com.ing.productmng_tool.cache.ProductNameIndex;
+import com.ing.productmng_tool.catalog.ProductCatalog;
 import com.ing.productmng_tool.exception.DuplicateProductException;
 import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.invalidation.ProductChangePublisher;
 import com.ing.productmng_tool.mapper.ProductMapper;
 import com.ing.productmng_tool.model.entity.Product;
 import com.ing.productmng_tool.model.entity.dto.ChangePriceRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductRequest;
 import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.replica.ReadReplica;
 import com.ing.productmng_tool.repository.ProductRepository;
+import com.ing.productmng_tool.stream.ProductEventStream;
 import com.ing.productmng_tool.service.impl.ProductServiceImpl;
+import com.ing.productmng_tool.warmup.ProductAccessTracker;
+import com.ing.productmng_tool.writebehind.PriceWriteBehindBuffer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -33,6 +46,36 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper mapper;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<PriceWriteBehindBuffer> writeBehind;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private NegativeCache missingProducts;
+
+    @Mock
+    private ProductNameIndex productNames;
+
+    @Mock
+    private ObjectProvider<ProductAccessTracker> accessTracker;
+
+    @Mock
+    private ObjectProvider<ProductCatalog> catalog;
+
+    @Mock
+    private ObjectProvider<ProductChangePublisher> changePublisher;
+
+    @Mock
+    private ObjectProvider<ProductEventStream> events;
+
+    @Mock
+    private ObjectProvider<ReadReplica> replica;
+
     @InjectMocks
     private ProductServiceImpl service;
 
@@ -55,6 +98,38 @@ class ProductServiceImplTest {
                 () -> service.getProductById(1L));
 
         verify(repository).findById(1L);
+        verify(missingProducts).markMissing(eq(1L), anyLong());
+    }
+
+    @Test
+    void getProductById_shouldConfirmMissOnPrimary_whenReplicaIsEnabled() {
+
+        when(replica.getIfAvailable()).thenReturn(mock(ReadReplica.class));
+        ProductServiceImpl replicated = new ProductServiceImpl(repository, mapper, transactionManager, writeBehind,
+                meterRegistry, missingProducts, productNames, accessTracker, catalog, changePublisher, events, replica);
+        ProductResponse response = new ProductResponse(1L, product.getName(), product.getDescription(),
+                product.getPrice(), null, null);
+        // The replica has not replayed the insert yet.
+        when(repository.findById(1L)).thenReturn(Optional.empty(), Optional.of(product));
+        when(mapper.toResponse(product)).thenReturn(response);
+
+        assertEquals(response, replicated.getProductById(1L));
+
+        verify(repository, times(2)).findById(1L);
+        verify(missingProducts, never()).markMissing(anyLong(), anyLong());
+    }
+
+    @Test
+    void getProductById_shouldSkipRepository_whenIdKnownMissing() {
+
+        when(missingProducts.isMissing(1L)).thenReturn(true);
+
+        ProductNotFoundException ex = assertThrows(ProductNotFoundException.class,
+                () -> service.getProductById(1L));
+
+        assertEquals("Product not found with id: 1", ex.getMessage());
+        assertEquals(0, ex.getStackTrace().length);
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -90,6 +165,19 @@ class ProductServiceImplTest {
                 ));
     }
 
+    @Test
+    void createProduct_shouldRejectDuplicateWithoutInsert_whenNameConfirmed() {
+
+        when(productNames.mightContain("Socks")).thenReturn(true);
+        when(repository.existsByName("Socks")).thenReturn(true);
+
+        assertThrows(DuplicateProductException.class,
+                () -> service.createProduct(
+                        new ProductRequest("Socks", "Nike comfy socks", new BigDecimal("30"))));
+
+        verify(repository, never()).save(any(Product.class));
+    }
+
     @Test
     void createProduct_shouldReturnSavedProduct() {
 
@@ -114,6 +202,8 @@ class ProductServiceImplTest {
 
         assertEquals("Socks", response.name());
         verify(repository).save(entity);
+        verify(repository, never()).existsByName(anyString());
+        verify(productNames).add("Socks");
     }
 
     @Test
@@ -0,0 +1,64 @@
+package com.ing.productmng_tool.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMonitorTest {
+
+    private final SqlStatementMonitor monitor =
+            new SqlStatementMonitor(new SqlProperties(Duration.ofMillis(100), 2, 2, 10));
+
+    @Test
+    void statementExecuted_shouldAggregateByShape_withoutLiterals() {
+
+        monitor.inspect("select p.id from products p where p.name = 'secret' and p.price > 10.5");
+        monitor.statementExecuted(1_000_000L);
+        monitor.inspect("select p.id from products p where p.name = 'other'  and p.price > 3");
+        String shape = monitor.statementExecuted(3_000_000L);
+
+        assertEquals("select p.id from products p where p.name = ? and p.price > ?", shape);
+
+        SqlStatementMonitor.ShapeSummary summary = monitor.topShapes(10).get(0);
+        assertEquals(2, summary.executions());
+        assertEquals(4.0, summary.totalMs(), 0.001);
+        assertEquals(3.0, summary.maxMs(), 0.001);
+    }
+
+    @Test
+    void statementExecuted_shouldCollapseInLists_andKeepAliases() {
+
+        monitor.inspect("select p1_0.id from products p1_0 where p1_0.id in (?, ?, ?)");
+
+        assertEquals("select p1_0.id from products p1_0 where p1_0.id in (?...)", monitor.statementExecuted(1L));
+    }
+
+    @Test
+    void statementExecuted_shouldGroupShapesBeyondLimit() {
+
+        for (String table : List.of("a", "b", "c")) {
+            monitor.inspect("select * from " + table);
+            monitor.statementExecuted(1L);
+        }
+
+        assertEquals(3, monitor.topShapes(10).stream().mapToLong(SqlStatementMonitor.ShapeSummary::executions).sum());
+        assertTrue(monitor.topShapes(10).stream().anyMatch(s -> s.shape().startsWith("(other")));
+    }
+
+    @Test
+    void slowStatements_shouldKeepNewest_withinCapacity() {
+
+        for (int i = 1; i <= 3; i++) {
+            monitor.inspect("update products set price = " + i + " where id = 7");
+            monitor.statementExecuted(i * 200_000_000L);
+        }
+
+        List<SqlStatementMonitor.SlowStatement> slow = monitor.slowStatements();
+        assertEquals(2, slow.size());
+        assertEquals(600.0, slow.get(0).durationMs(), 0.001);
+        assertEquals("update products set price = ? where id = ?", slow.get(0).shape());
+    }
+}
@@ -0,0 +1,182 @@
+package com.ing.productmng_tool.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ing.productmng_tool.controller.ProductStreamController;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class ProductEventStreamTest {
+
+    private static final String PATH = "/api/products/changes/stream";
+    private static final Pattern LAST_ID = Pattern.compile("(?s).*id:(\\S+)");
+
+    private final ProductEventStream stream = new ProductEventStream(
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            3, 2, Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1), new SimpleMeterRegistry());
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProductStreamController(stream)).build();
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+    }
+
+    @Test
+    void subscribe_shouldReceiveChangesPublishedAfterwards() throws Exception {
+
+        MockHttpServletResponse response = subscribe(null);
+        stream.publish(ProductEvent.changed(product(1L, "3.50"), 0L));
+        stream.publish(ProductEvent.changed(product(1L, "4.00"), 1L));
+        stream.publish(ProductEvent.deleted(1L));
+
+        String body = awaitContaining(response, "event:deleted");
+        assertTrue(body.contains("event:created"));
+        assertTrue(body.contains("event:price-changed"));
+        assertTrue(body.contains("\"price\":4.00"));
+        assertTrue(body.indexOf("event:created") < body.indexOf("event:price-changed"));
+        assertEquals(1, stream.subscriberCount());
+    }
+
+    @Test
+    void subscribe_shouldReplayFromLastEventIdWhileRetained() throws Exception {
+
+        MockHttpServletResponse first = subscribe(null);
+        stream.publish(ProductEvent.changed(product(1L, "1.00"), 0L));
+        String lastId = lastId(awaitContaining(first, "event:created"));
+
+        stream.publish(ProductEvent.changed(product(1L, "2.00"), 1L));
+        stream.publish(ProductEvent.changed(product(1L, "3.00"), 2L));
+
+        String resumed = awaitContaining(subscribe(lastId), "\"version\":2");
+        assertTrue(resumed.contains("\"version\":1"));
+        assertFalse(resumed.contains("\"version\":0"));
+        assertFalse(resumed.contains("event:reset"));
+    }
+
+    @Test
+    void subscribe_shouldSendResetWhenLastEventIdIsGone() throws Exception {
+
+        MockHttpServletResponse first = subscribe(null);
+        stream.publish(ProductEvent.changed(product(1L, "1.00"), 0L));
+        String lastId = lastId(awaitContaining(first, "event:created"));
+        for (long version = 1; version <= 4; version++) {
+            stream.publish(ProductEvent.changed(product(1L, "2.00"), version));
+        }
+
+        assertTrue(awaitContaining(subscribe(lastId), "event:" + ProductEventStream.RESET).length() > 0);
+        assertTrue(awaitContaining(subscribe("0000-1"), "event:" + ProductEventStream.RESET).length() > 0);
+    }
+
+    @Test
+    void publish_shouldReachOtherSubscribers_whenOneStopsReading() throws Exception {
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProductEventStream stalling = new ProductEventStream(
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                3, 1, Duration.ofHours(1), Duration.ofMillis(200), Duration.ofHours(1), new SimpleMeterRegistry()) {
+
+            private boolean first = true;
+
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                if (!first) {
+                    return super.createEmitter(timeoutMillis);
+                }
+                first = false;
+                // A client that stopped reading after connecting: writes block until released.
+                return new SseEmitter(timeoutMillis) {
+
+                    private boolean connected;
+
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (!connected) {
+                            connected = true;
+                            return;
+                        }
+                        writing.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+        try {
+            stalling.start();
+            stalling.subscribe(null);
+            MockMvc healthy = MockMvcBuilders.standaloneSetup(new ProductStreamController(stalling)).build();
+            MockHttpServletResponse response = healthy.perform(get(PATH))
+                    .andExpect(request().asyncStarted())
+                    .andReturn()
+                    .getResponse();
+
+            stalling.publish(ProductEvent.changed(product(1L, "1.00"), 0L));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            stalling.publish(ProductEvent.changed(product(1L, "2.00"), 1L));
+
+            assertTrue(awaitContaining(response, "\"version\":1").contains("\"version\":0"));
+            assertEquals(1, stalling.subscriberCount());
+        } finally {
+            release.countDown();
+            stalling.close();
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var request = get(PATH);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String awaitContaining(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        String last = body;
+        assertTrue(body.contains(expected), () -> "Missing " + expected + " in " + last);
+        return body;
+    }
+
+    private static String lastId(String body) {
+        Matcher matcher = LAST_ID.matcher(body);
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+
+    private static ProductResponse product(long id, String price) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ProductResponse(id, "Socks", null, new BigDecimal(price), now, now);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ing.productmng_tool.sync;
+
+import com.ing.productmng_tool.exception.InvalidChangeCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeCursorTest {
+
+    @Test
+    void parse_shouldRoundTripThroughToString() {
+
+        ChangeCursor cursor = ChangeCursor.parse("1234567-89");
+
+        assertEquals(new ChangeCursor(1_234_567L, 89L), cursor);
+        assertEquals("1234567-89", cursor.toString());
+        assertEquals("0-0", ChangeCursor.START.toString());
+    }
+
+    @Test
+    void compareTo_shouldOrderByTransactionBeforeSequence() {
+
+        ChangeCursor earlyTransactionLateSequence = new ChangeCursor(100L, 900L);
+        ChangeCursor lateTransactionEarlySequence = new ChangeCursor(101L, 5L);
+
+        assertTrue(earlyTransactionLateSequence.compareTo(lateTransactionEarlySequence) < 0);
+        assertTrue(new ChangeCursor(100L, 1L).compareTo(new ChangeCursor(100L, 2L)) < 0);
+        assertTrue(ChangeCursor.parse("18446744073709551615-1").compareTo(new ChangeCursor(1L, 1L)) > 0);
+    }
+
+    @Test
+    void parse_shouldRejectMalformedCursors() {
+
+        for (String text : new String[]{"", "12", "-3", "12-", "a-1", "1-b", "1-2-3", "-1-2"}) {
+            assertThrows(InvalidChangeCursorException.class, () -> ChangeCursor.parse(text), text);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ing.productmng_tool.timing;
+
+import com.ing.productmng_tool.sql.SqlProperties;
+import com.ing.productmng_tool.sql.SqlStatementMonitor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final SqlStatementMonitor monitor =
+            new SqlStatementMonitor(new SqlProperties(Duration.ofMillis(100), 16, 100, 3));
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(
+            new TimingProperties(true, true, Duration.ofMillis(500)),
+            new StaticListableBeanFactory(Map.of("monitor", monitor)).getBeanProvider(SqlStatementMonitor.class));
+
+    @Test
+    void doFilter_shouldReportPhases_inServerTimingHeader() throws Exception {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), response, (req, res) -> {
+            RequestTiming.authenticated();
+            RequestTiming.handlerStarted();
+            RequestTiming.connectionAcquired(1_000_000L);
+            RequestTiming.statementExecuted(2_500_000L, null);
+            RequestTiming.statementExecuted(500_000L, null);
+        });
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("auth;dur="), header);
+        assertTrue(header.contains("pool;dur=1.000"), header);
+        assertTrue(header.contains("db;dur=3.000;desc=\"2 stmt\""), header);
+        assertNull(RequestTiming.current());
+        assertTrue(monitor.suspectedNPlusOne().isEmpty());
+    }
+
+    @Test
+    void doFilter_shouldReportRepeatedStatements_asPossibleNPlusOne() throws Exception {
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    RequestTiming.statementExecuted(1_000L, "select * from products");
+                    for (int i = 0; i < 4; i++) {
+                        RequestTiming.statementExecuted(1_000L, "select * from tags where product_id=?");
+                    }
+                });
+
+        SqlStatementMonitor.SuspectedNPlusOne suspect = monitor.suspectedNPlusOne().get(0);
+        assertEquals(5, suspect.statements());
+        assertEquals(4, suspect.repeats());
+        assertEquals("select * from tags where product_id=?", suspect.repeatedShape());
+        assertEquals("/api/products", suspect.path());
+    }
+
+    @Test
+    void doFilter_shouldDetectNPlusOne_whenTimingIsDisabled() throws Exception {
+
+        ServerTimingFilter untimed = new ServerTimingFilter(
+                new TimingProperties(false, true, Duration.ofMillis(500)),
+                new StaticListableBeanFactory(Map.of("monitor", monitor)).getBeanProvider(SqlStatementMonitor.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        untimed.doFilter(new MockHttpServletRequest("GET", "/api/products"), response, (req, res) -> {
+            for (int i = 0; i < 4; i++) {
+                RequestTiming.statementExecuted(1_000L, "select * from tags where product_id=?");
+            }
+        });
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+        assertEquals(4, monitor.suspectedNPlusOne().get(0).repeats());
+    }
+
+    @Test
+    void doFilter_shouldSkipNonApiRequests() throws Exception {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response,
+                (req, res) -> assertNull(RequestTiming.current()));
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+    }
+}
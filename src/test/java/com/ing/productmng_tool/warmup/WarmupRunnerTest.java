@@ -0,0 +1,95 @@
+package com.ing.productmng_tool.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.productmng_tool.controller.ProductController;
+import com.ing.productmng_tool.exception.ProductNotFoundException;
+import com.ing.productmng_tool.model.entity.dto.ProductResponse;
+import com.ing.productmng_tool.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductAccessTracker accessTracker;
+
+    private final ProductResponse response = new ProductResponse(1L, "Socks", null, new BigDecimal("3.50"),
+            LocalDateTime.now(), LocalDateTime.now());
+
+    @Test
+    void run_shouldPreloadHottestProducts_thenExerciseReadPath_beforeCounting() throws Exception {
+
+        when(dataSource.unwrap(HikariDataSource.class)).thenThrow(new SQLException("not a pool"));
+        when(accessTracker.hottest(2)).thenReturn(List.of(1L, 2L));
+        when(productService.getProductById(1L)).thenReturn(response);
+        when(productService.getProductById(2L)).thenThrow(new ProductNotFoundException(2L));
+
+        runner(Duration.ofSeconds(30), 10).run(new DefaultApplicationArguments());
+
+        // Two preloads plus five controller reads of each id.
+        verify(productService, times(6)).getProductById(1L);
+        verify(productService, times(6)).getProductById(2L);
+        InOrder order = inOrder(productService, accessTracker);
+        order.verify(productService, atLeastOnce()).getProductById(anyLong());
+        order.verify(accessTracker).startRecording();
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void run_shouldStopWithinBudget_andStillStartCounting() throws Exception {
+
+        when(dataSource.unwrap(HikariDataSource.class)).thenThrow(new SQLException("not a pool"));
+        when(accessTracker.hottest(2)).thenReturn(List.of(1L));
+        when(productService.getProductById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return response;
+        });
+
+        long started = System.nanoTime();
+        runner(Duration.ofMillis(50), 1_000_000).run(new DefaultApplicationArguments());
+
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(2).toNanos());
+        verify(accessTracker).startRecording();
+    }
+
+    @Test
+    void run_shouldReportReady_whenDatabaseIsUnavailable() throws Exception {
+
+        when(dataSource.unwrap(HikariDataSource.class)).thenThrow(new SQLException("not a pool"));
+        when(accessTracker.hottest(2)).thenThrow(new IllegalStateException("database down"));
+
+        assertDoesNotThrow(() -> runner(Duration.ofSeconds(30), 10).run(new DefaultApplicationArguments()));
+        verify(accessTracker).startRecording();
+    }
+
+    private WarmupRunner runner(Duration budget, int iterations) {
+        WarmupProperties properties = new WarmupProperties(true, budget, 2, iterations, 100,
+                Duration.ofMinutes(1), Duration.ofDays(7));
+        return new WarmupRunner(dataSource, productService, new ProductController(productService),
+                new ObjectMapper().findAndRegisterModules(), accessTracker, properties);
+    }
+}
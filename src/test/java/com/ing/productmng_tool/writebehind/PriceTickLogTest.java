@@ -0,0 +1,66 @@
+package com.ing.productmng_tool.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTickLogTest {
+
+    private static final long SYNC_INTERVAL = 1_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_shouldReturnDurableTicks_afterReopen() {
+
+        try (PriceTickLog log = new PriceTickLog(dir, 4096, SYNC_INTERVAL)) {
+            log.append(1L, 1_000_000L, 100L);
+            long last = log.append(2L, 2_500_000L, 200L);
+            log.awaitDurable(last);
+        }
+
+        List<PriceTickLog.PriceTick> replayed = new ArrayList<>();
+        try (PriceTickLog log = new PriceTickLog(dir, 4096, SYNC_INTERVAL)) {
+            log.replay(replayed::add);
+
+            assertEquals(2, replayed.size());
+            assertEquals(2L, replayed.get(1).productId());
+            assertEquals(2_500_000L, replayed.get(1).unscaledPrice());
+            assertEquals(3L, log.append(3L, 1L, 300L));
+        }
+    }
+
+    @Test
+    void checkpoint_shouldSkipFlushedTicks_andDeleteOldSegments() throws Exception {
+
+        // Two records per segment.
+        try (PriceTickLog log = new PriceTickLog(dir, 2 * PriceTickLog.RECORD_SIZE, SYNC_INTERVAL)) {
+            long last = 0;
+            for (long id = 1; id <= 5; id++) {
+                last = log.append(id, id * 10_000L, id);
+            }
+            log.awaitDurable(last);
+            log.checkpoint(4L);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.filter(p -> p.getFileName().toString().startsWith("ticks-")).count());
+        }
+
+        List<PriceTickLog.PriceTick> replayed = new ArrayList<>();
+        try (PriceTickLog log = new PriceTickLog(dir, 2 * PriceTickLog.RECORD_SIZE, SYNC_INTERVAL)) {
+            log.replay(replayed::add);
+        }
+
+        assertEquals(1, replayed.size());
+        assertEquals(5L, replayed.get(0).sequence());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ing.productmng_tool.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PriceWriteBehindBufferTest {
+
+    private static final long SYNC_INTERVAL = 1_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void submit_shouldKeepThePriceTheLogReplays() {
+
+        BigDecimal accepted;
+        try (PriceWriteBehindBuffer buffer = buffer()) {
+            accepted = buffer.submit(1L, new BigDecimal("1.23456")).price();
+        }
+
+        assertEquals(new BigDecimal("1.2346"), accepted);
+        try (PriceTickLog log = new PriceTickLog(dir, 4096, SYNC_INTERVAL)) {
+            log.replay(tick -> assertEquals(accepted, PriceWriteBehindBuffer.PendingPrice.of(tick).price()));
+        }
+    }
+
+    private PriceWriteBehindBuffer buffer() {
+        WriteBehindProperties properties = new WriteBehindProperties(true, dir, DataSize.ofBytes(4096),
+                Duration.ofNanos(SYNC_INTERVAL), Duration.ofHours(1), 100);
+        return new PriceWriteBehindBuffer(new PriceTickLog(dir, 4096, SYNC_INTERVAL),
+                mock(JdbcTemplate.class), mock(TransactionTemplate.class), properties, null);
+    }
+}